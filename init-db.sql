@@ -14,3 +14,74 @@ USE pet_clinic;
 
 SET CHARACTER SET utf8mb4;
 SET COLLATE utf8mb4_unicode_ci;
+
+-- Cold tier for appointments older than petclinic.archive.horizon-days.
+-- Created here (rather than by Hibernate) so it can be range-partitioned by month;
+-- partition pruning keeps history queries on recent months cheap. The nightly archive
+-- job splits pmax ahead of each month when petclinic.archive.mysql-partitioning=true.
+CREATE TABLE IF NOT EXISTS appointments_archive (
+    id BIGINT NOT NULL,
+    appointment_code VARCHAR(255) NOT NULL,
+    appointment_time DATETIME(6) NOT NULL,
+    status VARCHAR(255) NOT NULL,
+    pet_id BIGINT,
+    doctor_id BIGINT,
+    archived_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id, appointment_time),
+    KEY idx_archive_doctor_time (doctor_id, appointment_time),
+    KEY idx_archive_pet_time (pet_id, appointment_time)
+)
+PARTITION BY RANGE (TO_DAYS(appointment_time)) (
+    PARTITION p_old VALUES LESS THAN (TO_DAYS('2025-01-01')),
+    PARTITION pmax VALUES LESS THAN MAXVALUE
+);
+
+-- Upgrade for databases created before uk_appointment_doctor_time (see Appointment).
+-- ddl-auto=update cannot add the constraint while two bookings share a doctor and slot,
+-- and it never drops idx_appointment_doctor_time, which the constraint replaces. The
+-- application refuses to start without the constraint, so run this block against an
+-- existing database with the application stopped; on a fresh one it does nothing.
+-- Of each duplicate group it keeps the booking with a medical record, otherwise the
+-- oldest; if several have records it stops and leaves the group to be resolved by hand.
+DELIMITER //
+CREATE PROCEDURE upgrade_appointment_doctor_time()
+BEGIN
+    IF EXISTS (SELECT 1 FROM information_schema.tables
+               WHERE table_schema = DATABASE() AND table_name = 'appointments')
+       AND NOT EXISTS (SELECT 1 FROM information_schema.table_constraints
+                       WHERE table_schema = DATABASE() AND table_name = 'appointments'
+                         AND constraint_name = 'uk_appointment_doctor_time') THEN
+        CREATE TEMPORARY TABLE duplicate_appointments AS
+            SELECT DISTINCT later.id
+            FROM appointments later
+            JOIN appointments kept ON kept.doctor_id = later.doctor_id
+                AND kept.appointment_time = later.appointment_time AND kept.id <> later.id
+            WHERE NOT EXISTS (SELECT 1 FROM medical_records r WHERE r.appointment_id = later.id)
+              AND (EXISTS (SELECT 1 FROM medical_records r WHERE r.appointment_id = kept.id) OR kept.id < later.id);
+
+        -- tombstones, so delta-sync clients drop the removed bookings too
+        IF EXISTS (SELECT 1 FROM information_schema.tables
+                   WHERE table_schema = DATABASE() AND table_name = 'sync_sequence') THEN
+            UPDATE sync_sequence SET current_value = current_value + 1 WHERE id = 1;
+            INSERT INTO sync_tombstones (seq, entity_type, entity_id, owner_id, doctor_id, deleted_at)
+                SELECT s.current_value, 'appointment', a.id, p.owner_id, a.doctor_id, NOW(6)
+                FROM duplicate_appointments d
+                JOIN appointments a ON a.id = d.id
+                JOIN pets p ON p.id = a.pet_id
+                JOIN sync_sequence s ON s.id = 1;
+        END IF;
+        DELETE FROM appointment_reminders WHERE appointment_id IN (SELECT id FROM duplicate_appointments);
+        DELETE FROM appointments WHERE id IN (SELECT id FROM duplicate_appointments);
+        DROP TEMPORARY TABLE duplicate_appointments;
+
+        ALTER TABLE appointments ADD CONSTRAINT uk_appointment_doctor_time UNIQUE (doctor_id, appointment_time);
+    END IF;
+    IF EXISTS (SELECT 1 FROM information_schema.statistics
+               WHERE table_schema = DATABASE() AND table_name = 'appointments'
+                 AND index_name = 'idx_appointment_doctor_time') THEN
+        DROP INDEX idx_appointment_doctor_time ON appointments;
+    END IF;
+END //
+DELIMITER ;
+CALL upgrade_appointment_doctor_time();
+DROP PROCEDURE upgrade_appointment_doctor_time;
@@ -0,0 +1,35 @@
+#!/bin/bash
+# Measures wall time from JVM launch to the first successful /api/auth/health response.
+#
+# Usage: scripts/measure-startup.sh [runs] -- <command that starts the backend>
+#   scripts/measure-startup.sh 5 -- java -jar target/petclinic-backend-1.0.0.jar
+#   (cd target/fast-startup && ../../scripts/measure-startup.sh 5 -- \
+#       java -XX:SharedArchiveFile=petclinic.jsa -Dspring.aot.enabled=true -jar petclinic-backend-1.0.0.jar)
+
+RUNS=1
+if [ "$1" != "--" ]; then
+    RUNS=$1
+    shift
+fi
+shift
+HEALTH_URL=${HEALTH_URL:-http://localhost:8080/api/auth/health}
+
+total=0
+for run in $(seq 1 "$RUNS"); do
+    start=$(date +%s%N)
+    "$@" > /tmp/petclinic-startup-$run.log 2>&1 &
+    pid=$!
+    until curl -sf -o /dev/null "$HEALTH_URL"; do
+        if ! kill -0 $pid 2>/dev/null; then
+            echo "run $run: process exited before becoming healthy, see /tmp/petclinic-startup-$run.log"
+            exit 1
+        fi
+        sleep 0.05
+    done
+    elapsed=$(( ($(date +%s%N) - start) / 1000000 ))
+    total=$((total + elapsed))
+    echo "run $run: ${elapsed} ms"
+    kill $pid
+    wait $pid 2>/dev/null
+done
+echo "average: $((total / RUNS)) ms"
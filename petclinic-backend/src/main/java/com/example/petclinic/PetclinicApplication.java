@@ -2,8 +2,10 @@ package com.example.petclinic;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
 
-@SpringBootApplication
+// R2DBC is only used by the separately started reactive read API (see ReactiveReadApplication)
+@SpringBootApplication(exclude = R2dbcAutoConfiguration.class)
 public class PetclinicApplication {
     public static void main(String[] args) {
         SpringApplication.run(PetclinicApplication.class, args);
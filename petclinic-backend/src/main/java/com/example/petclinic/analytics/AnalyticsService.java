@@ -0,0 +1,150 @@
+package com.example.petclinic.analytics;
+
+import com.example.petclinic.dto.AnalyticsSummaryDTO;
+import com.example.petclinic.dto.DailyBookingsDTO;
+import com.example.petclinic.dto.DoctorUtilizationDTO;
+import com.example.petclinic.model.Appointment;
+import com.example.petclinic.model.MedicalRecord;
+import com.example.petclinic.repository.AppointmentRepository;
+import com.example.petclinic.repository.ArchivedAppointmentRepository;
+import com.example.petclinic.repository.DoctorDailyStatsRepository;
+import com.example.petclinic.repository.MedicalRecordRepository;
+import com.example.petclinic.repository.SpeciesDailyStatsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Clinic analytics served from daily rollup tables instead of GROUP BY over appointments.
+ *
+ * Rollups are bumped inside the transaction that books, reschedules or cancels an appointment
+ * (or records a visit), so they commit or roll back with it and are never double counted the
+ * way an at-least-once outbox consumer could. Dashboard queries read at most days x doctors
+ * rollup rows, independent of how much history the clinic has.
+ */
+@Service
+public class AnalyticsService {
+    private static final Logger log = LoggerFactory.getLogger(AnalyticsService.class);
+
+    private record DoctorDay(LocalDate day, Long doctorId) {}
+    private record SpeciesDay(LocalDate day, String species) {}
+
+    @Autowired
+    private DoctorDailyStatsRepository doctorDailyStatsRepository;
+    @Autowired
+    private SpeciesDailyStatsRepository speciesDailyStatsRepository;
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+    @Autowired
+    private ArchivedAppointmentRepository archivedAppointmentRepository;
+    @Autowired
+    private MedicalRecordRepository medicalRecordRepository;
+
+    @Value("${petclinic.analytics.slots-per-doctor-per-day:16}")
+    private int slotsPerDoctorPerDay;
+
+    @Value("${petclinic.analytics.backfill-page-size:5000}")
+    private int backfillPageSize;
+
+    @Transactional
+    public void appointmentBooked(Appointment appointment) {
+        doctorDailyStatsRepository.increment(appointment.getAppointmentTime().toLocalDate(), appointment.getDoctor().getDoctorId(), 1, 0);
+    }
+
+    @Transactional
+    public void appointmentRescheduled(Appointment appointment, Long previousDoctorId, LocalDateTime previousAppointmentTime) {
+        LocalDate previousDay = previousAppointmentTime.toLocalDate();
+        LocalDate day = appointment.getAppointmentTime().toLocalDate();
+        Long doctorId = appointment.getDoctor().getDoctorId();
+        if (!previousDay.equals(day) || !previousDoctorId.equals(doctorId)) {
+            doctorDailyStatsRepository.increment(previousDay, previousDoctorId, -1, 0);
+            doctorDailyStatsRepository.increment(day, doctorId, 1, 0);
+        }
+    }
+
+    @Transactional
+    public void appointmentCancelled(Appointment appointment) {
+        doctorDailyStatsRepository.increment(appointment.getAppointmentTime().toLocalDate(), appointment.getDoctor().getDoctorId(), -1, 1);
+    }
+
+    @Transactional
+    public void visitRecorded(MedicalRecord record) {
+        speciesDailyStatsRepository.increment(record.getVisitDate(), record.getPet().getSpecies(), 1);
+    }
+
+    @Transactional(readOnly = true)
+    public AnalyticsSummaryDTO getSummary(LocalDate from, LocalDate to) {
+        long days = ChronoUnit.DAYS.between(from, to) + 1;
+        double capacity = (double) days * slotsPerDoctorPerDay;
+        List<DoctorUtilizationDTO> doctors = doctorDailyStatsRepository.sumByDoctor(from, to).stream()
+                .map(t -> new DoctorUtilizationDTO(t.doctorId(), t.doctorName(), t.scheduled(), t.cancelled(),
+                        capacity > 0 ? t.scheduled() / capacity : 0))
+                .toList();
+        List<DailyBookingsDTO> perDay = doctorDailyStatsRepository.sumByDay(from, to);
+        long scheduled = perDay.stream().mapToLong(DailyBookingsDTO::scheduled).sum();
+        long cancelled = perDay.stream().mapToLong(DailyBookingsDTO::cancelled).sum();
+        double cancellationRate = scheduled + cancelled > 0 ? (double) cancelled / (scheduled + cancelled) : 0;
+        return new AnalyticsSummaryDTO(from, to, scheduled, cancelled, cancellationRate,
+                doctors, perDay, speciesDailyStatsRepository.sumBySpecies(from, to));
+    }
+
+    /**
+     * Rebuilds the rollups from the hot and archived appointments and all medical records.
+     * History is read in id-ordered pages and aggregated in memory (one entry per day and doctor
+     * or species), then written in one transaction. Cancellations were hard deletes before the
+     * rollups existed, so historical cancelled counts start at zero. Bookings committed while the
+     * rebuild runs can be missed, so run it once at rollout or in a quiet period.
+     */
+    @Transactional
+    public void rebuild() {
+        Map<DoctorDay, Long> scheduled = new HashMap<>();
+        Consumer<AppointmentFact> countAppointment = fact -> scheduled.merge(
+                new DoctorDay(fact.appointmentTime().toLocalDate(), fact.doctorId()), 1L, Long::sum);
+        long hot = scan(appointmentRepository::findFactsAfter, AppointmentFact::id, countAppointment);
+        long archived = scan(archivedAppointmentRepository::findFactsAfter, AppointmentFact::id, countAppointment);
+
+        Map<SpeciesDay, Long> visits = new HashMap<>();
+        long records = scan(medicalRecordRepository::findVisitFactsAfter, VisitFact::id, fact -> visits.merge(
+                new SpeciesDay(fact.visitDate(), fact.species()), 1L, Long::sum));
+
+        doctorDailyStatsRepository.deleteAllInBatch();
+        speciesDailyStatsRepository.deleteAllInBatch();
+        scheduled.forEach((key, count) -> {
+            if (key.doctorId() != null) {
+                doctorDailyStatsRepository.increment(key.day(), key.doctorId(), count, 0);
+            }
+        });
+        visits.forEach((key, count) -> speciesDailyStatsRepository.increment(key.day(), key.species(), count));
+        log.info("Rebuilt analytics rollups from {} appointments, {} archived appointments and {} medical records",
+                hot, archived, records);
+    }
+
+    private <T> long scan(BiFunction<Long, Pageable, List<T>> page, Function<T, Long> idOf, Consumer<T> consumer) {
+        long total = 0;
+        long afterId = 0;
+        while (true) {
+            List<T> rows = page.apply(afterId, PageRequest.of(0, backfillPageSize));
+            rows.forEach(consumer);
+            total += rows.size();
+            if (rows.size() < backfillPageSize) {
+                return total;
+            }
+            afterId = idOf.apply(rows.get(rows.size() - 1));
+        }
+    }
+}
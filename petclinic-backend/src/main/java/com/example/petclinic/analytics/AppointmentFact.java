@@ -0,0 +1,8 @@
+package com.example.petclinic.analytics;
+
+import java.time.LocalDateTime;
+
+/**
+ * Minimal appointment row read by the rollup backfill.
+ */
+public record AppointmentFact(Long id, LocalDateTime appointmentTime, Long doctorId) {}
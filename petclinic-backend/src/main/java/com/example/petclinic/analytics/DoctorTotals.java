@@ -0,0 +1,6 @@
+package com.example.petclinic.analytics;
+
+/**
+ * Per-doctor sums over a date range of analytics_doctor_daily.
+ */
+public record DoctorTotals(Long doctorId, String doctorName, Long scheduled, Long cancelled) {}
@@ -0,0 +1,8 @@
+package com.example.petclinic.analytics;
+
+import java.time.LocalDate;
+
+/**
+ * Minimal medical record row read by the rollup backfill.
+ */
+public record VisitFact(Long id, LocalDate visitDate, String species) {}
@@ -0,0 +1,123 @@
+package com.example.petclinic.attachment;
+
+import com.example.petclinic.dto.AttachmentDTO;
+import com.example.petclinic.model.MedicalRecord;
+import com.example.petclinic.model.MedicalRecordAttachment;
+import com.example.petclinic.repository.MedicalRecordAttachmentRepository;
+import com.example.petclinic.repository.MedicalRecordRepository;
+import com.example.petclinic.security.ClinicUserDetails;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Attachment metadata and access rules. Uploads are streamed into the store before any
+ * transaction starts, so a slow client never holds a database connection; only the metadata
+ * row is written transactionally, after the record is checked again. Attachment requests are
+ * left out of open-in-view (see OpenInViewConfig), so downloads release their connection as
+ * soon as get() returns. Doctors may read and write; owners may read their pets'.
+ */
+@Service
+@Lazy(false)
+public class AttachmentService {
+    private static final Logger log = LoggerFactory.getLogger(AttachmentService.class);
+
+    @Autowired
+    private AttachmentStore attachmentStore;
+    @Autowired
+    private MedicalRecordAttachmentRepository attachmentRepository;
+    @Autowired
+    private MedicalRecordRepository medicalRecordRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${petclinic.attachments.max-bytes:52428800}")
+    private long maxBytes;
+
+    @Value("${petclinic.attachments.sweep-grace-minutes:60}")
+    private long sweepGraceMinutes;
+
+    public AttachmentDTO attach(Long recordId, String fileName, String contentType, InputStream content) throws IOException {
+        if (!medicalRecordRepository.existsById(recordId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Medical record not found");
+        }
+        AttachmentStore.StoredBlob blob = attachmentStore.store(content, maxBytes);
+        // the record may have been deleted while the body streamed in; the sweep takes the blob then
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            MedicalRecord record = medicalRecordRepository.findById(recordId)
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Medical record not found"));
+            MedicalRecordAttachment attachment = new MedicalRecordAttachment();
+            attachment.setMedicalRecord(record);
+            attachment.setContentHash(blob.sha256());
+            attachment.setFileName(fileName);
+            attachment.setContentType(contentType);
+            attachment.setSize(blob.size());
+            attachment.setCreatedAt(LocalDateTime.now());
+            return toDTO(attachmentRepository.save(attachment), recordId);
+        });
+    }
+
+    @Transactional(readOnly = true)
+    public List<AttachmentDTO> list(Long recordId, ClinicUserDetails reader) {
+        requireReadable(recordId, reader);
+        return attachmentRepository.findForRecord(recordId);
+    }
+
+    @Transactional(readOnly = true)
+    public AttachmentDTO get(Long recordId, Long attachmentId, ClinicUserDetails reader) {
+        requireReadable(recordId, reader);
+        return attachmentRepository.findByIdAndMedicalRecordId(attachmentId, recordId)
+                .map(a -> toDTO(a, recordId))
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Attachment not found"));
+    }
+
+    /**
+     * Drops the reference only; the blob goes with the next sweep once nothing else uses it.
+     */
+    @Transactional
+    public void delete(Long recordId, Long attachmentId) {
+        MedicalRecordAttachment attachment = attachmentRepository.findByIdAndMedicalRecordId(attachmentId, recordId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Attachment not found"));
+        attachmentRepository.delete(attachment);
+    }
+
+    @Scheduled(cron = "${petclinic.attachments.sweep-cron:0 30 3 * * *}")
+    public void sweepUnreferenced() {
+        try {
+            int deleted = attachmentStore.sweep(attachmentRepository::existsByContentHash,
+                    Instant.now().minus(sweepGraceMinutes, ChronoUnit.MINUTES));
+            log.info("Removed {} unreferenced attachment blobs", deleted);
+        } catch (IOException e) {
+            log.error("Attachment sweep failed", e);
+        }
+    }
+
+    // Not found rather than forbidden, so record ids of other owners are not confirmed
+    private void requireReadable(Long recordId, ClinicUserDetails reader) {
+        MedicalRecord record = medicalRecordRepository.findById(recordId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Medical record not found"));
+        if (!reader.isDoctor() && (record.getPet().getOwner() == null || !record.getPet().getOwner().getId().equals(reader.getUserId()))) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Medical record not found");
+        }
+    }
+
+    private static AttachmentDTO toDTO(MedicalRecordAttachment a, Long recordId) {
+        return new AttachmentDTO(a.getId(), recordId, a.getFileName(), a.getContentType(), a.getSize(), a.getContentHash(), a.getCreatedAt());
+    }
+}
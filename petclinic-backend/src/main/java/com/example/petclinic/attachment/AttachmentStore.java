@@ -0,0 +1,131 @@
+package com.example.petclinic.attachment;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.UUID;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Content-addressed file store for medical record attachments: blobs/ab/cd/abcd...
+ * named by their SHA-256. Uploads are streamed through the digest into a temp file on the
+ * same file system and renamed into place, so a blob is either complete or absent and the
+ * heap only ever holds one copy buffer. Storing bytes that already exist keeps the existing
+ * blob. Nothing is deleted eagerly; {@link #sweep} removes blobs no row references any more.
+ */
+@Component
+public class AttachmentStore {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final Pattern HASH = Pattern.compile("[0-9a-f]{64}");
+
+    public record StoredBlob(String sha256, long size, boolean deduplicated) {}
+
+    private final Path blobs;
+    private final Path tmp;
+
+    public AttachmentStore(@Value("${petclinic.attachments.dir:data/attachments}") String dir) throws IOException {
+        Path root = Paths.get(dir).toAbsolutePath();
+        this.blobs = Files.createDirectories(root.resolve("blobs"));
+        this.tmp = Files.createDirectories(root.resolve("tmp"));
+    }
+
+    /**
+     * Streams the input into the store; more than maxBytes is rejected with 413.
+     */
+    public StoredBlob store(InputStream in, long maxBytes) throws IOException {
+        MessageDigest digest = sha256();
+        Path upload = tmp.resolve("upload-" + UUID.randomUUID());
+        long size = 0;
+        try {
+            try (OutputStream out = Files.newOutputStream(upload, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    size += read;
+                    if (size > maxBytes) {
+                        throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, "Attachment exceeds " + maxBytes + " bytes");
+                    }
+                    digest.update(buffer, 0, read);
+                    out.write(buffer, 0, read);
+                }
+            }
+            String hash = HexFormat.of().formatHex(digest.digest());
+            Path target = path(hash);
+            if (Files.exists(target)) {
+                // fresh mtime keeps the shared blob out of the sweep until the new reference commits
+                Files.setLastModifiedTime(target, FileTime.from(Instant.now()));
+                return new StoredBlob(hash, size, true);
+            }
+            Files.createDirectories(target.getParent());
+            Files.move(upload, target, StandardCopyOption.ATOMIC_MOVE);
+            return new StoredBlob(hash, size, false);
+        } finally {
+            Files.deleteIfExists(upload);
+        }
+    }
+
+    public Path path(String sha256) {
+        if (!HASH.matcher(sha256).matches()) {
+            throw new IllegalArgumentException("Not a SHA-256 hex digest: " + sha256);
+        }
+        return blobs.resolve(sha256.substring(0, 2)).resolve(sha256.substring(2, 4)).resolve(sha256);
+    }
+
+    /**
+     * Deletes blobs that are not referenced and were not written or re-stored since notTouchedSince.
+     * Also clears temp files left behind by a crash during upload.
+     */
+    public int sweep(Predicate<String> referenced, Instant notTouchedSince) throws IOException {
+        int deleted = 0;
+        try (Stream<Path> files = Files.walk(blobs)) {
+            for (Path file : (Iterable<Path>) files.filter(Files::isRegularFile)::iterator) {
+                if (isOlder(file, notTouchedSince) && !referenced.test(file.getFileName().toString())) {
+                    Files.deleteIfExists(file);
+                    deleted++;
+                }
+            }
+        }
+        try (Stream<Path> files = Files.list(tmp)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                if (isOlder(file, notTouchedSince)) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+        return deleted;
+    }
+
+    private static boolean isOlder(Path file, Instant instant) {
+        try {
+            return Files.getLastModifiedTime(file).toInstant().isBefore(instant);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
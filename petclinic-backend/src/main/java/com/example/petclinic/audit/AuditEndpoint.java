@@ -0,0 +1,44 @@
+package com.example.petclinic.audit;
+
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * /actuator/audit?entityType=APPOINTMENT&entityId=12&from=2026-03-01T00:00&to=2026-03-02T00:00&limit=100
+ * (all optional; times are local date-times, to is exclusive).
+ */
+@Component
+@Endpoint(id = "audit")
+public class AuditEndpoint {
+    private static final int DEFAULT_LIMIT = 1000;
+
+    private final AuditLog auditLog;
+
+    public AuditEndpoint(AuditLog auditLog) {
+        this.auditLog = auditLog;
+    }
+
+    @ReadOperation
+    public List<AuditEvent> events(@Nullable String entityType, @Nullable Long entityId,
+                                   @Nullable String from, @Nullable String to, @Nullable Integer limit) {
+        AuditLogReader.Query query;
+        try {
+            query = AuditQueryTool.query(entityType, entityId, from, to, limit != null ? limit : DEFAULT_LIMIT);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidEndpointRequestException(e.getMessage(), "Invalid audit query");
+        }
+        try {
+            return new AuditLogReader(auditLog.getDirectory()).find(query);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.petclinic.audit;
+
+/**
+ * One audited change. Codes are part of the segment format and must never be reused.
+ */
+public record AuditEvent(long sequence, long timestamp, EntityType entityType, long entityId,
+                         Action action, String actor, String detail) {
+
+    public enum EntityType {
+        APPOINTMENT(1), MEDICAL_RECORD(2);
+
+        final int code;
+
+        EntityType(int code) {
+            this.code = code;
+        }
+
+        static EntityType ofCode(int code) {
+            for (EntityType type : values()) {
+                if (type.code == code) {
+                    return type;
+                }
+            }
+            throw new IllegalArgumentException("Unknown entity type code " + code);
+        }
+    }
+
+    public enum Action {
+        CREATED(1), UPDATED(2), DELETED(3);
+
+        final int code;
+
+        Action(int code) {
+            this.code = code;
+        }
+
+        static Action ofCode(int code) {
+            for (Action action : values()) {
+                if (action.code == code) {
+                    return action;
+                }
+            }
+            throw new IllegalArgumentException("Unknown action code " + code);
+        }
+    }
+}
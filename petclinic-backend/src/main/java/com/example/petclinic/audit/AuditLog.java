@@ -0,0 +1,177 @@
+package com.example.petclinic.audit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Append-only audit trail of appointment and medical record changes, kept off the request path.
+ *
+ * {@link #record} captures the caller and time, waits for the surrounding transaction to commit
+ * (rolled-back changes are not audited) and puts the event on a lock-free ring. One writer
+ * thread numbers the events, appends them to segment files (see {@link AuditSegments}) and
+ * fsyncs once per drained batch, so a burst of changes shares one disk flush. The trail is
+ * asynchronous: a crash can lose the events of the last few milliseconds, and if the ring
+ * stays full for offer-timeout-ms the event is dropped and counted rather than stalling the
+ * request. Query it with /actuator/audit or {@link AuditQueryTool}.
+ */
+@Component
+@Lazy(false)
+public class AuditLog {
+    private static final Logger log = LoggerFactory.getLogger(AuditLog.class);
+
+    private final MpscRingBuffer<AuditEvent> ring;
+    private final SegmentWriter segments;
+    private final Path dir;
+    private final int maxBatch;
+    private final long offerTimeoutNanos;
+    private final Thread writer;
+    private final Counter written;
+    private final Counter dropped;
+    private final Timer commits;
+    private final AtomicLong droppedSinceLog = new AtomicLong();
+    private volatile boolean writerIdle;
+    private volatile boolean running = true;
+    private long nextSequence;
+
+    public AuditLog(MeterRegistry meterRegistry,
+                    @Value("${petclinic.audit.dir:data/audit}") String dir,
+                    @Value("${petclinic.audit.ring-capacity:65536}") int ringCapacity,
+                    @Value("${petclinic.audit.segment-bytes:67108864}") long segmentBytes,
+                    @Value("${petclinic.audit.max-batch:4096}") int maxBatch,
+                    @Value("${petclinic.audit.fsync:true}") boolean fsync,
+                    @Value("${petclinic.audit.offer-timeout-ms:50}") long offerTimeoutMs) throws IOException {
+        this.dir = Files.createDirectories(Paths.get(dir).toAbsolutePath());
+        this.ring = new MpscRingBuffer<>(ringCapacity);
+        this.segments = new SegmentWriter(this.dir, segmentBytes, fsync);
+        this.maxBatch = maxBatch;
+        this.offerTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(offerTimeoutMs);
+        this.nextSequence = new AuditLogReader(this.dir).lastSequence() + 1;
+        this.written = Counter.builder("petclinic.audit.events")
+                .description("Audit events written to segment files")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("petclinic.audit.dropped")
+                .description("Audit events lost because the ring stayed full or a write failed")
+                .register(meterRegistry);
+        this.commits = Timer.builder("petclinic.audit.commit")
+                .description("Time to write and fsync one batch of audit events")
+                .register(meterRegistry);
+        Gauge.builder("petclinic.audit.queued", ring, MpscRingBuffer::size)
+                .description("Audit events waiting for the writer")
+                .register(meterRegistry);
+        this.writer = new Thread(this::writeLoop, "audit-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Audits a change by the current user; deferred until commit when called inside a transaction.
+     */
+    public void record(AuditEvent.EntityType entityType, Long entityId, AuditEvent.Action action, String detail) {
+        AuditEvent event = new AuditEvent(0, System.currentTimeMillis(), entityType, entityId, action, currentActor(), detail);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(event);
+                }
+            });
+        } else {
+            enqueue(event);
+        }
+    }
+
+    public Path getDirectory() {
+        return dir;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    private void enqueue(AuditEvent event) {
+        long deadline = System.nanoTime() + offerTimeoutNanos;
+        while (!ring.offer(event)) {
+            if (System.nanoTime() - deadline > 0) {
+                dropped.increment();
+                droppedSinceLog.incrementAndGet();
+                return;
+            }
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(50_000);
+        }
+        if (writerIdle) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    private void writeLoop() {
+        while (true) {
+            int batch = 0;
+            AuditEvent event;
+            long started = System.nanoTime();
+            try {
+                while (batch < maxBatch && (event = ring.poll()) != null) {
+                    segments.append(nextSequence++, event);
+                    batch++;
+                }
+                if (batch > 0) {
+                    segments.commit();
+                    written.increment(batch);
+                    commits.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                }
+            } catch (IOException | RuntimeException e) {
+                log.error("Writing {} audit events to {} failed; continuing in a new segment", batch, dir, e);
+                segments.discard();
+                dropped.increment(batch);
+            }
+            long lost = droppedSinceLog.getAndSet(0);
+            if (lost > 0) {
+                log.error("Dropped {} audit events: the audit ring was full", lost);
+            }
+            if (batch == 0) {
+                if (!running) {
+                    break;
+                }
+                writerIdle = true;
+                // re-check after announcing, so an offer racing with the announcement is not missed
+                if (ring.size() == 0 && running) {
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(100));
+                }
+                writerIdle = false;
+            }
+        }
+        try {
+            segments.close();
+        } catch (IOException e) {
+            log.error("Could not seal audit segment in {}", dir, e);
+        }
+    }
+
+    private static String currentActor() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated() ? authentication.getName() : "system";
+    }
+}
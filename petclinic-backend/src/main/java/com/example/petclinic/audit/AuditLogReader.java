@@ -0,0 +1,160 @@
+package com.example.petclinic.audit;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Scans audit segments in sequence order. Sealed segments whose footer puts them entirely
+ * outside the time range are skipped without reading their records; a segment without a
+ * footer is read up to its last intact record, which also covers the one being written.
+ */
+public class AuditLogReader {
+
+    /**
+     * Null fields match anything; from is inclusive and to exclusive (epoch millis).
+     */
+    public record Query(AuditEvent.EntityType entityType, Long entityId, Long from, Long to, int limit) {
+        boolean matches(AuditEvent event) {
+            return (entityType == null || entityType == event.entityType())
+                    && (entityId == null || entityId == event.entityId())
+                    && (from == null || event.timestamp() >= from)
+                    && (to == null || event.timestamp() < to);
+        }
+
+        boolean overlaps(long minTimestamp, long maxTimestamp) {
+            return (from == null || maxTimestamp >= from) && (to == null || minTimestamp < to);
+        }
+    }
+
+    private record Footer(long count, long minTimestamp, long maxTimestamp) {}
+
+    private final Path dir;
+
+    public AuditLogReader(Path dir) {
+        this.dir = dir;
+    }
+
+    /**
+     * Matching events, oldest first, at most query.limit() of them.
+     */
+    public List<AuditEvent> find(Query query) throws IOException {
+        List<AuditEvent> found = new ArrayList<>();
+        for (Path segment : AuditSegments.list(dir)) {
+            if (found.size() >= query.limit()) {
+                break;
+            }
+            scan(segment, query, found);
+        }
+        return found;
+    }
+
+    /**
+     * The highest sequence written so far, or 0 when there is none.
+     */
+    public long lastSequence() throws IOException {
+        List<Path> segments = AuditSegments.list(dir);
+        for (int i = segments.size() - 1; i >= 0; i--) {
+            long[] last = {0};
+            read(segments.get(i), event -> {
+                last[0] = event.sequence();
+                return true;
+            });
+            if (last[0] > 0) {
+                return last[0];
+            }
+        }
+        return 0;
+    }
+
+    private void scan(Path segment, Query query, List<AuditEvent> found) throws IOException {
+        Footer footer = footer(segment);
+        if (footer != null && (footer.count() == 0 || !query.overlaps(footer.minTimestamp(), footer.maxTimestamp()))) {
+            return;
+        }
+        read(segment, event -> {
+            if (query.matches(event)) {
+                found.add(event);
+            }
+            return found.size() < query.limit();
+        });
+    }
+
+    /**
+     * Feeds intact records to the visitor until it returns false, the footer or a damaged record.
+     */
+    private static void read(Path segment, Predicate<AuditEvent> visitor) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(AuditSegments.HEADER_BYTES);
+            if (!readFully(channel, header) || header.getInt(0) != AuditSegments.MAGIC) {
+                return;
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(256 * 1024);
+            buffer.flip();
+            while (true) {
+                if (buffer.remaining() < 8 && !refill(channel, buffer, 8)) {
+                    return;
+                }
+                int length = buffer.getInt();
+                int checksum = buffer.getInt();
+                if (length <= 0 || length > AuditSegments.MAX_RECORD_BYTES) {
+                    return;
+                }
+                if (buffer.remaining() < length && !refill(channel, buffer, length)) {
+                    return;
+                }
+                ByteBuffer body = buffer.slice(buffer.position(), length);
+                if (!AuditSegments.checksumMatches(body, checksum)) {
+                    return;
+                }
+                buffer.position(buffer.position() + length);
+                if (!visitor.test(AuditSegments.readBody(body))) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private static Footer footer(Path segment) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < AuditSegments.HEADER_BYTES + AuditSegments.FOOTER_BYTES) {
+                return null;
+            }
+            ByteBuffer footer = ByteBuffer.allocate(AuditSegments.FOOTER_BYTES);
+            channel.position(size - AuditSegments.FOOTER_BYTES);
+            if (!readFully(channel, footer) || footer.getInt(0) != AuditSegments.FOOTER_MARK
+                    || !AuditSegments.checksumMatches(footer.slice(4, 24), footer.getInt(28))) {
+                return null;
+            }
+            return new Footer(footer.getLong(4), footer.getLong(12), footer.getLong(20));
+        }
+    }
+
+    // Compacts the unread bytes to the front and reads until at least needed bytes are available
+    private static boolean refill(FileChannel channel, ByteBuffer buffer, int needed) throws IOException {
+        buffer.compact();
+        while (buffer.position() < needed) {
+            if (channel.read(buffer) <= 0) {
+                buffer.flip();
+                return false;
+            }
+        }
+        buffer.flip();
+        return true;
+    }
+
+    private static boolean readFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) <= 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
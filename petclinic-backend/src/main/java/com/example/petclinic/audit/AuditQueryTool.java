@@ -0,0 +1,64 @@
+package com.example.petclinic.audit;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Offline query over audit segments, e.g. on a copy of the audit directory:
+ * <pre>
+ * java -cp petclinic-backend-1.0.0.jar:lib/* com.example.petclinic.audit.AuditQueryTool data/audit \
+ *     --entity=APPOINTMENT --id=12 --from=2026-03-01T00:00 --to=2026-03-02T00:00 --limit=100
+ * </pre>
+ * Prints one tab-separated line per event, oldest first.
+ */
+public final class AuditQueryTool {
+
+    private AuditQueryTool() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0 || args[0].startsWith("--")) {
+            System.err.println("usage: AuditQueryTool <audit-dir> [--entity=APPOINTMENT|MEDICAL_RECORD] [--id=N] "
+                    + "[--from=yyyy-MM-ddTHH:mm] [--to=yyyy-MM-ddTHH:mm] [--limit=N]");
+            System.exit(2);
+        }
+        Map<String, String> options = new HashMap<>();
+        for (int i = 1; i < args.length; i++) {
+            String[] option = args[i].replaceFirst("^--", "").split("=", 2);
+            options.put(option[0], option.length > 1 ? option[1] : "");
+        }
+        AuditLogReader.Query query = query(options.get("entity"),
+                options.containsKey("id") ? Long.valueOf(options.get("id")) : null,
+                options.get("from"), options.get("to"),
+                options.containsKey("limit") ? Integer.parseInt(options.get("limit")) : Integer.MAX_VALUE);
+        ZoneId zone = ZoneId.systemDefault();
+        for (AuditEvent event : new AuditLogReader(Paths.get(args[0])).find(query)) {
+            System.out.println(String.join("\t",
+                    String.valueOf(event.sequence()),
+                    LocalDateTime.ofInstant(Instant.ofEpochMilli(event.timestamp()), zone).toString(),
+                    event.entityType().name(),
+                    String.valueOf(event.entityId()),
+                    event.action().name(),
+                    event.actor(),
+                    event.detail()));
+        }
+    }
+
+    static AuditLogReader.Query query(String entityType, Long entityId, String from, String to, int limit) {
+        return new AuditLogReader.Query(
+                entityType != null ? AuditEvent.EntityType.valueOf(entityType.toUpperCase()) : null,
+                entityId,
+                from != null ? epochMillis(from) : null,
+                to != null ? epochMillis(to) : null,
+                limit);
+    }
+
+    private static long epochMillis(String localDateTime) {
+        return LocalDateTime.parse(localDateTime).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
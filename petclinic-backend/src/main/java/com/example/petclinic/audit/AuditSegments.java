@@ -0,0 +1,122 @@
+package com.example.petclinic.audit;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * On-disk layout of audit segments, all big-endian:
+ * <pre>
+ * header   int magic "PCAU", short version, short 0, long first sequence
+ * record   int body length, int CRC32C(body), body:
+ *          long sequence, long timestamp millis, byte entity type, byte action, long entity id,
+ *          short actor length, actor UTF-8, short detail length, detail UTF-8
+ * footer   int -1, long record count, long min timestamp, long max timestamp, int CRC32C
+ * </pre>
+ * The footer is only written when a segment is closed; a segment without one (the current one,
+ * or one cut short by a crash) is read up to its last record with a valid checksum.
+ */
+final class AuditSegments {
+    static final int MAGIC = 0x50434155;
+    static final short VERSION = 1;
+    static final int HEADER_BYTES = 16;
+    static final int FOOTER_MARK = -1;
+    static final int FOOTER_BYTES = 32;
+    static final int MAX_ACTOR_CHARS = 128;
+    static final int MAX_DETAIL_CHARS = 500;
+    // fixed part of the body plus the largest possible strings (3 bytes per char)
+    static final int MAX_RECORD_BYTES = 8 + 30 + 3 * (MAX_ACTOR_CHARS + MAX_DETAIL_CHARS);
+
+    private static final String PREFIX = "audit-";
+    private static final String SUFFIX = ".seg";
+
+    private AuditSegments() {
+    }
+
+    static Path segmentPath(Path dir, long firstSequence) {
+        return dir.resolve(String.format("%s%020d%s", PREFIX, firstSequence, SUFFIX));
+    }
+
+    /**
+     * Segment files in sequence order.
+     */
+    static List<Path> list(Path dir) throws IOException {
+        if (!Files.isDirectory(dir)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(f -> {
+                        String name = f.getFileName().toString();
+                        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    static void writeHeader(ByteBuffer buffer, long firstSequence) {
+        buffer.putInt(MAGIC).putShort(VERSION).putShort((short) 0).putLong(firstSequence);
+    }
+
+    static void writeRecord(ByteBuffer buffer, long sequence, AuditEvent event) {
+        int start = buffer.position();
+        buffer.position(start + 8);
+        buffer.putLong(sequence)
+                .putLong(event.timestamp())
+                .put((byte) event.entityType().code)
+                .put((byte) event.action().code)
+                .putLong(event.entityId());
+        putString(buffer, event.actor(), MAX_ACTOR_CHARS);
+        putString(buffer, event.detail(), MAX_DETAIL_CHARS);
+        int end = buffer.position();
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(start + 8, end - start - 8));
+        buffer.putInt(start, end - start - 8).putInt(start + 4, (int) crc.getValue());
+    }
+
+    static void writeFooter(ByteBuffer buffer, long count, long minTimestamp, long maxTimestamp) {
+        buffer.putInt(FOOTER_MARK);
+        int start = buffer.position();
+        buffer.putLong(count).putLong(minTimestamp).putLong(maxTimestamp);
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(start, 24));
+        buffer.putInt((int) crc.getValue());
+    }
+
+    /**
+     * Decodes a record body whose checksum has been verified.
+     */
+    static AuditEvent readBody(ByteBuffer body) {
+        long sequence = body.getLong();
+        long timestamp = body.getLong();
+        AuditEvent.EntityType entityType = AuditEvent.EntityType.ofCode(body.get());
+        AuditEvent.Action action = AuditEvent.Action.ofCode(body.get());
+        long entityId = body.getLong();
+        String actor = getString(body);
+        String detail = getString(body);
+        return new AuditEvent(sequence, timestamp, entityType, entityId, action, actor, detail);
+    }
+
+    static boolean checksumMatches(ByteBuffer data, int expected) {
+        CRC32C crc = new CRC32C();
+        crc.update(data.duplicate());
+        return (int) crc.getValue() == expected;
+    }
+
+    private static void putString(ByteBuffer buffer, String value, int maxChars) {
+        String text = value == null ? "" : value.length() > maxChars ? value.substring(0, maxChars) : value;
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        buffer.putShort((short) bytes.length).put(bytes);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        byte[] bytes = new byte[Short.toUnsignedInt(buffer.getShort())];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
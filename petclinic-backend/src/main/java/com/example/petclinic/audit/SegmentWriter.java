@@ -0,0 +1,110 @@
+package com.example.petclinic.audit;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Appends records to the current segment and rolls over to a new one past segmentBytes.
+ * Records collect in one direct buffer and reach the file in large writes; {@link #commit}
+ * writes what is buffered and forces it to disk once for the whole batch. Not thread-safe:
+ * owned by the audit writer thread.
+ */
+class SegmentWriter implements AutoCloseable {
+    private final Path dir;
+    private final long segmentBytes;
+    private final boolean fsync;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20);
+    private FileChannel channel;
+    private long segmentSize;
+    private long count;
+    private long minTimestamp;
+    private long maxTimestamp;
+
+    SegmentWriter(Path dir, long segmentBytes, boolean fsync) {
+        this.dir = dir;
+        this.segmentBytes = segmentBytes;
+        this.fsync = fsync;
+    }
+
+    void append(long sequence, AuditEvent event) throws IOException {
+        if (channel != null && segmentSize >= segmentBytes) {
+            close();
+        }
+        if (channel == null) {
+            open(sequence);
+        }
+        if (buffer.remaining() < AuditSegments.MAX_RECORD_BYTES + AuditSegments.FOOTER_BYTES) {
+            drain();
+        }
+        int before = buffer.position();
+        AuditSegments.writeRecord(buffer, sequence, event);
+        segmentSize += buffer.position() - before;
+        minTimestamp = count == 0 ? event.timestamp() : Math.min(minTimestamp, event.timestamp());
+        maxTimestamp = count == 0 ? event.timestamp() : Math.max(maxTimestamp, event.timestamp());
+        count++;
+    }
+
+    /**
+     * Makes everything appended so far durable (group commit).
+     */
+    void commit() throws IOException {
+        if (channel != null) {
+            drain();
+            if (fsync) {
+                channel.force(false);
+            }
+        }
+    }
+
+    /**
+     * Seals the current segment with its footer; the next append opens a new one.
+     */
+    @Override
+    public void close() throws IOException {
+        if (channel == null) {
+            return;
+        }
+        try {
+            AuditSegments.writeFooter(buffer, count, minTimestamp, maxTimestamp);
+            commit();
+        } finally {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    /**
+     * Abandons the current segment after a write failure; readers stop at its last intact record.
+     */
+    void discard() {
+        buffer.clear();
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+                // the segment is given up either way
+            }
+            channel = null;
+        }
+    }
+
+    private void open(long firstSequence) throws IOException {
+        channel = FileChannel.open(AuditSegments.segmentPath(dir, firstSequence),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        buffer.clear();
+        AuditSegments.writeHeader(buffer, firstSequence);
+        segmentSize = AuditSegments.HEADER_BYTES;
+        count = 0;
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.petclinic.bulkhead;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit for one route group: at most maxConcurrent requests inside, at most
+ * maxWaiting more waiting in arrival order for up to maxWaitMs, everything else rejected.
+ * Saturation is exported per group as in-flight and waiting gauges, a wait timer and
+ * admitted/rejected/timed-out counts.
+ */
+public class Bulkhead {
+    private final BulkheadProperties.Group group;
+    private final Semaphore permits;
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final Counter admitted;
+    private final Counter rejected;
+    private final Counter timedOut;
+    private final Timer waitTimer;
+
+    public Bulkhead(BulkheadProperties.Group group, MeterRegistry meterRegistry) {
+        this.group = group;
+        this.permits = new Semaphore(group.getMaxConcurrent(), true);
+        this.admitted = Counter.builder("petclinic.bulkhead.requests")
+                .tag("group", group.getName()).tag("outcome", "admitted").register(meterRegistry);
+        this.rejected = Counter.builder("petclinic.bulkhead.requests")
+                .tag("group", group.getName()).tag("outcome", "rejected").register(meterRegistry);
+        this.timedOut = Counter.builder("petclinic.bulkhead.requests")
+                .tag("group", group.getName()).tag("outcome", "timed-out").register(meterRegistry);
+        this.waitTimer = Timer.builder("petclinic.bulkhead.wait")
+                .description("Time spent waiting for a slot, for requests that had to wait")
+                .tag("group", group.getName()).register(meterRegistry);
+        Gauge.builder("petclinic.bulkhead.active", this, Bulkhead::active)
+                .tag("group", group.getName()).register(meterRegistry);
+        Gauge.builder("petclinic.bulkhead.waiting", waiting, AtomicInteger::get)
+                .tag("group", group.getName()).register(meterRegistry);
+        Gauge.builder("petclinic.bulkhead.limit", group, BulkheadProperties.Group::getMaxConcurrent)
+                .tag("group", group.getName()).register(meterRegistry);
+    }
+
+    /**
+     * @return true if the request may proceed, in which case {@link #exit()} must follow
+     */
+    public boolean tryEnter() {
+        try {
+            // the timed form honours fairness, so a new arrival cannot overtake the queue
+            if (permits.tryAcquire(0, TimeUnit.NANOSECONDS)) {
+                admitted.increment();
+                return true;
+            }
+            if (waiting.incrementAndGet() > group.getMaxWaiting()) {
+                waiting.decrementAndGet();
+                rejected.increment();
+                return false;
+            }
+            long started = System.nanoTime();
+            try {
+                boolean acquired = permits.tryAcquire(group.getMaxWaitMs(), TimeUnit.MILLISECONDS);
+                waitTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                (acquired ? admitted : timedOut).increment();
+                return acquired;
+            } finally {
+                waiting.decrementAndGet();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            rejected.increment();
+            return false;
+        }
+    }
+
+    public void exit() {
+        permits.release();
+    }
+
+    public int active() {
+        return group.getMaxConcurrent() - permits.availablePermits();
+    }
+
+    public int waiting() {
+        return waiting.get();
+    }
+
+    public BulkheadProperties.Group group() {
+        return group;
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.petclinic.bulkhead;
+
+import com.example.petclinic.timing.RequestTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Bulkheads between route groups (login and registration, owner reads, booking, doctors'
+ * clinical work), so a surge in one cannot occupy every request thread and pooled connection
+ * and starve the others. Runs last in the security chain: the caller's authority is known,
+ * rate-limited requests never take a slot and idempotent replays do not need one. Requests
+ * over a group's queue bound or wait get 503 with Retry-After. Only the initial dispatch
+ * holds a slot, so open SSE streams do not count against their group. The JWT filter's user
+ * lookup happens before a slot is taken, so it is outside every group's connection budget.
+ */
+@Component
+@EnableConfigurationProperties(BulkheadProperties.class)
+public class BulkheadFilter extends OncePerRequestFilter {
+    private final BulkheadProperties properties;
+    private final List<Bulkhead> bulkheads;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    public BulkheadFilter(BulkheadProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.bulkheads = properties.getGroups().stream()
+                .map(group -> new Bulkhead(group, meterRegistry))
+                .toList();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Bulkhead bulkhead = properties.isEnabled() ? match(request) : null;
+        if (bulkhead == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        long queued = RequestTimer.begin();
+        boolean entered = bulkhead.tryEnter();
+        RequestTimer.end(RequestTimer.Phase.QUEUE, queued);
+        if (!entered) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader("Retry-After", "1");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"status\":503,\"error\":\"Service Unavailable\",\"bulkhead\":\""
+                    + bulkhead.group().getName() + "\"}");
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            bulkhead.exit();
+        }
+    }
+
+    private Bulkhead match(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (Bulkhead bulkhead : bulkheads) {
+            BulkheadProperties.Group group = bulkhead.group();
+            if ((group.getMethods().isEmpty() || group.getMethods().stream().anyMatch(request.getMethod()::equalsIgnoreCase))
+                    && group.getPaths().stream().anyMatch(pattern -> pathMatcher.match(pattern, path))
+                    && (group.getAuthority() == null || hasAuthority(group.getAuthority()))) {
+                return bulkhead;
+            }
+        }
+        return null;
+    }
+
+    private static boolean hasAuthority(String authority) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.getAuthorities().contains(new SimpleGrantedAuthority(authority));
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.petclinic.bulkhead;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import java.util.ArrayList;
+import java.util.List;
+
+@ConfigurationProperties(prefix = "petclinic.bulkhead")
+public class BulkheadProperties {
+    private boolean enabled = true;
+    /** Checked in order, first match wins; requests matching no group are not limited. */
+    private List<Group> groups = new ArrayList<>();
+
+    public static class Group {
+        private String name;
+        /** HTTP methods, or empty for any. */
+        private List<String> methods = new ArrayList<>();
+        /** Ant-style path patterns, e.g. /api/medical-records/** */
+        private List<String> paths = new ArrayList<>();
+        /** Only requests authenticated with this authority, or null for anyone. */
+        private String authority;
+        private int maxConcurrent;
+        /** Requests allowed to wait for a slot; beyond this they are rejected at once. */
+        private int maxWaiting;
+        private long maxWaitMs;
+
+        public String getName() { return name; }
+        public void setName(String name) { this.name = name; }
+        public List<String> getMethods() { return methods; }
+        public void setMethods(List<String> methods) { this.methods = methods; }
+        public List<String> getPaths() { return paths; }
+        public void setPaths(List<String> paths) { this.paths = paths; }
+        public String getAuthority() { return authority; }
+        public void setAuthority(String authority) { this.authority = authority; }
+        public int getMaxConcurrent() { return maxConcurrent; }
+        public void setMaxConcurrent(int maxConcurrent) { this.maxConcurrent = maxConcurrent; }
+        public int getMaxWaiting() { return maxWaiting; }
+        public void setMaxWaiting(int maxWaiting) { this.maxWaiting = maxWaiting; }
+        public long getMaxWaitMs() { return maxWaitMs; }
+        public void setMaxWaitMs(long maxWaitMs) { this.maxWaitMs = maxWaitMs; }
+    }
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+    public List<Group> getGroups() { return groups; }
+    public void setGroups(List<Group> groups) { this.groups = groups; }
+}
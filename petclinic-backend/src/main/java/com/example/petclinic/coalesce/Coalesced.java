@@ -0,0 +1,27 @@
+package com.example.petclinic.coalesce;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Concurrent calls with equal arguments share one execution (see {@link SingleFlight}).
+ * Only for read-only methods whose result callers do not modify and that depend on nothing
+ * but their arguments; every sharer gets the same instance, or the same exception.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Coalesced {
+    /**
+     * Metric tag and invalidation group; defaults to ClassName.methodName.
+     */
+    String value() default "";
+
+    /**
+     * How long a finished result keeps answering new callers; 0 shares in-flight calls only.
+     */
+    long retainMillis() default 0;
+}
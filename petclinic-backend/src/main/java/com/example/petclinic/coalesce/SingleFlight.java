@@ -0,0 +1,130 @@
+package com.example.petclinic.coalesce;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Request coalescing: the first caller for a key runs the computation, callers arriving while
+ * it runs wait for and share its outcome, and with a retention window the result keeps serving
+ * new callers for that long. Failures are shared with the callers already waiting but never
+ * retained.
+ *
+ * A caller can receive a result whose computation started before it called, so writers whose
+ * readers must see the write call {@link #invalidate} first; later callers then start afresh.
+ */
+@Component
+public class SingleFlight {
+
+    @FunctionalInterface
+    public interface Computation {
+        Object compute() throws Throwable;
+    }
+
+    private record Key(String name, List<Object> args) {}
+
+    private static final class Flight {
+        final CompletableFuture<Object> result = new CompletableFuture<>();
+        volatile boolean retained;
+        volatile long expiresAtNanos;
+
+        boolean isExpired(long now) {
+            return retained && now - expiresAtNanos > 0;
+        }
+    }
+
+    private record Meters(Counter executed, Counter joined, Counter retained) {}
+
+    private final Map<Key, Flight> flights = new ConcurrentHashMap<>();
+    private final Map<String, Meters> meters = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final int maxEntries;
+
+    public SingleFlight(MeterRegistry meterRegistry,
+                        @Value("${petclinic.coalesce.max-entries:10000}") int maxEntries) {
+        this.meterRegistry = meterRegistry;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Runs the computation for (name, args) or shares the one already running or retained.
+     * args must have value-based equals and hashCode.
+     */
+    public Object execute(String name, List<Object> args, long retainMillis, Computation computation) throws Throwable {
+        Key key = new Key(name, args);
+        Meters counters = meters(name);
+        while (true) {
+            Flight flight = flights.get(key);
+            if (flight == null) {
+                Flight mine = new Flight();
+                if (flights.putIfAbsent(key, mine) == null) {
+                    counters.executed().increment();
+                    return lead(key, mine, retainMillis, computation);
+                }
+            } else if (flight.isExpired(System.nanoTime())) {
+                flights.remove(key, flight);
+            } else {
+                (flight.retained ? counters.retained() : counters.joined()).increment();
+                return await(flight);
+            }
+        }
+    }
+
+    /**
+     * Stops in-flight and retained results of the group from being handed to new callers.
+     * Callers already waiting still receive them.
+     */
+    public void invalidate(String name) {
+        flights.keySet().removeIf(key -> key.name().equals(name));
+    }
+
+    private Object lead(Key key, Flight flight, long retainMillis, Computation computation) throws Throwable {
+        Object value;
+        try {
+            value = computation.compute();
+        } catch (Throwable e) {
+            flights.remove(key, flight);
+            flight.result.completeExceptionally(e);
+            throw e;
+        }
+        if (retainMillis > 0) {
+            flight.expiresAtNanos = System.nanoTime() + retainMillis * 1_000_000;
+            flight.retained = true;
+            if (flights.size() > maxEntries) {
+                long now = System.nanoTime();
+                flights.values().removeIf(f -> f.isExpired(now));
+            }
+        } else {
+            flights.remove(key, flight);
+        }
+        flight.result.complete(value);
+        return value;
+    }
+
+    private static Object await(Flight flight) throws Throwable {
+        try {
+            return flight.result.join();
+        } catch (CompletionException e) {
+            throw e.getCause() != null ? e.getCause() : e;
+        }
+    }
+
+    private Meters meters(String name) {
+        return meters.computeIfAbsent(name, n -> new Meters(counter(n, "executed"), counter(n, "joined"), counter(n, "retained")));
+    }
+
+    private Counter counter(String name, String outcome) {
+        return Counter.builder("petclinic.coalesce.calls")
+                .tag("name", name)
+                .tag("outcome", outcome)
+                .description("Coalesced calls by whether they ran, joined a running call or reused a retained result")
+                .register(meterRegistry);
+    }
+}
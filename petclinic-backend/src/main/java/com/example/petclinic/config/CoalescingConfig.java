@@ -0,0 +1,56 @@
+package com.example.petclinic.config;
+
+import com.example.petclinic.coalesce.Coalesced;
+import com.example.petclinic.coalesce.SingleFlight;
+import com.example.petclinic.datasource.ReadYourWritesTracker;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+
+/**
+ * Applies {@link Coalesced} to bean methods. The advice runs inside method security but outside
+ * @Transactional, so callers waiting on a shared call hold no connection. Calls inside a
+ * transaction, or from a caller pinned to the primary after a write, always run on their own:
+ * a shared result could miss their uncommitted or not yet replicated writes.
+ */
+@Configuration
+@ConditionalOnProperty(name = "petclinic.coalesce.enabled", havingValue = "true", matchIfMissing = true)
+public class CoalescingConfig {
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor coalescingAdvisor(ObjectProvider<SingleFlight> singleFlight,
+                                            ObjectProvider<ReadYourWritesTracker> readYourWritesTracker) {
+        MethodInterceptor interceptor = invocation -> {
+            ReadYourWritesTracker tracker = readYourWritesTracker.getIfAvailable();
+            if (TransactionSynchronizationManager.isActualTransactionActive() || (tracker != null && tracker.isSticky())) {
+                return invocation.proceed();
+            }
+            Method method = invocation.getMethod();
+            Coalesced coalesced = AnnotatedElementUtils.findMergedAnnotation(method, Coalesced.class);
+            String name = coalesced.value().isEmpty()
+                    ? method.getDeclaringClass().getSimpleName() + "." + method.getName()
+                    : coalesced.value();
+            return singleFlight.getObject().execute(name, Arrays.asList(invocation.getArguments().clone()),
+                    coalesced.retainMillis(), invocation::proceed);
+        };
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(
+                AnnotationMatchingPointcut.forMethodAnnotation(Coalesced.class), interceptor);
+        // inside method security (every caller is authorized), outside the transaction advisor
+        advisor.setOrder(Ordered.LOWEST_PRECEDENCE - 1);
+        return advisor;
+    }
+}
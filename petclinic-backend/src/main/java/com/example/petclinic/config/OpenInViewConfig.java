@@ -0,0 +1,34 @@
+package com.example.petclinic.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Open-entity-manager-in-view for every handler except attachment uploads and downloads,
+ * which stream for as long as the client takes and must not hold a pooled connection while
+ * they do. Boot's own interceptor cannot exclude paths, so it is switched off
+ * (spring.jpa.open-in-view=false) and registered here instead.
+ */
+@Configuration
+public class OpenInViewConfig implements WebMvcConfigurer {
+    static final String ATTACHMENTS = "/api/medical-records/*/attachments/**";
+
+    private final ObjectProvider<EntityManagerFactory> entityManagerFactory;
+
+    public OpenInViewConfig(ObjectProvider<EntityManagerFactory> entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        entityManagerFactory.ifAvailable(emf -> {
+            OpenEntityManagerInViewInterceptor interceptor = new OpenEntityManagerInViewInterceptor();
+            interceptor.setEntityManagerFactory(emf);
+            registry.addWebRequestInterceptor(interceptor).excludePathPatterns(ATTACHMENTS);
+        });
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.petclinic.config;
+
+import com.example.petclinic.datasource.QueryStatistics;
+import com.example.petclinic.datasource.TimedDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Puts {@link TimedDataSource} in front of the application data source (the routing proxy
+ * included, so replica reads are timed too). Replaces spring.jpa.show-sql in production.
+ */
+@Configuration
+@ConditionalOnProperty(name = "petclinic.slow-query.enabled", havingValue = "true", matchIfMissing = true)
+public class QueryTimingConfig {
+
+    @Bean
+    public static BeanPostProcessor timedDataSourcePostProcessor(ObjectProvider<QueryStatistics> queryStatistics) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof TimedDataSource)) {
+                    return new TimedDataSource(dataSource, queryStatistics);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -1,7 +1,11 @@
 package com.example.petclinic.config;
 
+import com.example.petclinic.bulkhead.BulkheadFilter;
+import com.example.petclinic.idempotency.IdempotencyFilter;
+import com.example.petclinic.ratelimit.RateLimitFilter;
 import com.example.petclinic.security.JwtAuthenticationFilter;
 import com.example.petclinic.security.UserDetailsServiceImpl;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -22,6 +26,12 @@ public class SecurityConfig {
     @Autowired
     private JwtAuthenticationFilter jwtAuthenticationFilter;
     @Autowired
+    private RateLimitFilter rateLimitFilter;
+    @Autowired
+    private IdempotencyFilter idempotencyFilter;
+    @Autowired
+    private BulkheadFilter bulkheadFilter;
+    @Autowired
     private UserDetailsServiceImpl userDetailsService;
     @Autowired
     private CorsConfigurationSource corsConfigurationSource;
@@ -33,11 +43,18 @@ public class SecurityConfig {
             .csrf(csrf -> csrf.disable())
             .sessionManagement(sm -> sm.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> auth
+                // async re-dispatches (SSE completion/timeout) were authorized on the original request
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 .requestMatchers("/api/auth/**").permitAll()
+                .requestMatchers("/actuator/health/**").permitAll()
+                .requestMatchers("/actuator/**").hasAuthority("DOCTOR")
                 .requestMatchers("/api/**").authenticated()
             )
             .userDetailsService(userDetailsService)
-            .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+            .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+            .addFilterAfter(rateLimitFilter, JwtAuthenticationFilter.class)
+            .addFilterAfter(idempotencyFilter, RateLimitFilter.class)
+            .addFilterAfter(bulkheadFilter, IdempotencyFilter.class);
         return http.build();
     }
 
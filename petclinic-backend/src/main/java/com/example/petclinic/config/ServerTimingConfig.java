@@ -0,0 +1,41 @@
+package com.example.petclinic.config;
+
+import com.example.petclinic.timing.RequestTimer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Marks where controller execution starts and, for handlers that never reach a message
+ * converter, where it ends, for the Server-Timing "app" phase. By then the caller is
+ * authenticated, so this is also where staff are let see the header.
+ */
+@Configuration
+public class ServerTimingConfig implements WebMvcConfigurer {
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                RequestTimer.handlerStarted();
+                Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+                if (authentication != null && authentication.getAuthorities().stream()
+                        .anyMatch(authority -> "DOCTOR".equals(authority.getAuthority()))) {
+                    RequestTimer.allowHeader();
+                }
+                return true;
+            }
+
+            @Override
+            public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+                RequestTimer.handlerFinished();
+            }
+        });
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.petclinic.controller;
+
+import com.example.petclinic.analytics.AnalyticsService;
+import com.example.petclinic.dto.AnalyticsSummaryDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/analytics")
+public class AnalyticsController {
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    /**
+     * Utilization, bookings per day, cancellation rate and visits by species for [from, to]
+     * (defaults to the last 30 days), read from the daily rollups.
+     */
+    @PreAuthorize("hasAuthority('DOCTOR')")
+    @GetMapping
+    public AnalyticsSummaryDTO getSummary(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(29);
+        if (start.isAfter(end)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "from must not be after to");
+        }
+        return analyticsService.getSummary(start, end);
+    }
+
+    /**
+     * One-time backfill of the rollups from existing history.
+     */
+    @PreAuthorize("hasAuthority('DOCTOR')")
+    @PostMapping("/rebuild")
+    public AnalyticsSummaryDTO rebuild() {
+        analyticsService.rebuild();
+        return getSummary(null, null);
+    }
+}
@@ -1,18 +1,21 @@
 package com.example.petclinic.controller;
 
 import com.example.petclinic.dto.AppointmentDTO;
+import com.example.petclinic.dto.FirstAvailableRequestDTO;
 import com.example.petclinic.model.Appointment;
-import com.example.petclinic.model.Doctor;
-import com.example.petclinic.model.User;
-import com.example.petclinic.repository.DoctorRepository;
-import com.example.petclinic.repository.UserRepository;
+import com.example.petclinic.security.ClinicUserDetails;
+import com.example.petclinic.service.AppointmentArchiveService;
 import com.example.petclinic.service.AppointmentService;
+import com.example.petclinic.service.DoctorAgendaCache;
+import com.example.petclinic.service.FirstAvailableBookingService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -22,12 +25,17 @@ public class AppointmentController {
     @Autowired
     private AppointmentService appointmentService;
     @Autowired
-    private UserRepository userRepository;
+    private AppointmentArchiveService appointmentArchiveService;
     @Autowired
-    private DoctorRepository doctorRepository;
+    private DoctorAgendaCache doctorAgendaCache;
+    @Autowired
+    private FirstAvailableBookingService firstAvailableBookingService;
+
+    @Value("${petclinic.agenda.default-window-days:365}")
+    private long agendaWindowDays;
 
     @PostMapping
-    public AppointmentDTO createAppointment(@Validated @RequestBody AppointmentDTO appointmentDTO, @AuthenticationPrincipal UserDetails userDetails) {
+    public AppointmentDTO createAppointment(@Validated @RequestBody AppointmentDTO appointmentDTO, @AuthenticationPrincipal ClinicUserDetails principal) {
         Appointment appointment = appointmentService.createAppointment(
                 appointmentDTO.petId(),
                 appointmentDTO.doctorId(),
@@ -45,31 +53,36 @@ public class AppointmentController {
         );
     }
 
+    /**
+     * Books the earliest slot at or after notBefore (default: now) with any active doctor of the specialization.
+     */
+    @PostMapping("/first-available")
+    public AppointmentDTO bookFirstAvailable(@Validated @RequestBody FirstAvailableRequestDTO request) {
+        Appointment appointment = firstAvailableBookingService.bookFirstAvailable(
+                request.petId(),
+                request.specialization(),
+                request.notBefore()
+        );
+        return new AppointmentDTO(
+                appointment.getId(),
+                appointment.getAppointmentCode(),
+                appointment.getAppointmentTime(),
+                appointment.getPet().getId(),
+                appointment.getDoctor().getDoctorId(),
+                appointment.getStatus(),
+                appointment.getPet().getName(),
+                appointment.getDoctor().getUser().getUsername()
+        );
+    }
+
     @GetMapping
-    public List<AppointmentDTO> getAppointments(@AuthenticationPrincipal UserDetails userDetails) {
-        User user = userRepository.findByUsername(userDetails.getUsername()).orElseThrow();
-        if ("OWNER".equals(user.getRole())) {
-            return appointmentService.getAppointmentsForOwner(userDetails.getUsername()).stream()
-                    .map(a -> new AppointmentDTO(
-                            a.getId(),
-                            a.getAppointmentCode(),
-                            a.getAppointmentTime(),
-                            a.getPet().getId(),
-                            a.getDoctor().getDoctorId(),
-                            a.getStatus(),
-                            a.getPet().getName(),
-                            a.getDoctor().getUser().getUsername()
-                    ))
-                    .collect(Collectors.toList());
-        } else if ("DOCTOR".equals(user.getRole())) {
-            // Get the doctor record for this user
-            Doctor doctor = doctorRepository.findByUserId(user.getId())
-                    .orElseThrow(() -> new IllegalArgumentException("Doctor record not found for user"));
-            
-            // Show all upcoming appointments (from now onwards) instead of just today
-            LocalDateTime now = LocalDateTime.now();
-            LocalDateTime farFuture = LocalDateTime.now().plusYears(1); // Next year
-            return appointmentService.getAppointmentsForDoctor(doctor.getDoctorId(), now, farFuture).stream()
+    public List<AppointmentDTO> getAppointments(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String status,
+            @AuthenticationPrincipal ClinicUserDetails principal) {
+        if (principal.isOwner()) {
+            return appointmentService.getAppointmentsForOwner(principal.getUserId()).stream()
                     .map(a -> new AppointmentDTO(
                             a.getId(),
                             a.getAppointmentCode(),
@@ -81,6 +94,39 @@ public class AppointmentController {
                             a.getDoctor().getUser().getUsername()
                     ))
                     .collect(Collectors.toList());
+        } else if (principal.isDoctor()) {
+            // Upcoming appointments by default (from now until the configured window); the
+            // default start is cut to the minute so concurrent calls share one coalescing key
+            LocalDateTime start = from != null ? from : LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES);
+            LocalDateTime end = to != null ? to : start.plusDays(agendaWindowDays);
+            return appointmentService.getAgendaForDoctor(principal.requireDoctorId(), start, end, status);
+        }
+        return List.of();
+    }
+
+    /**
+     * Today's agenda for the calling doctor, served from {@link DoctorAgendaCache}.
+     */
+    @GetMapping("/today")
+    public List<AppointmentDTO> getTodaysAgenda(@AuthenticationPrincipal ClinicUserDetails principal) {
+        if (!principal.isDoctor()) {
+            return List.of();
+        }
+        return doctorAgendaCache.getToday(principal.requireDoctorId());
+    }
+
+    /**
+     * Past and future appointments in [from, to], including archived ones when the range needs them.
+     */
+    @GetMapping("/history")
+    public List<AppointmentDTO> getAppointmentHistory(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @AuthenticationPrincipal ClinicUserDetails principal) {
+        if (principal.isOwner()) {
+            return appointmentArchiveService.getHistoryForOwner(principal.getUserId(), from, to);
+        } else if (principal.isDoctor()) {
+            return appointmentArchiveService.getHistoryForDoctor(principal.requireDoctorId(), from, to);
         }
         return List.of();
     }
@@ -89,7 +135,7 @@ public class AppointmentController {
     public AppointmentDTO updateAppointment(
             @PathVariable Long id,
             @Validated @RequestBody AppointmentDTO appointmentDTO,
-            @AuthenticationPrincipal UserDetails userDetails) {
+            @AuthenticationPrincipal ClinicUserDetails principal) {
         Appointment appointment = appointmentService.updateAppointment(
                 id,
                 appointmentDTO.petId(),
@@ -111,7 +157,7 @@ public class AppointmentController {
     @DeleteMapping("/{id}")
     public void deleteAppointment(
             @PathVariable Long id,
-            @AuthenticationPrincipal UserDetails userDetails) {
-        appointmentService.deleteAppointment(id, userDetails.getUsername());
+            @AuthenticationPrincipal ClinicUserDetails principal) {
+        appointmentService.deleteAppointment(id, principal.getUserId());
     }
 }
@@ -0,0 +1,36 @@
+package com.example.petclinic.controller;
+
+import com.example.petclinic.security.ClinicUserDetails;
+import com.example.petclinic.stream.AppointmentStreamBroker;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Live appointment changes for the caller: owners get their pets' appointments,
+ * doctors get their own schedule. Replaces polling GET /api/appointments.
+ */
+@RestController
+@RequestMapping("/api/appointments/stream")
+public class AppointmentStreamController {
+    @Autowired
+    private AppointmentStreamBroker appointmentStreamBroker;
+
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventIdHeader,
+            @RequestParam(value = "lastEventId", required = false) Long lastEventIdParam,
+            @AuthenticationPrincipal ClinicUserDetails principal) {
+        Long lastEventId = lastEventIdHeader != null ? lastEventIdHeader : lastEventIdParam;
+        if (principal.isOwner()) {
+            return appointmentStreamBroker.subscribe(AppointmentStreamBroker.Scope.OWNER, principal.getUserId(), lastEventId);
+        } else if (principal.isDoctor()) {
+            return appointmentStreamBroker.subscribe(AppointmentStreamBroker.Scope.DOCTOR, principal.requireDoctorId(), lastEventId);
+        }
+        throw new ResponseStatusException(HttpStatus.FORBIDDEN);
+    }
+}
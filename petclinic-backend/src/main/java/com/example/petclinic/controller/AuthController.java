@@ -5,10 +5,13 @@ import com.example.petclinic.dto.LoginRequestDTO;
 import com.example.petclinic.dto.RegisterRequestDTO;
 import com.example.petclinic.model.Doctor;
 import com.example.petclinic.model.User;
+import com.example.petclinic.registration.RegistrationFilter;
+import com.example.petclinic.registration.RegistrationFilter.Field;
 import com.example.petclinic.repository.DoctorRepository;
 import com.example.petclinic.repository.UserRepository;
 import com.example.petclinic.security.JwtUtil;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -18,6 +21,7 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDateTime;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/auth")
@@ -32,19 +36,16 @@ public class AuthController {
     private AuthenticationManager authenticationManager;
     @Autowired
     private JwtUtil jwtUtil;
+    @Autowired
+    private RegistrationFilter registrationFilter;
 
     @PostMapping("/register")
     public AuthResponseDTO register(@Validated @RequestBody RegisterRequestDTO request) {
-        // Check for duplicate username
-        if (userRepository.findByUsername(request.username()).isPresent()) {
-            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "User already registered, please login");
-        }
-        // Check for duplicate phone number
-        if (userRepository.findByPhoneNumber(request.phoneNumber()).isPresent()) {
-            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "User already registered, please login");
-        }
-        // Check for duplicate identity code
-        if (userRepository.findByIdentityCode(request.identityCode()).isPresent()) {
+        // Only values the filters cannot rule out are looked up; most new registrations skip all three
+        Set<Field> suspects = registrationFilter.possiblyTaken(request.username(), request.phoneNumber(), request.identityCode());
+        if ((suspects.contains(Field.USERNAME) && userRepository.existsByUsername(request.username()))
+                || (suspects.contains(Field.PHONE_NUMBER) && userRepository.existsByPhoneNumber(request.phoneNumber()))
+                || (suspects.contains(Field.IDENTITY_CODE) && userRepository.existsByIdentityCode(request.identityCode()))) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "User already registered, please login");
         }
         
@@ -54,7 +55,13 @@ public class AuthController {
         user.setRole(request.role());
         user.setPhoneNumber(request.phoneNumber());
         user.setIdentityCode(request.identityCode());
-        userRepository.save(user);
+        // The unique constraints catch what the filters could not know about (e.g. another instance's users)
+        try {
+            userRepository.save(user);
+        } catch (DataIntegrityViolationException e) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "User already registered, please login");
+        }
+        registrationFilter.added(user.getUsername(), user.getPhoneNumber(), user.getIdentityCode());
         
         // If registering as a doctor, create a Doctor record
         if ("DOCTOR".equalsIgnoreCase(request.role())) {
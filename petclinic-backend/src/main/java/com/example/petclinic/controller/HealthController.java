@@ -1,5 +1,9 @@
 package com.example.petclinic.controller;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -8,15 +12,22 @@ import org.springframework.web.bind.annotation.RestController;
 import java.util.HashMap;
 import java.util.Map;
 
+/**
+ * Kept for existing clients; mirrors readiness, so it answers 503 until the startup warm-up is done.
+ * Probes should use /actuator/health/liveness and /actuator/health/readiness.
+ */
 @RestController
 @RequestMapping("/api/auth")
 public class HealthController {
+    @Autowired
+    private ApplicationAvailability applicationAvailability;
     
     @GetMapping("/health")
     public ResponseEntity<Map<String, String>> health() {
+        boolean ready = applicationAvailability.getReadinessState() == ReadinessState.ACCEPTING_TRAFFIC;
         Map<String, String> response = new HashMap<>();
-        response.put("status", "UP");
+        response.put("status", ready ? "UP" : "OUT_OF_SERVICE");
         response.put("service", "petclinic-backend");
-        return ResponseEntity.ok(response);
+        return ResponseEntity.status(ready ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE).body(response);
     }
 }
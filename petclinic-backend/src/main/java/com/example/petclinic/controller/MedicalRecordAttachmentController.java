@@ -0,0 +1,159 @@
+package com.example.petclinic.controller;
+
+import com.example.petclinic.attachment.AttachmentService;
+import com.example.petclinic.attachment.AttachmentStore;
+import com.example.petclinic.dto.AttachmentDTO;
+import com.example.petclinic.security.ClinicUserDetails;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Files attached to a medical record. Uploads are the raw request body (Content-Type and
+ * ?fileName= describe it), streamed to disk as they arrive. Downloads support single byte
+ * ranges and are handed to Tomcat's sendfile when the connector offers it, otherwise copied
+ * with FileChannel.transferTo, so file contents never pass through the heap.
+ */
+@RestController
+@RequestMapping("/api/medical-records/{recordId}/attachments")
+public class MedicalRecordAttachmentController {
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+    private static final Set<String> INLINE_TYPES = Set.of(
+            MediaType.IMAGE_PNG_VALUE, MediaType.IMAGE_JPEG_VALUE, MediaType.IMAGE_GIF_VALUE, "image/webp", MediaType.APPLICATION_PDF_VALUE);
+
+    @Autowired
+    private AttachmentService attachmentService;
+    @Autowired
+    private AttachmentStore attachmentStore;
+
+    @PreAuthorize("hasAuthority('DOCTOR')")
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public AttachmentDTO upload(@PathVariable Long recordId, @RequestParam String fileName,
+                                HttpServletRequest request) throws IOException {
+        String contentType = request.getContentType() != null ? request.getContentType() : MediaType.APPLICATION_OCTET_STREAM_VALUE;
+        if (contentType.startsWith("multipart/") || contentType.startsWith(MediaType.APPLICATION_FORM_URLENCODED_VALUE)) {
+            throw new ResponseStatusException(HttpStatus.UNSUPPORTED_MEDIA_TYPE, "Send the file as the raw request body");
+        }
+        return attachmentService.attach(recordId, fileName, contentType, request.getInputStream());
+    }
+
+    @GetMapping
+    public List<AttachmentDTO> list(@PathVariable Long recordId, @AuthenticationPrincipal ClinicUserDetails principal) {
+        return attachmentService.list(recordId, principal);
+    }
+
+    @GetMapping("/{attachmentId}")
+    public void download(@PathVariable Long recordId, @PathVariable Long attachmentId,
+                         @AuthenticationPrincipal ClinicUserDetails principal,
+                         HttpServletRequest request, HttpServletResponse response) throws IOException {
+        AttachmentDTO attachment = attachmentService.get(recordId, attachmentId, principal);
+        String etag = "\"" + attachment.sha256() + "\"";
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, max-age=86400");
+        if (etag.equals(request.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            return;
+        }
+
+        long length = attachment.size();
+        long start = 0;
+        long count = length;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (range != null && (ifRange == null || ifRange.equals(etag))) {
+            List<HttpRange> ranges;
+            try {
+                ranges = HttpRange.parseRanges(range);
+                if (ranges.size() == 1) {
+                    start = ranges.get(0).getRangeStart(length);
+                    count = ranges.get(0).getRangeEnd(length) - start + 1;
+                    if (start >= length || count <= 0) {
+                        throw new IllegalArgumentException("Range starts beyond the end of the file");
+                    }
+                }
+            } catch (IllegalArgumentException e) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                return;
+            }
+            // several ranges would need multipart/byteranges; the whole file is a valid answer
+            if (ranges.size() == 1) {
+                response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + (start + count - 1) + "/" + length);
+            }
+        }
+
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setContentType(attachment.contentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, disposition(attachment).toString());
+        response.setHeader("X-Content-Type-Options", "nosniff");
+        response.setContentLengthLong(count);
+        if ("HEAD".equals(request.getMethod()) || count == 0) {
+            return;
+        }
+
+        Path file = attachmentStore.path(attachment.sha256());
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, start + count);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long end = start + count;
+            while (position < end) {
+                long sent = channel.transferTo(position, end - position, out);
+                if (sent <= 0) {
+                    throw new IOException("Attachment blob " + attachment.sha256() + " is shorter than recorded");
+                }
+                position += sent;
+            }
+        }
+    }
+
+    @PreAuthorize("hasAuthority('DOCTOR')")
+    @DeleteMapping("/{attachmentId}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void delete(@PathVariable Long recordId, @PathVariable Long attachmentId) {
+        attachmentService.delete(recordId, attachmentId);
+    }
+
+    // Raster images and PDFs open in the browser; anything else, SVG and HTML included since they
+    // can carry script, is downloaded rather than rendered
+    private static ContentDisposition disposition(AttachmentDTO attachment) {
+        String type = attachment.contentType().split(";", 2)[0].trim().toLowerCase(Locale.ROOT);
+        ContentDisposition.Builder builder = INLINE_TYPES.contains(type)
+                ? ContentDisposition.inline()
+                : ContentDisposition.attachment();
+        String fileName = attachment.fileName();
+        return StandardCharsets.US_ASCII.newEncoder().canEncode(fileName)
+                ? builder.filename(fileName).build()
+                : builder.filename(fileName, StandardCharsets.UTF_8).build();
+    }
+}
@@ -1,10 +1,8 @@
 package com.example.petclinic.controller;
 
 import com.example.petclinic.dto.MedicalRecordDTO;
-import com.example.petclinic.model.MedicalRecord;
 import com.example.petclinic.repository.MedicalRecordRepository;
-import com.example.petclinic.repository.PetRepository;
-import com.example.petclinic.repository.AppointmentRepository;
+import com.example.petclinic.service.MedicalRecordService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -20,28 +18,19 @@ public class MedicalRecordController {
     @Autowired
     private MedicalRecordRepository medicalRecordRepository;
     @Autowired
-    private PetRepository petRepository;
-    @Autowired
-    private AppointmentRepository appointmentRepository;
+    private MedicalRecordService medicalRecordService;
 
     @PreAuthorize("hasAuthority('DOCTOR')")
     @PostMapping
     public MedicalRecordDTO addMedicalRecord(@Validated @RequestBody MedicalRecordDTO dto, @AuthenticationPrincipal UserDetails userDetails) {
-        MedicalRecord record = new MedicalRecord();
-        record.setVisitDate(dto.visitDate());
-        record.setDiagnosis(dto.diagnosis());
-        record.setPrescription(dto.prescription());
-        record.setPet(petRepository.findById(dto.petId()).orElseThrow());
-        record.setAppointment(appointmentRepository.findById(dto.appointmentId()).orElseThrow());
-        MedicalRecord saved = medicalRecordRepository.save(record);
-        return new MedicalRecordDTO(saved.getId(), saved.getVisitDate(), saved.getDiagnosis(), saved.getPrescription(), saved.getPet().getId(), saved.getAppointment().getId());
+        return medicalRecordService.addMedicalRecord(dto);
     }
 
     @PreAuthorize("hasAuthority('DOCTOR')")
     @GetMapping("/pet/{petId}")
     public List<MedicalRecordDTO> getMedicalRecordsForPet(@PathVariable Long petId) {
         return medicalRecordRepository.findByPetId(petId).stream()
-                .map(r -> new MedicalRecordDTO(r.getId(), r.getVisitDate(), r.getDiagnosis(), r.getPrescription(), r.getPet().getId(), r.getAppointment().getId()))
+                .map(r -> new MedicalRecordDTO(r.getId(), r.getVisitDate(), r.getDiagnosis(), r.getPrescription(), r.getPet().getId(), r.getAppointmentId()))
                 .collect(Collectors.toList());
     }
 }
@@ -0,0 +1,32 @@
+package com.example.petclinic.controller;
+
+import com.example.petclinic.dto.PatientMatchDTO;
+import com.example.petclinic.search.PatientIndex;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/patients")
+public class PatientSearchController {
+    private static final int MAX_LIMIT = 50;
+
+    @Autowired
+    private PatientIndex patientIndex;
+
+    /**
+     * Type-ahead for the front desk: pets whose name, or whose owner's username, phone number
+     * or identity code, starts with q. Served from memory; shorter queries return nothing.
+     */
+    @PreAuthorize("hasAuthority('DOCTOR')")
+    @GetMapping("/search")
+    public List<PatientMatchDTO> search(@RequestParam String q, @RequestParam(defaultValue = "10") int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be between 1 and " + MAX_LIMIT);
+        }
+        return patientIndex.search(q, limit);
+    }
+}
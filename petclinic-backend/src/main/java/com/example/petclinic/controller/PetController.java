@@ -2,10 +2,10 @@ package com.example.petclinic.controller;
 
 import com.example.petclinic.dto.PetDTO;
 import com.example.petclinic.model.Pet;
+import com.example.petclinic.security.ClinicUserDetails;
 import com.example.petclinic.service.PetService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import java.util.List;
@@ -17,24 +17,24 @@ public class PetController {
     private PetService petService;
 
     @PostMapping
-    public PetDTO addPet(@Validated @RequestBody PetDTO petDTO, @AuthenticationPrincipal UserDetails userDetails) {
+    public PetDTO addPet(@Validated @RequestBody PetDTO petDTO, @AuthenticationPrincipal ClinicUserDetails principal) {
         Pet pet = new Pet();
         pet.setName(petDTO.name());
         pet.setSpecies(petDTO.species());
         pet.setBreed(petDTO.breed());
         pet.setBirthDate(petDTO.birthDate());
-        Pet savedPet = petService.addPet(pet, userDetails.getUsername());
+        Pet savedPet = petService.addPet(pet, principal.getUserId());
         return new PetDTO(savedPet.getId(), savedPet.getName(), savedPet.getSpecies(), savedPet.getBreed(), savedPet.getBirthDate(), null);
     }
 
     @GetMapping
-    public List<PetDTO> getPets(@AuthenticationPrincipal UserDetails userDetails) {
-        return petService.getPetsForOwner(userDetails.getUsername());
+    public List<PetDTO> getPets(@AuthenticationPrincipal ClinicUserDetails principal) {
+        return petService.getPetsForOwner(principal.getUserId());
     }
 
     @GetMapping("/{id}")
-    public PetDTO getPet(@PathVariable Long id, @AuthenticationPrincipal UserDetails userDetails) {
-        Pet pet = petService.getPetByIdForOwner(id, userDetails.getUsername()).orElseThrow();
+    public PetDTO getPet(@PathVariable Long id, @AuthenticationPrincipal ClinicUserDetails principal) {
+        Pet pet = petService.getPetByIdForOwner(id, principal.getUserId()).orElseThrow();
         return new PetDTO(pet.getId(), pet.getName(), pet.getSpecies(), pet.getBreed(), pet.getBirthDate(), null);
     }
 }
@@ -0,0 +1,30 @@
+package com.example.petclinic.controller;
+
+import com.example.petclinic.dto.SyncResponseDTO;
+import com.example.petclinic.security.ClinicUserDetails;
+import com.example.petclinic.sync.SyncService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+@RestController
+@RequestMapping("/api/sync")
+public class SyncController {
+    @Autowired
+    private SyncService syncService;
+
+    /**
+     * Changes since the token from the previous call; omit since for a full snapshot.
+     */
+    @GetMapping
+    public SyncResponseDTO sync(@RequestParam(required = false) Long since, @AuthenticationPrincipal ClinicUserDetails principal) {
+        if (principal.isOwner()) {
+            return syncService.syncForOwner(principal.getUserId(), since);
+        } else if (principal.isDoctor()) {
+            return syncService.syncForDoctor(principal.requireDoctorId(), since);
+        }
+        throw new ResponseStatusException(HttpStatus.FORBIDDEN);
+    }
+}
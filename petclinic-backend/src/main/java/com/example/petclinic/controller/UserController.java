@@ -1,9 +1,18 @@
 package com.example.petclinic.controller;
 
+import com.example.petclinic.coalesce.Coalesced;
 import com.example.petclinic.dto.DoctorDTO;
+import com.example.petclinic.dto.PurgeJobDTO;
+import com.example.petclinic.purge.AccountPurgeService;
+import com.example.petclinic.purge.PurgeJob;
 import com.example.petclinic.repository.DoctorRepository;
+import com.example.petclinic.security.ClinicUserDetails;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -12,7 +21,13 @@ import java.util.stream.Collectors;
 public class UserController {
     @Autowired
     private DoctorRepository doctorRepository;
+    @Autowired
+    private AccountPurgeService accountPurgeService;
 
+    /**
+     * Every client loads this on start; concurrent loads share one query and the list is reused for a second.
+     */
+    @Coalesced(value = "doctors", retainMillis = 1000)
     @GetMapping("/doctors")
     public List<DoctorDTO> getAllDoctors() {
         return doctorRepository.findByActiveTrue().stream()
@@ -25,4 +40,28 @@ public class UserController {
                 ))
                 .collect(Collectors.toList());
     }
+
+    /**
+     * Erases the caller's account and all of its data in the background; poll the returned job.
+     */
+    @DeleteMapping("/me")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public PurgeJobDTO purgeOwnAccount(@AuthenticationPrincipal ClinicUserDetails principal) {
+        return accountPurgeService.startPurge(principal.getUserId()).toDTO();
+    }
+
+    @PreAuthorize("hasAuthority('DOCTOR')")
+    @DeleteMapping("/{id}")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public PurgeJobDTO purgeAccount(@PathVariable Long id) {
+        return accountPurgeService.startPurge(id).toDTO();
+    }
+
+    @GetMapping("/purge-jobs/{jobId}")
+    public PurgeJobDTO getPurgeJob(@PathVariable String jobId, @AuthenticationPrincipal ClinicUserDetails principal) {
+        PurgeJob job = accountPurgeService.getJob(jobId)
+                .filter(j -> principal.isDoctor() || j.getUserId().equals(principal.getUserId()))
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+        return job.toDTO();
+    }
 }
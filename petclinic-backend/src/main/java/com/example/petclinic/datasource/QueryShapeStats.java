@@ -0,0 +1,9 @@
+package com.example.petclinic.datasource;
+
+public record QueryShapeStats(
+        String sql,
+        long count,
+        double totalMs,
+        double meanMs,
+        double maxMs
+) {}
@@ -0,0 +1,140 @@
+package com.example.petclinic.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Timing for every JDBC statement, fed by {@link TimedDataSource}. Statements over the
+ * threshold are sampled into the slow-query log with the HTTP route and user that issued
+ * them; per-shape totals back the top-N table at /actuator/slowqueries.
+ */
+@Component
+public class QueryStatistics {
+    private static final Logger log = LoggerFactory.getLogger(QueryStatistics.class);
+    private static final double NANOS_PER_MS = 1_000_000d;
+
+    private final Map<String, ShapeStats> shapes = new ConcurrentHashMap<>();
+    private final Timer queryTimer;
+    private final Counter slowCounter;
+    private final Counter untrackedCounter;
+    private final long thresholdNanos;
+    private final double sampleRate;
+    private final int maxShapes;
+    private final int maxSqlLength;
+
+    public QueryStatistics(MeterRegistry meterRegistry,
+                           @Value("${petclinic.slow-query.threshold-ms:200}") long thresholdMs,
+                           @Value("${petclinic.slow-query.sample-rate:1.0}") double sampleRate,
+                           @Value("${petclinic.slow-query.max-shapes:2000}") int maxShapes,
+                           @Value("${petclinic.slow-query.max-sql-length:2000}") int maxSqlLength) {
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMs);
+        this.sampleRate = sampleRate;
+        this.maxShapes = maxShapes;
+        this.maxSqlLength = maxSqlLength;
+        this.queryTimer = Timer.builder("petclinic.jdbc.queries")
+                .description("JDBC statement execution time")
+                .register(meterRegistry);
+        this.slowCounter = Counter.builder("petclinic.jdbc.slow-queries")
+                .description("JDBC statements over the slow-query threshold")
+                .register(meterRegistry);
+        this.untrackedCounter = Counter.builder("petclinic.jdbc.untracked-shapes")
+                .description("Executions not added to the shape table because it was full")
+                .register(meterRegistry);
+    }
+
+    public void record(String sql, long elapsedNanos) {
+        queryTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        String shape = SqlShape.normalize(sql, maxSqlLength);
+        ShapeStats stats = shapes.get(shape);
+        if (stats == null) {
+            if (shapes.size() >= maxShapes) {
+                untrackedCounter.increment();
+            } else {
+                stats = shapes.computeIfAbsent(shape, s -> new ShapeStats());
+            }
+        }
+        if (stats != null) {
+            stats.add(elapsedNanos);
+        }
+        if (elapsedNanos >= thresholdNanos) {
+            slowCounter.increment();
+            if (sampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < sampleRate) {
+                log.warn("slow query durationMs={} route=\"{}\" user={} sql=\"{}\"",
+                        String.format("%.1f", elapsedNanos / NANOS_PER_MS), currentRoute(), currentUser(), shape);
+            }
+        }
+    }
+
+    /**
+     * The slowest shapes by maximum execution time.
+     */
+    public List<QueryShapeStats> topSlowest(int limit) {
+        return shapes.entrySet().stream()
+                .map(e -> e.getValue().snapshot(e.getKey()))
+                .sorted(Comparator.comparingDouble(QueryShapeStats::maxMs).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    public void reset() {
+        shapes.clear();
+    }
+
+    private static String currentRoute() {
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            HttpServletRequest request = attributes.getRequest();
+            // Filters run before handler mapping, so fall back to the raw path there
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            return request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI());
+        }
+        return "thread:" + Thread.currentThread().getName();
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return authentication.getName();
+        }
+        return "-";
+    }
+
+    private static final class ShapeStats {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        void add(long elapsedNanos) {
+            count.increment();
+            totalNanos.add(elapsedNanos);
+            maxNanos.accumulateAndGet(elapsedNanos, Math::max);
+        }
+
+        QueryShapeStats snapshot(String sql) {
+            long n = count.sum();
+            double total = totalNanos.sum() / NANOS_PER_MS;
+            return new QueryShapeStats(sql, n, total, n == 0 ? 0 : total / n, maxNanos.get() / NANOS_PER_MS);
+        }
+    }
+}
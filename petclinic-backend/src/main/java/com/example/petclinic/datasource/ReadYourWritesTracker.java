@@ -0,0 +1,58 @@
+package com.example.petclinic.datasource;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers who wrote recently so their reads can be kept on the primary
+ * until the replicas have had time to catch up.
+ * Callers are identified by username, or by client address before login.
+ */
+public class ReadYourWritesTracker {
+    private final long stickyWindowMs;
+    private final Map<String, Long> lastWriteAt = new ConcurrentHashMap<>();
+
+    public ReadYourWritesTracker(long stickyWindowMs) {
+        this.stickyWindowMs = stickyWindowMs;
+    }
+
+    public void recordWrite() {
+        String key = currentCallerKey();
+        if (key != null) {
+            long now = System.currentTimeMillis();
+            lastWriteAt.put(key, now);
+            // Drop expired entries opportunistically so the map stays bounded by recent writers
+            if (lastWriteAt.size() > 1024) {
+                lastWriteAt.values().removeIf(writtenAt -> now - writtenAt > stickyWindowMs);
+            }
+        }
+    }
+
+    public boolean isSticky() {
+        String key = currentCallerKey();
+        if (key == null) {
+            return false;
+        }
+        Long writtenAt = lastWriteAt.get(key);
+        return writtenAt != null && System.currentTimeMillis() - writtenAt <= stickyWindowMs;
+    }
+
+    private String currentCallerKey() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return "user:" + authentication.getName();
+        }
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            HttpServletRequest request = attributes.getRequest();
+            return "addr:" + request.getRemoteAddr();
+        }
+        return null;
+    }
+}
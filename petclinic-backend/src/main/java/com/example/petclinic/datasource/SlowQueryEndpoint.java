@@ -0,0 +1,35 @@
+package com.example.petclinic.datasource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * /actuator/slowqueries: the slowest normalized SQL shapes since startup (or the last reset).
+ */
+@Component
+@Endpoint(id = "slowqueries")
+public class SlowQueryEndpoint {
+    private final QueryStatistics queryStatistics;
+
+    @Value("${petclinic.slow-query.top-n:20}")
+    private int topN;
+
+    public SlowQueryEndpoint(QueryStatistics queryStatistics) {
+        this.queryStatistics = queryStatistics;
+    }
+
+    @ReadOperation
+    public List<QueryShapeStats> slowest() {
+        return queryStatistics.topSlowest(topN);
+    }
+
+    @DeleteOperation
+    public void reset() {
+        queryStatistics.reset();
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.petclinic.datasource;
+
+import java.util.regex.Pattern;
+
+/**
+ * Reduces a SQL statement to its shape so executions that differ only in literals
+ * (or in the length of an IN list) are counted together.
+ */
+final class SqlShape {
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("(?i)\\bin\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private SqlShape() {
+    }
+
+    static String normalize(String sql, int maxLength) {
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = IN_LIST.matcher(shape).replaceAll("in (?)");
+        shape = WHITESPACE.matcher(shape).replaceAll(" ").trim();
+        return shape.length() > maxLength ? shape.substring(0, maxLength) + "..." : shape;
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.petclinic.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public record AnalyticsSummaryDTO(
+    LocalDate from,
+    LocalDate to,
+    long scheduled,
+    long cancelled,
+    double cancellationRate,
+    List<DoctorUtilizationDTO> doctors,
+    List<DailyBookingsDTO> days,
+    List<SpeciesVisitsDTO> species
+) {}
@@ -0,0 +1,13 @@
+package com.example.petclinic.dto;
+
+import java.time.LocalDateTime;
+
+public record AttachmentDTO(
+    Long id,
+    Long medicalRecordId,
+    String fileName,
+    String contentType,
+    long size,
+    String sha256,
+    LocalDateTime createdAt
+) {}
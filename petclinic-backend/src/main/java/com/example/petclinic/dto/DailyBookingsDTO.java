@@ -0,0 +1,9 @@
+package com.example.petclinic.dto;
+
+import java.time.LocalDate;
+
+public record DailyBookingsDTO(
+    LocalDate day,
+    Long scheduled,
+    Long cancelled
+) {}
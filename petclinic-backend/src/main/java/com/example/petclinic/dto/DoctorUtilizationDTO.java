@@ -0,0 +1,9 @@
+package com.example.petclinic.dto;
+
+public record DoctorUtilizationDTO(
+    Long doctorId,
+    String doctorName,
+    long scheduled,
+    long cancelled,
+    double utilization
+) {}
@@ -0,0 +1,11 @@
+package com.example.petclinic.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import java.time.LocalDateTime;
+
+public record FirstAvailableRequestDTO(
+    @NotNull Long petId,
+    @NotBlank String specialization,
+    LocalDateTime notBefore
+) {}
@@ -0,0 +1,11 @@
+package com.example.petclinic.dto;
+
+public record PatientMatchDTO(
+    Long petId,
+    String petName,
+    String species,
+    Long ownerId,
+    String ownerUsername,
+    String ownerPhoneNumber,
+    String matchedField
+) {}
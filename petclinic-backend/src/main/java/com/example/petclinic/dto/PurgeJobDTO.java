@@ -0,0 +1,19 @@
+package com.example.petclinic.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of an account purge. phase is the step in progress (or the last one reached on failure).
+ */
+public record PurgeJobDTO(
+    String jobId,
+    Long userId,
+    String state,
+    String phase,
+    int appointmentsDeleted,
+    int medicalRecordsDeleted,
+    int petsDeleted,
+    LocalDateTime startedAt,
+    LocalDateTime finishedAt,
+    String error
+) {}
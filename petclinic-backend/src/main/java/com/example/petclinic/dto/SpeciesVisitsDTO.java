@@ -0,0 +1,6 @@
+package com.example.petclinic.dto;
+
+public record SpeciesVisitsDTO(
+    String species,
+    Long visits
+) {}
@@ -0,0 +1,15 @@
+package com.example.petclinic.dto;
+
+import java.util.List;
+
+/**
+ * full = true means the lists are the caller's complete data set and local state should be replaced.
+ */
+public record SyncResponseDTO(
+    String token,
+    boolean full,
+    List<PetDTO> pets,
+    List<AppointmentDTO> appointments,
+    List<MedicalRecordDTO> medicalRecords,
+    List<SyncTombstoneDTO> deleted
+) {}
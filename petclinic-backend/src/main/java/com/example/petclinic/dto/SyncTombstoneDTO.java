@@ -0,0 +1,6 @@
+package com.example.petclinic.dto;
+
+public record SyncTombstoneDTO(
+    String type,
+    Long id
+) {}
@@ -0,0 +1,21 @@
+package com.example.petclinic.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * Appointment lifecycle change as stored in the outbox.
+ * previousAppointmentTime and previousDoctorId are only set for RESCHEDULED.
+ */
+public record AppointmentEvent(
+    AppointmentEventType type,
+    Long appointmentId,
+    String appointmentCode,
+    Long petId,
+    String petName,
+    Long ownerId,
+    Long doctorId,
+    LocalDateTime appointmentTime,
+    Long previousDoctorId,
+    LocalDateTime previousAppointmentTime,
+    LocalDateTime occurredAt
+) {}
@@ -0,0 +1,18 @@
+package com.example.petclinic.event;
+
+/**
+ * In-process subscriber for appointment events drained from the outbox.
+ * Delivery is at-least-once, so implementations must tolerate seeing the same event twice.
+ */
+public interface AppointmentEventListener {
+    default void onAppointmentEvent(AppointmentEvent event) {
+    }
+
+    /**
+     * Same as {@link #onAppointmentEvent(AppointmentEvent)} plus the outbox id, which is unique
+     * and increases with insert order, so it can be handed to clients as a resume position.
+     */
+    default void onAppointmentEvent(long eventId, AppointmentEvent event) {
+        onAppointmentEvent(event);
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.petclinic.event;
+
+public enum AppointmentEventType {
+    CREATED,
+    RESCHEDULED,
+    CANCELLED
+}
@@ -0,0 +1,187 @@
+package com.example.petclinic.event;
+
+import com.example.petclinic.model.OutboxEvent;
+import com.example.petclinic.repository.OutboxEventRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains the outbox in id order and hands each event to every AppointmentEventListener.
+ * An event is only marked dispatched after all listeners returned, so a crash or a
+ * failing listener means redelivery (at-least-once). A failure stops the batch so
+ * later events are never delivered ahead of an earlier one, until the event has failed
+ * max-attempts times: then it is parked (failed_at set, left for inspection and never
+ * purged) and delivery moves on. Attempts are counted in their own transaction, so a
+ * listener that marks the batch for rollback still uses one up.
+ */
+@Component
+@Lazy(false)
+@ConditionalOnProperty(name = "petclinic.outbox.dispatcher.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxDispatcher {
+    private static final Logger log = LoggerFactory.getLogger(OutboxDispatcher.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final List<AppointmentEventListener> listeners;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate attemptTemplate;
+
+    private final Counter dispatchedCounter;
+    private final Counter failureCounter;
+    private final Counter parkedCounter;
+    private final Timer batchTimer;
+    private final DistributionSummary deliveryLag;
+    private final AtomicLong pendingEvents = new AtomicLong();
+    private final AtomicLong oldestPendingAgeMs = new AtomicLong();
+    private final AtomicLong parkedEvents = new AtomicLong();
+
+    @Value("${petclinic.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${petclinic.outbox.max-batches-per-poll:10}")
+    private int maxBatchesPerPoll;
+
+    @Value("${petclinic.outbox.retention-hours:24}")
+    private long retentionHours;
+
+    @Value("${petclinic.outbox.max-attempts:10}")
+    private int maxAttempts;
+
+    public OutboxDispatcher(OutboxEventRepository outboxEventRepository,
+                            List<AppointmentEventListener> listeners,
+                            ObjectMapper objectMapper,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.listeners = listeners;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.attemptTemplate = new TransactionTemplate(transactionManager);
+        this.attemptTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        this.dispatchedCounter = Counter.builder("petclinic.outbox.dispatched")
+                .description("Outbox events delivered to all listeners")
+                .register(meterRegistry);
+        this.failureCounter = Counter.builder("petclinic.outbox.failures")
+                .description("Outbox deliveries that threw")
+                .register(meterRegistry);
+        this.parkedCounter = Counter.builder("petclinic.outbox.parked")
+                .description("Outbox events given up on after max-attempts failed deliveries")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("petclinic.outbox.batch")
+                .description("Time to deliver and mark one outbox batch")
+                .register(meterRegistry);
+        this.deliveryLag = DistributionSummary.builder("petclinic.outbox.delivery.lag")
+                .description("Milliseconds from outbox insert to delivery")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        Gauge.builder("petclinic.outbox.pending", pendingEvents, AtomicLong::get)
+                .description("Undispatched outbox events at the last poll")
+                .register(meterRegistry);
+        Gauge.builder("petclinic.outbox.lag", oldestPendingAgeMs, AtomicLong::get)
+                .description("Age in milliseconds of the oldest undispatched event at the last poll")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        Gauge.builder("petclinic.outbox.failed", parkedEvents, AtomicLong::get)
+                .description("Parked outbox events at the last poll")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${petclinic.outbox.poll-interval-ms:500}")
+    public void poll() {
+        for (int i = 0; i < maxBatchesPerPoll; i++) {
+            Integer delivered;
+            try {
+                delivered = batchTimer.record(() -> transactionTemplate.execute(this::dispatchBatch));
+            } catch (TransactionException e) {
+                // a listener marked the batch rollback-only; its events are redelivered next poll
+                log.warn("Outbox batch rolled back", e);
+                break;
+            }
+            if (delivered == null || delivered < batchSize) {
+                break;
+            }
+        }
+        pendingEvents.set(outboxEventRepository.countByDispatchedAtIsNullAndFailedAtIsNull());
+        parkedEvents.set(outboxEventRepository.countByFailedAtIsNotNull());
+        oldestPendingAgeMs.set(outboxEventRepository.findFirstByDispatchedAtIsNullAndFailedAtIsNullOrderByIdAsc()
+                .map(e -> Duration.between(e.getCreatedAt(), LocalDateTime.now()).toMillis())
+                .orElse(0L));
+    }
+
+    @Scheduled(cron = "${petclinic.outbox.purge-cron:0 15 * * * *}")
+    public void purgeDispatched() {
+        int purged = transactionTemplate.execute(status ->
+                outboxEventRepository.deleteDispatchedBefore(LocalDateTime.now().minusHours(retentionHours)));
+        if (purged > 0) {
+            log.info("Purged {} dispatched outbox events", purged);
+        }
+    }
+
+    /**
+     * @return the number of events fetched, or -1 if the batch stopped on a failure
+     */
+    private int dispatchBatch(TransactionStatus status) {
+        List<OutboxEvent> batch = outboxEventRepository.findByDispatchedAtIsNullAndFailedAtIsNullOrderByIdAsc(PageRequest.of(0, batchSize));
+        List<Long> deliveredIds = new ArrayList<>(batch.size());
+        LocalDateTime now = LocalDateTime.now();
+        boolean failed = false;
+        for (OutboxEvent outboxEvent : batch) {
+            try {
+                AppointmentEvent event = objectMapper.readValue(outboxEvent.getPayload(), AppointmentEvent.class);
+                for (AppointmentEventListener listener : listeners) {
+                    listener.onAppointmentEvent(outboxEvent.getId(), event);
+                }
+            } catch (Exception e) {
+                failureCounter.increment();
+                int attempt = outboxEvent.getAttempts() + 1;
+                if (attempt < maxAttempts) {
+                    log.warn("Delivery of outbox event {} failed (attempt {} of {}), will retry",
+                            outboxEvent.getId(), attempt, maxAttempts, e);
+                    attemptTemplate.executeWithoutResult(s -> outboxEventRepository.incrementAttempts(outboxEvent.getId()));
+                    failed = true;
+                    break;
+                }
+                log.error("Delivery of outbox event {} failed {} times, parking it and moving on",
+                        outboxEvent.getId(), attempt, e);
+                attemptTemplate.executeWithoutResult(s -> outboxEventRepository.markFailed(outboxEvent.getId(), now));
+                parkedCounter.increment();
+                if (status.isRollbackOnly()) {
+                    failed = true;
+                    break;
+                }
+                continue;
+            }
+            deliveredIds.add(outboxEvent.getId());
+            deliveryLag.record(Duration.between(outboxEvent.getCreatedAt(), now).toMillis());
+        }
+        if (!deliveredIds.isEmpty()) {
+            outboxEventRepository.markDispatched(deliveredIds, now);
+            dispatchedCounter.increment(deliveredIds.size());
+        }
+        return failed ? -1 : batch.size();
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.petclinic.event;
+
+import com.example.petclinic.model.Appointment;
+import com.example.petclinic.model.OutboxEvent;
+import com.example.petclinic.purge.PurgedAppointment;
+import com.example.petclinic.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+
+/**
+ * Writes appointment events into the outbox table. Must be called inside the
+ * transaction that changes the appointment so both commit or roll back together.
+ */
+@Component
+public class OutboxPublisher {
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void appointmentCreated(Appointment appointment) {
+        publish(toEvent(AppointmentEventType.CREATED, appointment, null, null));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void appointmentRescheduled(Appointment appointment, Long previousDoctorId, LocalDateTime previousAppointmentTime) {
+        publish(toEvent(AppointmentEventType.RESCHEDULED, appointment, previousDoctorId, previousAppointmentTime));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void appointmentCancelled(Appointment appointment) {
+        publish(toEvent(AppointmentEventType.CANCELLED, appointment, null, null));
+    }
+
+    /**
+     * Appointments deleted in bulk by the account purge; consumers treat them as cancellations.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void appointmentPurged(PurgedAppointment appointment) {
+        publish(new AppointmentEvent(
+                AppointmentEventType.CANCELLED,
+                appointment.id(),
+                appointment.appointmentCode(),
+                appointment.petId(),
+                appointment.petName(),
+                appointment.ownerId(),
+                appointment.doctorId(),
+                appointment.appointmentTime(),
+                null,
+                null,
+                LocalDateTime.now()
+        ));
+    }
+
+    private AppointmentEvent toEvent(AppointmentEventType type, Appointment appointment,
+                                     Long previousDoctorId, LocalDateTime previousAppointmentTime) {
+        return new AppointmentEvent(
+                type,
+                appointment.getId(),
+                appointment.getAppointmentCode(),
+                appointment.getPet().getId(),
+                appointment.getPet().getName(),
+                appointment.getPet().getOwner() != null ? appointment.getPet().getOwner().getId() : null,
+                appointment.getDoctor().getDoctorId(),
+                appointment.getAppointmentTime(),
+                previousDoctorId,
+                previousAppointmentTime,
+                LocalDateTime.now()
+        );
+    }
+
+    private void publish(AppointmentEvent event) {
+        OutboxEvent outboxEvent = new OutboxEvent();
+        outboxEvent.setEventType(event.type().name());
+        outboxEvent.setAggregateId(event.appointmentId());
+        outboxEvent.setCreatedAt(event.occurredAt());
+        try {
+            outboxEvent.setPayload(objectMapper.writeValueAsString(event));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize appointment event", e);
+        }
+        outboxEventRepository.save(outboxEvent);
+    }
+}
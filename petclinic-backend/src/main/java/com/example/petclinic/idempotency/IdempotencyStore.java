@@ -0,0 +1,196 @@
+package com.example.petclinic.idempotency;
+
+import com.example.petclinic.model.IdempotencyRecord;
+import com.example.petclinic.repository.IdempotencyRecordRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Two-level store behind {@link IdempotencyFilter}.
+ *
+ * In process, the first request for a key registers a future; concurrent duplicates wait on
+ * it and get the same response without running the handler. Completed responses stay in a
+ * bounded map (oldest dropped first). The idempotency_records table is the fallback across
+ * restarts and instances: a key is claimed with a unique insert before the handler runs.
+ */
+@Component
+public class IdempotencyStore {
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyStore.class);
+
+    public enum Outcome { PROCEED, REPLAY, MISMATCH, IN_PROGRESS }
+
+    public record Acquisition(Outcome outcome, StoredResponse response) {}
+
+    private record Cached(StoredResponse response, long createdAtMillis) {}
+
+    private final IdempotencyRecordRepository repository;
+    private final TransactionTemplate requiresNew;
+    private final Map<String, CompletableFuture<StoredResponse>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, Cached> completed = new ConcurrentHashMap<>();
+    private final Queue<String> completionOrder = new ConcurrentLinkedQueue<>();
+
+    @Value("${petclinic.idempotency.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${petclinic.idempotency.ttl-hours:24}")
+    private long ttlHours;
+
+    @Value("${petclinic.idempotency.wait-timeout-ms:10000}")
+    private long waitTimeoutMs;
+
+    @Value("${petclinic.idempotency.pending-timeout-seconds:60}")
+    private long pendingTimeoutSeconds;
+
+    public IdempotencyStore(IdempotencyRecordRepository repository, PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Decides what to do with a request carrying the given key. After PROCEED the caller
+     * must call {@link #complete} or {@link #release} exactly once.
+     */
+    public Acquisition acquire(String keyHash, String requestHash) throws InterruptedException {
+        while (true) {
+            Cached cached = completed.get(keyHash);
+            if (cached != null && !isExpired(cached.createdAtMillis())) {
+                return replayOrMismatch(cached.response(), requestHash);
+            }
+            CompletableFuture<StoredResponse> mine = new CompletableFuture<>();
+            CompletableFuture<StoredResponse> existing = inFlight.putIfAbsent(keyHash, mine);
+            if (existing != null) {
+                StoredResponse response;
+                try {
+                    response = existing.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+                } catch (TimeoutException | ExecutionException e) {
+                    return new Acquisition(Outcome.IN_PROGRESS, null);
+                }
+                if (response != null) {
+                    return replayOrMismatch(response, requestHash);
+                }
+                // the first attempt was released (5xx or exception); try to take the key
+                continue;
+            }
+            try {
+                return claim(keyHash, requestHash, mine);
+            } catch (RuntimeException e) {
+                inFlight.remove(keyHash, mine);
+                mine.complete(null);
+                throw e;
+            }
+        }
+    }
+
+    public void complete(String keyHash, StoredResponse response) {
+        try {
+            requiresNew.executeWithoutResult(status -> repository.complete(
+                    keyHash, response.status(), response.contentType(), response.body()));
+        } catch (RuntimeException e) {
+            log.warn("Could not persist idempotent response; it is kept in memory only", e);
+        }
+        remember(keyHash, response);
+        CompletableFuture<StoredResponse> future = inFlight.remove(keyHash);
+        if (future != null) {
+            future.complete(response);
+        }
+    }
+
+    public void release(String keyHash) {
+        try {
+            requiresNew.executeWithoutResult(status -> repository.deletePending(keyHash));
+        } catch (RuntimeException e) {
+            log.warn("Could not release idempotency key; it frees up after the pending timeout", e);
+        }
+        CompletableFuture<StoredResponse> future = inFlight.remove(keyHash);
+        if (future != null) {
+            future.complete(null);
+        }
+    }
+
+    @Scheduled(cron = "${petclinic.idempotency.purge-cron:0 30 * * * *}")
+    public void purgeExpired() {
+        completed.entrySet().removeIf(e -> isExpired(e.getValue().createdAtMillis()));
+        completionOrder.removeIf(key -> !completed.containsKey(key));
+        requiresNew.executeWithoutResult(status ->
+                repository.deleteCreatedBefore(LocalDateTime.now().minusHours(ttlHours)));
+    }
+
+    private Acquisition claim(String keyHash, String requestHash, CompletableFuture<StoredResponse> mine) {
+        Optional<IdempotencyRecord> stored = repository.findByKeyHash(keyHash);
+        if (stored.isPresent()) {
+            IdempotencyRecord record = stored.get();
+            if (record.getStatus() != null) {
+                StoredResponse response = new StoredResponse(record.getRequestHash(), record.getStatus(),
+                        record.getContentType(), record.getBody());
+                remember(keyHash, response);
+                inFlight.remove(keyHash, mine);
+                mine.complete(response);
+                return replayOrMismatch(response, requestHash);
+            }
+            if (record.getCreatedAt().isAfter(LocalDateTime.now().minusSeconds(pendingTimeoutSeconds))) {
+                // claimed by another instance that is still working on it
+                inFlight.remove(keyHash, mine);
+                mine.complete(null);
+                return new Acquisition(Outcome.IN_PROGRESS, null);
+            }
+            // abandoned claim (instance died mid-request)
+            requiresNew.executeWithoutResult(status -> repository.deletePending(keyHash));
+        }
+        try {
+            requiresNew.executeWithoutResult(status -> {
+                IdempotencyRecord record = new IdempotencyRecord();
+                record.setKeyHash(keyHash);
+                record.setRequestHash(requestHash);
+                record.setCreatedAt(LocalDateTime.now());
+                repository.saveAndFlush(record);
+            });
+        } catch (DataIntegrityViolationException e) {
+            inFlight.remove(keyHash, mine);
+            mine.complete(null);
+            return new Acquisition(Outcome.IN_PROGRESS, null);
+        }
+        return new Acquisition(Outcome.PROCEED, null);
+    }
+
+    private Acquisition replayOrMismatch(StoredResponse response, String requestHash) {
+        return response.requestHash().equals(requestHash)
+                ? new Acquisition(Outcome.REPLAY, response)
+                : new Acquisition(Outcome.MISMATCH, null);
+    }
+
+    private void remember(String keyHash, StoredResponse response) {
+        if (completed.put(keyHash, new Cached(response, System.currentTimeMillis())) == null) {
+            completionOrder.add(keyHash);
+        }
+        while (completed.size() > maxEntries) {
+            String oldest = completionOrder.poll();
+            if (oldest == null) {
+                break;
+            }
+            completed.remove(oldest);
+        }
+    }
+
+    private boolean isExpired(long createdAtMillis) {
+        return System.currentTimeMillis() - createdAtMillis > TimeUnit.HOURS.toMillis(ttlHours);
+    }
+}
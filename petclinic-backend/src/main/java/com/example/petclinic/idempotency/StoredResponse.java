@@ -0,0 +1,6 @@
+package com.example.petclinic.idempotency;
+
+/**
+ * A completed response kept for replay, with the hash of the request that produced it.
+ */
+public record StoredResponse(String requestHash, int status, String contentType, byte[] body) {}
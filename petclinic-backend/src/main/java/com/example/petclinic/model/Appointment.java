@@ -1,10 +1,19 @@
 package com.example.petclinic.model;
 
+import com.example.petclinic.sync.ChangeSequenceListener;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "appointments")
+@Table(name = "appointments", uniqueConstraints = {
+        // one booking per doctor per slot; also serves the doctor agenda range scans
+        @UniqueConstraint(name = "uk_appointment_doctor_time", columnNames = {"doctor_id", "appointment_time"})
+}, indexes = {
+        @Index(name = "idx_appointment_time", columnList = "appointment_time"),
+        @Index(name = "idx_appointment_pet_seq", columnList = "pet_id, change_seq"),
+        @Index(name = "idx_appointment_doctor_seq", columnList = "doctor_id, change_seq")
+})
+@EntityListeners(ChangeSequenceListener.class)
 public class Appointment {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -30,6 +39,13 @@ public class Appointment {
     @OneToOne(mappedBy = "appointment", cascade = CascadeType.ALL, orphanRemoval = true)
     private MedicalRecord medicalRecord;
 
+    @Column(name = "change_seq")
+    private Long changeSeq;
+
+    // Doctor as loaded from the database, so a reassignment can tombstone the previous doctor's copy
+    @Transient
+    private Long loadedDoctorId;
+
     // Getters and setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -45,4 +61,8 @@ public class Appointment {
     public void setDoctor(Doctor doctor) { this.doctor = doctor; }
     public MedicalRecord getMedicalRecord() { return medicalRecord; }
     public void setMedicalRecord(MedicalRecord medicalRecord) { this.medicalRecord = medicalRecord; }
+    public Long getChangeSeq() { return changeSeq; }
+    public void setChangeSeq(Long changeSeq) { this.changeSeq = changeSeq; }
+    public Long getLoadedDoctorId() { return loadedDoctorId; }
+    public void setLoadedDoctorId(Long loadedDoctorId) { this.loadedDoctorId = loadedDoctorId; }
 }
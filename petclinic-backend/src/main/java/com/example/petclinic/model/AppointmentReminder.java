@@ -0,0 +1,37 @@
+package com.example.petclinic.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Marks a reminder as sent so restarts (or a second instance) never send it again.
+ * appointmentId is deliberately not a foreign key: cancelled appointments are deleted.
+ */
+@Entity
+@Table(name = "appointment_reminders", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_reminder_appointment_lead", columnNames = {"appointment_id", "lead_minutes"})
+})
+public class AppointmentReminder {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "appointment_id", nullable = false)
+    private Long appointmentId;
+
+    @Column(name = "lead_minutes", nullable = false)
+    private long leadMinutes;
+
+    @Column(nullable = false)
+    private LocalDateTime sentAt;
+
+    // Getters and setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public Long getAppointmentId() { return appointmentId; }
+    public void setAppointmentId(Long appointmentId) { this.appointmentId = appointmentId; }
+    public long getLeadMinutes() { return leadMinutes; }
+    public void setLeadMinutes(long leadMinutes) { this.leadMinutes = leadMinutes; }
+    public LocalDateTime getSentAt() { return sentAt; }
+    public void setSentAt(LocalDateTime sentAt) { this.sentAt = sentAt; }
+}
@@ -0,0 +1,53 @@
+package com.example.petclinic.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Cold copy of an appointment moved out of the hot appointments table.
+ * Keeps the original id; pet and doctor are plain ids so the archive has no foreign keys
+ * (which also allows MySQL range partitioning on appointment_time, see init-db.sql).
+ */
+@Entity
+@Table(name = "appointments_archive", indexes = {
+        @Index(name = "idx_archive_doctor_time", columnList = "doctor_id, appointment_time"),
+        @Index(name = "idx_archive_pet_time", columnList = "pet_id, appointment_time")
+})
+public class ArchivedAppointment {
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private String appointmentCode;
+
+    @Column(nullable = false)
+    private LocalDateTime appointmentTime;
+
+    @Column(nullable = false)
+    private String status;
+
+    @Column(name = "pet_id")
+    private Long petId;
+
+    @Column(name = "doctor_id")
+    private Long doctorId;
+
+    @Column(nullable = false)
+    private LocalDateTime archivedAt;
+
+    // Getters and setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getAppointmentCode() { return appointmentCode; }
+    public void setAppointmentCode(String appointmentCode) { this.appointmentCode = appointmentCode; }
+    public LocalDateTime getAppointmentTime() { return appointmentTime; }
+    public void setAppointmentTime(LocalDateTime appointmentTime) { this.appointmentTime = appointmentTime; }
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+    public Long getPetId() { return petId; }
+    public void setPetId(Long petId) { this.petId = petId; }
+    public Long getDoctorId() { return doctorId; }
+    public void setDoctorId(Long doctorId) { this.doctorId = doctorId; }
+    public LocalDateTime getArchivedAt() { return archivedAt; }
+    public void setArchivedAt(LocalDateTime archivedAt) { this.archivedAt = archivedAt; }
+}
@@ -0,0 +1,43 @@
+package com.example.petclinic.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+
+/**
+ * Daily rollup per doctor, keyed by the appointment's calendar day.
+ * scheduled is the net number of live appointments; cancelled counts cancellations for that day.
+ * doctorId is not a foreign key so rollups survive doctor removal.
+ */
+@Entity
+@Table(name = "analytics_doctor_daily", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_doctor_daily", columnNames = {"stat_date", "doctor_id"})
+})
+public class DoctorDailyStats {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "stat_date", nullable = false)
+    private LocalDate statDate;
+
+    @Column(name = "doctor_id", nullable = false)
+    private Long doctorId;
+
+    @Column(nullable = false)
+    private long scheduled;
+
+    @Column(nullable = false)
+    private long cancelled;
+
+    // Getters and setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public LocalDate getStatDate() { return statDate; }
+    public void setStatDate(LocalDate statDate) { this.statDate = statDate; }
+    public Long getDoctorId() { return doctorId; }
+    public void setDoctorId(Long doctorId) { this.doctorId = doctorId; }
+    public long getScheduled() { return scheduled; }
+    public void setScheduled(long scheduled) { this.scheduled = scheduled; }
+    public long getCancelled() { return cancelled; }
+    public void setCancelled(long cancelled) { this.cancelled = cancelled; }
+}
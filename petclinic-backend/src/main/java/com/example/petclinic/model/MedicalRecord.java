@@ -1,10 +1,14 @@
 package com.example.petclinic.model;
 
+import com.example.petclinic.sync.ChangeSequenceListener;
 import jakarta.persistence.*;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "medical_records")
+@Table(name = "medical_records", indexes = {
+        @Index(name = "idx_record_pet_seq", columnList = "pet_id, change_seq")
+})
+@EntityListeners(ChangeSequenceListener.class)
 public class MedicalRecord {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -27,6 +31,12 @@ public class MedicalRecord {
     @JoinColumn(name = "appointment_id")
     private Appointment appointment;
 
+    // Set when the appointment has been moved to appointments_archive
+    private Long archivedAppointmentId;
+
+    @Column(name = "change_seq")
+    private Long changeSeq;
+
     // Getters and setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -40,4 +50,9 @@ public class MedicalRecord {
     public void setPet(Pet pet) { this.pet = pet; }
     public Appointment getAppointment() { return appointment; }
     public void setAppointment(Appointment appointment) { this.appointment = appointment; }
+    public Long getArchivedAppointmentId() { return archivedAppointmentId; }
+    public void setArchivedAppointmentId(Long archivedAppointmentId) { this.archivedAppointmentId = archivedAppointmentId; }
+    public Long getChangeSeq() { return changeSeq; }
+    public void setChangeSeq(Long changeSeq) { this.changeSeq = changeSeq; }
+    public Long getAppointmentId() { return appointment != null ? appointment.getId() : archivedAppointmentId; }
 }
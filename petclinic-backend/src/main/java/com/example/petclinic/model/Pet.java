@@ -1,11 +1,16 @@
 package com.example.petclinic.model;
 
+import com.example.petclinic.search.PatientIndexListener;
+import com.example.petclinic.sync.ChangeSequenceListener;
 import jakarta.persistence.*;
 import java.time.LocalDate;
 import java.util.List;
 
 @Entity
-@Table(name = "pets")
+@Table(name = "pets", indexes = {
+        @Index(name = "idx_pet_owner_seq", columnList = "owner_id, change_seq")
+})
+@EntityListeners({ChangeSequenceListener.class, PatientIndexListener.class})
 public class Pet {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -30,6 +35,9 @@ public class Pet {
     @OneToMany(mappedBy = "pet", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Appointment> appointments;
 
+    @Column(name = "change_seq")
+    private Long changeSeq;
+
     @OneToMany(mappedBy = "pet", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<MedicalRecord> medicalRecords;
 
@@ -50,4 +58,6 @@ public class Pet {
     public void setAppointments(List<Appointment> appointments) { this.appointments = appointments; }
     public List<MedicalRecord> getMedicalRecords() { return medicalRecords; }
     public void setMedicalRecords(List<MedicalRecord> medicalRecords) { this.medicalRecords = medicalRecords; }
+    public Long getChangeSeq() { return changeSeq; }
+    public void setChangeSeq(Long changeSeq) { this.changeSeq = changeSeq; }
 }
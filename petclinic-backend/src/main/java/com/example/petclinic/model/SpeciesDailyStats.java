@@ -0,0 +1,36 @@
+package com.example.petclinic.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+
+/**
+ * Daily rollup of medical record visits per species, keyed by visit date.
+ */
+@Entity
+@Table(name = "analytics_species_daily", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_species_daily", columnNames = {"stat_date", "species"})
+})
+public class SpeciesDailyStats {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "stat_date", nullable = false)
+    private LocalDate statDate;
+
+    @Column(nullable = false)
+    private String species;
+
+    @Column(nullable = false)
+    private long visits;
+
+    // Getters and setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public LocalDate getStatDate() { return statDate; }
+    public void setStatDate(LocalDate statDate) { this.statDate = statDate; }
+    public String getSpecies() { return species; }
+    public void setSpecies(String species) { this.species = species; }
+    public long getVisits() { return visits; }
+    public void setVisits(long visits) { this.visits = visits; }
+}
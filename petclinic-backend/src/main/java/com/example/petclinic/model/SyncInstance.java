@@ -0,0 +1,37 @@
+package com.example.petclinic.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * One row per running application instance (see ChangeSequence). lowWater is the lowest
+ * change-sequence value the instance may still commit, or null when it has nothing in flight;
+ * generation is bumped by every block reservation so a stale publish cannot overwrite a newer one.
+ * Rows whose heartbeat is older than the instance timeout belong to dead instances and are ignored.
+ */
+@Entity
+@Table(name = "sync_instances")
+public class SyncInstance {
+    @Id
+    @Column(name = "instance_id", length = 36)
+    private String instanceId;
+
+    @Column(name = "low_water")
+    private Long lowWater;
+
+    @Column(nullable = false)
+    private long generation;
+
+    @Column(name = "heartbeat_at", nullable = false)
+    private LocalDateTime heartbeatAt;
+
+    // Getters and setters
+    public String getInstanceId() { return instanceId; }
+    public void setInstanceId(String instanceId) { this.instanceId = instanceId; }
+    public Long getLowWater() { return lowWater; }
+    public void setLowWater(Long lowWater) { this.lowWater = lowWater; }
+    public long getGeneration() { return generation; }
+    public void setGeneration(long generation) { this.generation = generation; }
+    public LocalDateTime getHeartbeatAt() { return heartbeatAt; }
+    public void setHeartbeatAt(LocalDateTime heartbeatAt) { this.heartbeatAt = heartbeatAt; }
+}
@@ -0,0 +1,32 @@
+package com.example.petclinic.model;
+
+import jakarta.persistence.*;
+
+/**
+ * Single-row counter behind the delta-sync change sequence (see ChangeSequence); currentValue
+ * is the end of the last block of values reserved, not the last value written.
+ * purgedThrough is the highest tombstone sequence already deleted: tokens below it
+ * can no longer be served incrementally.
+ */
+@Entity
+@Table(name = "sync_sequence")
+public class SyncSequence {
+    public static final long ROW_ID = 1L;
+
+    @Id
+    private Long id;
+
+    @Column(name = "current_value", nullable = false)
+    private long currentValue;
+
+    @Column(name = "purged_through", nullable = false)
+    private long purgedThrough;
+
+    // Getters and setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public long getCurrentValue() { return currentValue; }
+    public void setCurrentValue(long currentValue) { this.currentValue = currentValue; }
+    public long getPurgedThrough() { return purgedThrough; }
+    public void setPurgedThrough(long purgedThrough) { this.purgedThrough = purgedThrough; }
+}
@@ -1,10 +1,12 @@
 package com.example.petclinic.model;
 
+import com.example.petclinic.search.PatientIndexListener;
 import jakarta.persistence.*;
 import java.util.List;
 
 @Entity
 @Table(name = "users")
+@EntityListeners(PatientIndexListener.class)
 public class User {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
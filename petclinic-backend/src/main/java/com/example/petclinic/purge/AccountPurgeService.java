@@ -0,0 +1,241 @@
+package com.example.petclinic.purge;
+
+import com.example.petclinic.event.OutboxPublisher;
+import com.example.petclinic.model.Doctor;
+import com.example.petclinic.repository.AppointmentReminderRepository;
+import com.example.petclinic.repository.AppointmentRepository;
+import com.example.petclinic.repository.ArchivedAppointmentRepository;
+import com.example.petclinic.repository.DoctorRepository;
+import com.example.petclinic.repository.MedicalRecordAttachmentRepository;
+import com.example.petclinic.repository.MedicalRecordRepository;
+import com.example.petclinic.repository.PetRepository;
+import com.example.petclinic.repository.SyncTombstoneRepository;
+import com.example.petclinic.repository.UserRepository;
+import com.example.petclinic.search.PatientIndex;
+import com.example.petclinic.service.PetService;
+import com.example.petclinic.sync.ChangeSequence;
+import com.example.petclinic.sync.ChangeSequenceListener;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Deletes an account and everything below it (GDPR erasure, test-data cleanup) bottom-up with
+ * bulk statements instead of the CascadeType.ALL collections, one short transaction per batch,
+ * so only one batch of ids is in memory and an interrupted purge simply resumes when restarted.
+ * Purges run one at a time on a background thread and report progress through {@link PurgeJob}.
+ *
+ * A doctor's appointments, live and archived, go as with the cascade, but their medical records
+ * stay with the pet.
+ * Deleted appointments are published as cancellations and tombstoned for the other party.
+ * Attachment rows go with their records; the files are left to the attachment sweep.
+ */
+@Service
+public class AccountPurgeService {
+    private static final Logger log = LoggerFactory.getLogger(AccountPurgeService.class);
+
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private DoctorRepository doctorRepository;
+    @Autowired
+    private PetRepository petRepository;
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+    @Autowired
+    private AppointmentReminderRepository appointmentReminderRepository;
+    @Autowired
+    private MedicalRecordRepository medicalRecordRepository;
+    @Autowired
+    private MedicalRecordAttachmentRepository attachmentRepository;
+    @Autowired
+    private ArchivedAppointmentRepository archivedAppointmentRepository;
+    @Autowired
+    private SyncTombstoneRepository syncTombstoneRepository;
+    @Autowired
+    private ChangeSequence changeSequence;
+    @Autowired
+    private OutboxPublisher outboxPublisher;
+    @Autowired
+    private PatientIndex patientIndex;
+    @Autowired
+    private PetService petService;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${petclinic.purge.batch-size:500}")
+    private int batchSize;
+
+    @Value("${petclinic.purge.job-retention-hours:24}")
+    private long jobRetentionHours;
+
+    private final Map<String, PurgeJob> jobs = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "account-purge");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Queues a purge of the user, or returns the one already queued or running for them.
+     */
+    public PurgeJob startPurge(Long userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found");
+        }
+        synchronized (jobs) {
+            LocalDateTime expired = LocalDateTime.now().minusHours(jobRetentionHours);
+            jobs.values().removeIf(job -> job.isFinished() && job.getFinishedAt().isBefore(expired));
+            Optional<PurgeJob> active = jobs.values().stream()
+                    .filter(job -> job.getUserId().equals(userId) && !job.isFinished())
+                    .findFirst();
+            if (active.isPresent()) {
+                return active.get();
+            }
+            PurgeJob job = new PurgeJob(userId);
+            jobs.put(job.getId(), job);
+            executor.execute(() -> run(job));
+            return job;
+        }
+    }
+
+    public Optional<PurgeJob> getJob(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    void run(PurgeJob job) {
+        try {
+            purge(job);
+            job.complete();
+            log.info("Purged user {}: {}", job.getUserId(), job.toDTO());
+        } catch (RuntimeException e) {
+            log.error("Purge of user {} failed", job.getUserId(), e);
+            job.fail(e.getMessage());
+        }
+    }
+
+    private void purge(PurgeJob job) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        Long userId = job.getUserId();
+        Long doctorId = doctorRepository.findByUserId(userId).map(Doctor::getDoctorId).orElse(null);
+
+        if (doctorId != null) {
+            job.enter(PurgeJob.Phase.DOCTOR_APPOINTMENTS);
+            inBatches(transactionTemplate, () -> {
+                List<PurgedAppointment> batch = appointmentRepository.findPurgeBatchForDoctor(doctorId, firstBatch());
+                if (!batch.isEmpty()) {
+                    List<Long> ids = batch.stream().map(PurgedAppointment::id).toList();
+                    medicalRecordRepository.unlinkFromAppointments(ids, changeSequence.next());
+                    deleteAppointments(job, batch, ids, true);
+                }
+                return batch.size();
+            });
+            // doctor_id in the archive has no foreign key, so nothing else would catch these
+            inBatches(transactionTemplate, () -> {
+                List<Long> ids = archivedAppointmentRepository.findIdsByDoctorId(doctorId, firstBatch());
+                if (!ids.isEmpty()) {
+                    archivedAppointmentRepository.deleteAllByIdInBatch(ids);
+                }
+                return ids.size();
+            });
+        }
+
+        job.enter(PurgeJob.Phase.APPOINTMENTS);
+        inBatches(transactionTemplate, () -> {
+            List<PurgedAppointment> batch = appointmentRepository.findPurgeBatchForOwner(userId, firstBatch());
+            if (!batch.isEmpty()) {
+                List<Long> ids = batch.stream().map(PurgedAppointment::id).toList();
+                attachmentRepository.deleteForAppointments(ids);
+                job.addMedicalRecords(medicalRecordRepository.deleteForAppointments(ids));
+                deleteAppointments(job, batch, ids, false);
+            }
+            return batch.size();
+        });
+
+        job.enter(PurgeJob.Phase.MEDICAL_RECORDS);
+        inBatches(transactionTemplate, () -> {
+            List<Long> ids = medicalRecordRepository.findIdsByOwnerId(userId, firstBatch());
+            if (!ids.isEmpty()) {
+                attachmentRepository.deleteForRecords(ids);
+                medicalRecordRepository.deleteAllByIdInBatch(ids);
+                job.addMedicalRecords(ids.size());
+            }
+            return ids.size();
+        });
+
+        job.enter(PurgeJob.Phase.PETS);
+        inBatches(transactionTemplate, () -> {
+            List<Long> ids = petRepository.findIdsByOwnerId(userId, firstBatch());
+            if (!ids.isEmpty()) {
+                archivedAppointmentRepository.deleteForPets(ids);
+                petRepository.deleteAllByIdInBatch(ids);
+                job.addPets(ids.size());
+            }
+            return ids.size();
+        });
+        petService.petsChanged();
+
+        job.enter(PurgeJob.Phase.ACCOUNT);
+        transactionTemplate.executeWithoutResult(status -> {
+            syncTombstoneRepository.deleteForOwnerOrDoctor(userId, doctorId);
+            if (doctorId != null) {
+                doctorRepository.deleteAllByIdInBatch(List.of(doctorId));
+            }
+            userRepository.deleteAllByIdInBatch(List.of(userId));
+        });
+        // the bulk deletes bypass the entity listener that keeps the search index current
+        patientIndex.ownerRemoved(userId);
+    }
+
+    /**
+     * The caller has already deleted or unlinked the medical records. Tombstones only go to the
+     * side that survives: the owners when a doctor is purged, the doctors when an owner is.
+     */
+    private void deleteAppointments(PurgeJob job, List<PurgedAppointment> batch, List<Long> ids, boolean doctorPurged) {
+        appointmentReminderRepository.deleteByAppointmentIds(ids);
+        batch.forEach(outboxPublisher::appointmentPurged);
+        changeSequence.recordTombstones(ChangeSequenceListener.APPOINTMENT, batch.stream()
+                .map(a -> doctorPurged
+                        ? new ChangeSequence.Removal(a.id(), a.ownerId(), null)
+                        : new ChangeSequence.Removal(a.id(), null, a.doctorId()))
+                .toList());
+        appointmentRepository.deleteAllByIdInBatch(ids);
+        job.addAppointments(ids.size());
+    }
+
+    /**
+     * Runs the step in its own transaction until it handles less than a full batch.
+     */
+    private void inBatches(TransactionTemplate transactionTemplate, Supplier<Integer> step) {
+        int handled;
+        do {
+            handled = transactionTemplate.execute(status -> step.get());
+        } while (handled >= batchSize);
+    }
+
+    private PageRequest firstBatch() {
+        return PageRequest.of(0, batchSize);
+    }
+}
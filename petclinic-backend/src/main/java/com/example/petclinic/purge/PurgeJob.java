@@ -0,0 +1,66 @@
+package com.example.petclinic.purge;
+
+import com.example.petclinic.dto.PurgeJobDTO;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Mutable progress of one account purge, written by the purge thread and read by status requests.
+ */
+public class PurgeJob {
+    public enum State { QUEUED, RUNNING, COMPLETED, FAILED }
+
+    public enum Phase { DOCTOR_APPOINTMENTS, APPOINTMENTS, MEDICAL_RECORDS, PETS, ACCOUNT }
+
+    private final String id = UUID.randomUUID().toString();
+    private final Long userId;
+    private final LocalDateTime startedAt = LocalDateTime.now();
+    private final AtomicInteger appointmentsDeleted = new AtomicInteger();
+    private final AtomicInteger medicalRecordsDeleted = new AtomicInteger();
+    private final AtomicInteger petsDeleted = new AtomicInteger();
+    private volatile State state = State.QUEUED;
+    private volatile Phase phase;
+    private volatile LocalDateTime finishedAt;
+    private volatile String error;
+
+    PurgeJob(Long userId) {
+        this.userId = userId;
+    }
+
+    public String getId() { return id; }
+    public Long getUserId() { return userId; }
+    public State getState() { return state; }
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+
+    public boolean isFinished() {
+        return state == State.COMPLETED || state == State.FAILED;
+    }
+
+    void enter(Phase phase) {
+        this.state = State.RUNNING;
+        this.phase = phase;
+    }
+
+    void addAppointments(int count) { appointmentsDeleted.addAndGet(count); }
+    void addMedicalRecords(int count) { medicalRecordsDeleted.addAndGet(count); }
+    void addPets(int count) { petsDeleted.addAndGet(count); }
+
+    void complete() {
+        finishedAt = LocalDateTime.now();
+        state = State.COMPLETED;
+    }
+
+    void fail(String message) {
+        error = message;
+        finishedAt = LocalDateTime.now();
+        state = State.FAILED;
+    }
+
+    public PurgeJobDTO toDTO() {
+        return new PurgeJobDTO(id, userId, state.name(), phase != null ? phase.name() : null,
+                appointmentsDeleted.get(), medicalRecordsDeleted.get(), petsDeleted.get(),
+                startedAt, finishedAt, error);
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.petclinic.purge;
+
+import java.time.LocalDateTime;
+
+/**
+ * Flat view of an appointment about to be purged: enough for its outbox event and tombstone.
+ */
+public record PurgedAppointment(
+    Long id,
+    String appointmentCode,
+    LocalDateTime appointmentTime,
+    Long petId,
+    String petName,
+    Long ownerId,
+    Long doctorId
+) {}
@@ -0,0 +1,80 @@
+package com.example.petclinic.ratelimit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Admission control per route policy, keyed by user (after JWT authentication) or client address.
+ * Rejected requests get 429 with Retry-After and never reach BCrypt or the database.
+ */
+@Component
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class RateLimitFilter extends OncePerRequestFilter {
+    private final RateLimitProperties properties;
+    private final List<RateLimiter> limiters;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    public RateLimitFilter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.limiters = properties.getPolicies().stream()
+                .map(policy -> new RateLimiter(policy, properties.getMaxBuckets(), meterRegistry))
+                .toList();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RateLimiter limiter = properties.isEnabled() ? match(request) : null;
+        if (limiter != null) {
+            long waitNanos = limiter.tryAcquire(keyFor(limiter.policy(), request), System.nanoTime());
+            if (waitNanos > 0) {
+                long retryAfterSeconds = Math.max(1, (waitNanos + 999_999_999L) / 1_000_000_000L);
+                response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+                response.setHeader("Retry-After", Long.toString(retryAfterSeconds));
+                response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                response.getWriter().write("{\"status\":429,\"error\":\"Too Many Requests\",\"retryAfterSeconds\":"
+                        + retryAfterSeconds + "}");
+                return;
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private RateLimiter match(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (RateLimiter limiter : limiters) {
+            RateLimitProperties.Policy policy = limiter.policy();
+            if ((policy.getMethod() == null || policy.getMethod().equalsIgnoreCase(request.getMethod()))
+                    && pathMatcher.match(policy.getPath(), path)) {
+                return limiter;
+            }
+        }
+        return null;
+    }
+
+    private String keyFor(RateLimitProperties.Policy policy, HttpServletRequest request) {
+        if (policy.getKey() == RateLimitProperties.KeyType.USER) {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication != null && authentication.isAuthenticated()
+                    && !(authentication instanceof AnonymousAuthenticationToken)) {
+                return "user:" + authentication.getName();
+            }
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+}
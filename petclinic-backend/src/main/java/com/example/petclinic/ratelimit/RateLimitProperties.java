@@ -0,0 +1,48 @@
+package com.example.petclinic.ratelimit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import java.util.ArrayList;
+import java.util.List;
+
+@ConfigurationProperties(prefix = "petclinic.rate-limit")
+public class RateLimitProperties {
+    private boolean enabled = true;
+    /** Upper bound on live buckets per policy; idle buckets are evicted beyond it. */
+    private int maxBuckets = 10_000;
+    /** Checked in order, first match wins. */
+    private List<Policy> policies = new ArrayList<>();
+
+    public enum KeyType { USER, IP }
+
+    public static class Policy {
+        private String name;
+        /** HTTP method, or null for any. */
+        private String method;
+        /** Ant-style path pattern, e.g. /api/appointments/** */
+        private String path;
+        private int capacity;
+        private int refillPerMinute;
+        /** USER falls back to the client address for unauthenticated requests. */
+        private KeyType key = KeyType.USER;
+
+        public String getName() { return name; }
+        public void setName(String name) { this.name = name; }
+        public String getMethod() { return method; }
+        public void setMethod(String method) { this.method = method; }
+        public String getPath() { return path; }
+        public void setPath(String path) { this.path = path; }
+        public int getCapacity() { return capacity; }
+        public void setCapacity(int capacity) { this.capacity = capacity; }
+        public int getRefillPerMinute() { return refillPerMinute; }
+        public void setRefillPerMinute(int refillPerMinute) { this.refillPerMinute = refillPerMinute; }
+        public KeyType getKey() { return key; }
+        public void setKey(KeyType key) { this.key = key; }
+    }
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+    public int getMaxBuckets() { return maxBuckets; }
+    public void setMaxBuckets(int maxBuckets) { this.maxBuckets = maxBuckets; }
+    public List<Policy> getPolicies() { return policies; }
+    public void setPolicies(List<Policy> policies) { this.policies = policies; }
+}
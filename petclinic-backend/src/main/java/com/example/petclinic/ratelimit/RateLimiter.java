@@ -0,0 +1,86 @@
+package com.example.petclinic.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The buckets of one policy, keyed by user or client address. Bounded: once the map
+ * grows past maxBuckets a single thread sweeps it, dropping full (idle) buckets first
+ * and then the least recently used ones.
+ */
+public class RateLimiter {
+    private final RateLimitProperties.Policy policy;
+    private final int maxBuckets;
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+    private final Counter allowed;
+    private final Counter rejected;
+    private final Counter evicted;
+
+    public RateLimiter(RateLimitProperties.Policy policy, int maxBuckets, MeterRegistry meterRegistry) {
+        this.policy = policy;
+        this.maxBuckets = maxBuckets;
+        this.allowed = Counter.builder("petclinic.ratelimit.requests")
+                .tag("policy", policy.getName()).tag("outcome", "allowed").register(meterRegistry);
+        this.rejected = Counter.builder("petclinic.ratelimit.requests")
+                .tag("policy", policy.getName()).tag("outcome", "rejected").register(meterRegistry);
+        this.evicted = Counter.builder("petclinic.ratelimit.evictions")
+                .tag("policy", policy.getName()).register(meterRegistry);
+        Gauge.builder("petclinic.ratelimit.buckets", buckets, Map::size)
+                .tag("policy", policy.getName()).register(meterRegistry);
+    }
+
+    /**
+     * @return 0 if the request may proceed, otherwise nanoseconds until it may be retried
+     */
+    public long tryAcquire(String key, long nowNanos) {
+        TokenBucket bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = buckets.computeIfAbsent(key,
+                    k -> new TokenBucket(policy.getCapacity(), policy.getRefillPerMinute(), nowNanos));
+            if (buckets.size() > maxBuckets) {
+                evict(nowNanos);
+            }
+        }
+        long waitNanos = bucket.tryAcquire(nowNanos);
+        (waitNanos == 0 ? allowed : rejected).increment();
+        return waitNanos;
+    }
+
+    public RateLimitProperties.Policy policy() {
+        return policy;
+    }
+
+    int size() {
+        return buckets.size();
+    }
+
+    private void evict(long nowNanos) {
+        if (!sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            int before = buckets.size();
+            buckets.values().removeIf(bucket -> bucket.isFull(nowNanos));
+            int target = maxBuckets - maxBuckets / 10;
+            if (buckets.size() > target) {
+                List<Map.Entry<String, TokenBucket>> entries = new ArrayList<>(buckets.entrySet());
+                entries.sort(Comparator.comparingLong(e -> e.getValue().lastAccessNanos()));
+                for (int i = 0; i < entries.size() && buckets.size() > target; i++) {
+                    buckets.remove(entries.get(i).getKey(), entries.get(i).getValue());
+                }
+            }
+            evicted.increment(before - buckets.size());
+        } finally {
+            sweeping.set(false);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.petclinic.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket in its GCRA form: instead of a token count plus a refill
+ * timestamp, the whole state is one "theoretical arrival time" (TAT) updated by CAS.
+ * A request is admitted if, after charging one emission interval, the TAT is no more
+ * than the burst window ahead of now. Times are in nanoseconds from System.nanoTime().
+ */
+public class TokenBucket {
+    private final long emissionIntervalNanos;
+    private final long burstWindowNanos;
+    private final AtomicLong theoreticalArrival;
+    private volatile long lastAccessNanos;
+
+    /**
+     * @param capacity        maximum burst size
+     * @param refillPerMinute sustained rate
+     */
+    public TokenBucket(int capacity, int refillPerMinute, long nowNanos) {
+        this.emissionIntervalNanos = 60_000_000_000L / refillPerMinute;
+        this.burstWindowNanos = emissionIntervalNanos * capacity;
+        this.theoreticalArrival = new AtomicLong(nowNanos);
+        this.lastAccessNanos = nowNanos;
+    }
+
+    /**
+     * @return 0 if a token was taken, otherwise the nanoseconds until one becomes available
+     */
+    public long tryAcquire(long nowNanos) {
+        lastAccessNanos = nowNanos;
+        while (true) {
+            long tat = theoreticalArrival.get();
+            long newTat = Math.max(tat, nowNanos) + emissionIntervalNanos;
+            long waitNanos = newTat - nowNanos - burstWindowNanos;
+            if (waitNanos > 0) {
+                return waitNanos;
+            }
+            if (theoreticalArrival.compareAndSet(tat, newTat)) {
+                return 0;
+            }
+        }
+    }
+
+    /** A full bucket carries no state, so dropping it is indistinguishable from keeping it. */
+    public boolean isFull(long nowNanos) {
+        return theoreticalArrival.get() <= nowNanos;
+    }
+
+    public long lastAccessNanos() {
+        return lastAccessNanos;
+    }
+}
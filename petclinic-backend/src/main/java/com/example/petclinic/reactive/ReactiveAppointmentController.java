@@ -0,0 +1,53 @@
+package com.example.petclinic.reactive;
+
+import com.example.petclinic.dto.AppointmentDTO;
+import com.example.petclinic.security.ClinicUserDetails;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@RestController
+@RequestMapping("/api/appointments")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveAppointmentController {
+    private final ReactiveReadRepository readRepository;
+
+    @Value("${petclinic.agenda.default-window-days:365}")
+    private long agendaWindowDays;
+
+    public ReactiveAppointmentController(ReactiveReadRepository readRepository) {
+        this.readRepository = readRepository;
+    }
+
+    @GetMapping
+    public Flux<AppointmentDTO> getAppointments(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String status,
+            @AuthenticationPrincipal ClinicUserDetails principal) {
+        if (principal.isOwner()) {
+            return readRepository.findAppointmentsForOwner(principal.getUserId());
+        } else if (principal.isDoctor()) {
+            LocalDateTime start = from != null ? from : LocalDateTime.now();
+            LocalDateTime end = to != null ? to : start.plusDays(agendaWindowDays);
+            return readRepository.findDoctorAgenda(principal.requireDoctorId(), start, end, status);
+        }
+        return Flux.empty();
+    }
+
+    @GetMapping("/today")
+    public Flux<AppointmentDTO> getTodaysAgenda(@AuthenticationPrincipal ClinicUserDetails principal) {
+        if (!principal.isDoctor()) {
+            return Flux.empty();
+        }
+        LocalDate today = LocalDate.now();
+        return readRepository.findDoctorAgenda(principal.requireDoctorId(), today.atStartOfDay(),
+                today.plusDays(1).atStartOfDay().minusNanos(1), null);
+    }
+}
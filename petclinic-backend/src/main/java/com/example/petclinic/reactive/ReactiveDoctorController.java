@@ -0,0 +1,22 @@
+package com.example.petclinic.reactive;
+
+import com.example.petclinic.dto.DoctorDTO;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+
+@RestController
+@RequestMapping("/api/users")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveDoctorController {
+    private final ReactiveReadRepository readRepository;
+
+    public ReactiveDoctorController(ReactiveReadRepository readRepository) {
+        this.readRepository = readRepository;
+    }
+
+    @GetMapping("/doctors")
+    public Flux<DoctorDTO> getAllDoctors() {
+        return readRepository.findActiveDoctors();
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.petclinic.reactive;
+
+import com.example.petclinic.dto.MedicalRecordDTO;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+
+@RestController
+@RequestMapping("/api/medical-records")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveMedicalRecordController {
+    private final ReactiveReadRepository readRepository;
+
+    public ReactiveMedicalRecordController(ReactiveReadRepository readRepository) {
+        this.readRepository = readRepository;
+    }
+
+    // DOCTOR only, enforced in ReactiveSecurityConfig
+    @GetMapping("/pet/{petId}")
+    public Flux<MedicalRecordDTO> getMedicalRecordsForPet(@PathVariable Long petId) {
+        return readRepository.findMedicalRecordsForPet(petId);
+    }
+}
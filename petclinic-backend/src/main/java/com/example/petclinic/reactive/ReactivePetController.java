@@ -0,0 +1,33 @@
+package com.example.petclinic.reactive;
+
+import com.example.petclinic.dto.PetDTO;
+import com.example.petclinic.security.ClinicUserDetails;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/api/pets")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactivePetController {
+    private final ReactiveReadRepository readRepository;
+
+    public ReactivePetController(ReactiveReadRepository readRepository) {
+        this.readRepository = readRepository;
+    }
+
+    @GetMapping
+    public Flux<PetDTO> getPets(@AuthenticationPrincipal ClinicUserDetails principal) {
+        return readRepository.findPetsForOwner(principal.getUserId());
+    }
+
+    @GetMapping("/{id}")
+    public Mono<PetDTO> getPet(@PathVariable Long id, @AuthenticationPrincipal ClinicUserDetails principal) {
+        return readRepository.findPetForOwner(id, principal.getUserId())
+                .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND)));
+    }
+}
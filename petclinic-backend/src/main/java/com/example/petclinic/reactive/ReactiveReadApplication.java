@@ -0,0 +1,39 @@
+package com.example.petclinic.reactive;
+
+import com.example.petclinic.security.JwtUtil;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceTransactionManagerAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.annotation.Import;
+
+/**
+ * Non-blocking, read-only variant of the pets, appointments, doctors and medical-record
+ * GET endpoints: WebFlux on Netty with R2DBC against the same schema, returning the same
+ * DTOs. Runs as its own process next to the servlet app, configured from
+ * reactive-api.properties:
+ *
+ *   java -cp petclinic-backend.jar -Dloader.main=com.example.petclinic.reactive.ReactiveReadApplication \
+ *        org.springframework.boot.loader.launch.PropertiesLauncher
+ *
+ * Everything in this package is conditional on a reactive web context, so the servlet
+ * app's component scan skips it.
+ */
+@SpringBootApplication(exclude = {
+        DataSourceAutoConfiguration.class,
+        DataSourceTransactionManagerAutoConfiguration.class,
+        HibernateJpaAutoConfiguration.class
+})
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@Import(JwtUtil.class)
+public class ReactiveReadApplication {
+    public static void main(String[] args) {
+        new SpringApplicationBuilder(ReactiveReadApplication.class)
+                .web(WebApplicationType.REACTIVE)
+                .properties("spring.config.name=reactive-api")
+                .run(args);
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.petclinic.reactive;
+
+import com.example.petclinic.dto.AppointmentDTO;
+import com.example.petclinic.dto.DoctorDTO;
+import com.example.petclinic.dto.MedicalRecordDTO;
+import com.example.petclinic.dto.PetDTO;
+import com.example.petclinic.security.ClinicUserDetails;
+import io.r2dbc.spi.Readable;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Plain SQL over R2DBC for the reactive read API; each query mirrors the projection the
+ * corresponding JPA repository method produces for the servlet controllers.
+ */
+@Repository
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveReadRepository {
+    private static final String PET_COLUMNS =
+            "SELECT p.id, p.name, p.species, p.breed, p.birth_date, " +
+            "(SELECT MAX(r.visit_date) FROM medical_records r WHERE r.pet_id = p.id) AS last_visit_date FROM pets p ";
+    private static final String APPOINTMENT_COLUMNS =
+            "SELECT a.id, a.appointment_code, a.appointment_time, p.id AS pet_id, a.doctor_id, a.status, " +
+            "p.name AS pet_name, u.username AS doctor_name " +
+            "FROM appointments a JOIN pets p ON p.id = a.pet_id " +
+            "JOIN doctors d ON d.doctor_id = a.doctor_id JOIN users u ON u.id = d.user_id ";
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveReadRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Mono<ClinicUserDetails> findUserDetailsByUsername(String username) {
+        return databaseClient.sql("SELECT u.id, u.username, u.role, d.doctor_id FROM users u " +
+                        "LEFT JOIN doctors d ON d.user_id = u.id WHERE u.username = :username")
+                .bind("username", username)
+                .map(row -> new ClinicUserDetails(row.get("username", String.class), "", row.get("role", String.class),
+                        row.get("id", Long.class), row.get("doctor_id", Long.class)))
+                .one();
+    }
+
+    public Flux<PetDTO> findPetsForOwner(Long ownerId) {
+        return databaseClient.sql(PET_COLUMNS + "WHERE p.owner_id = :ownerId ORDER BY p.id")
+                .bind("ownerId", ownerId)
+                .map(ReactiveReadRepository::toPet)
+                .all();
+    }
+
+    public Mono<PetDTO> findPetForOwner(Long petId, Long ownerId) {
+        return databaseClient.sql(PET_COLUMNS + "WHERE p.id = :petId AND p.owner_id = :ownerId")
+                .bind("petId", petId)
+                .bind("ownerId", ownerId)
+                .map(ReactiveReadRepository::toPet)
+                .one();
+    }
+
+    public Flux<AppointmentDTO> findAppointmentsForOwner(Long ownerId) {
+        return databaseClient.sql(APPOINTMENT_COLUMNS + "WHERE p.owner_id = :ownerId ORDER BY a.appointment_time")
+                .bind("ownerId", ownerId)
+                .map(ReactiveReadRepository::toAppointment)
+                .all();
+    }
+
+    public Flux<AppointmentDTO> findDoctorAgenda(Long doctorId, LocalDateTime start, LocalDateTime end, String status) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(APPOINTMENT_COLUMNS +
+                        "WHERE a.doctor_id = :doctorId AND a.appointment_time >= :start AND a.appointment_time <= :end " +
+                        (status != null ? "AND a.status = :status " : "") + "ORDER BY a.appointment_time")
+                .bind("doctorId", doctorId)
+                .bind("start", start)
+                .bind("end", end);
+        if (status != null) {
+            spec = spec.bind("status", status);
+        }
+        return spec.map(ReactiveReadRepository::toAppointment).all();
+    }
+
+    public Flux<DoctorDTO> findActiveDoctors() {
+        return databaseClient.sql("SELECT d.doctor_id, d.user_id, u.username, d.specialization, d.active " +
+                        "FROM doctors d JOIN users u ON u.id = d.user_id WHERE d.active = TRUE ORDER BY d.doctor_id")
+                .map(row -> new DoctorDTO(row.get("doctor_id", Long.class), row.get("user_id", Long.class),
+                        row.get("username", String.class), row.get("specialization", String.class),
+                        row.get("active", Boolean.class)))
+                .all();
+    }
+
+    public Flux<MedicalRecordDTO> findMedicalRecordsForPet(Long petId) {
+        return databaseClient.sql("SELECT id, visit_date, diagnosis, prescription, pet_id, " +
+                        "COALESCE(appointment_id, archived_appointment_id) AS appointment_id " +
+                        "FROM medical_records WHERE pet_id = :petId ORDER BY visit_date")
+                .bind("petId", petId)
+                .map(row -> new MedicalRecordDTO(row.get("id", Long.class), row.get("visit_date", LocalDate.class),
+                        row.get("diagnosis", String.class), row.get("prescription", String.class),
+                        row.get("pet_id", Long.class), row.get("appointment_id", Long.class)))
+                .all();
+    }
+
+    private static PetDTO toPet(Readable row) {
+        return new PetDTO(row.get("id", Long.class), row.get("name", String.class), row.get("species", String.class),
+                row.get("breed", String.class), row.get("birth_date", LocalDate.class),
+                row.get("last_visit_date", LocalDate.class));
+    }
+
+    private static AppointmentDTO toAppointment(Readable row) {
+        return new AppointmentDTO(row.get("id", Long.class), row.get("appointment_code", String.class),
+                row.get("appointment_time", LocalDateTime.class), row.get("pet_id", Long.class),
+                row.get("doctor_id", Long.class), row.get("status", String.class),
+                row.get("pet_name", String.class), row.get("doctor_name", String.class));
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.petclinic.reactive;
+
+import com.example.petclinic.security.JwtUtil;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.authentication.AuthenticationWebFilter;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import reactor.core.publisher.Mono;
+
+/**
+ * Stateless JWT authentication for the reactive API, same tokens and rules as SecurityConfig:
+ * the Bearer token is verified with {@link JwtUtil} and the principal is loaded over R2DBC.
+ */
+@Configuration
+@EnableWebFluxSecurity
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveSecurityConfig {
+
+    @Bean
+    public ReactiveAuthenticationManager jwtAuthenticationManager(JwtUtil jwtUtil, ReactiveReadRepository readRepository) {
+        return authentication -> {
+            String token = (String) authentication.getCredentials();
+            if (!jwtUtil.validateToken(token)) {
+                return Mono.error(new BadCredentialsException("Invalid token"));
+            }
+            return readRepository.findUserDetailsByUsername(jwtUtil.extractUsername(token))
+                    .switchIfEmpty(Mono.error(new BadCredentialsException("Unknown user")))
+                    .map(user -> (Authentication) UsernamePasswordAuthenticationToken.authenticated(user, null, user.getAuthorities()));
+        };
+    }
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http, ReactiveAuthenticationManager jwtAuthenticationManager) {
+        AuthenticationWebFilter jwtFilter = new AuthenticationWebFilter(jwtAuthenticationManager);
+        jwtFilter.setServerAuthenticationConverter(exchange -> Mono
+                .justOrEmpty(exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION))
+                .filter(header -> header.startsWith("Bearer "))
+                .map(header -> UsernamePasswordAuthenticationToken.unauthenticated(null, header.substring(7))));
+
+        return http
+                .csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+                .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+                .logout(ServerHttpSecurity.LogoutSpec::disable)
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+                .authorizeExchange(exchanges -> exchanges
+                        .pathMatchers("/actuator/health/**").permitAll()
+                        .pathMatchers(HttpMethod.GET, "/api/medical-records/**").hasAuthority("DOCTOR")
+                        .pathMatchers(HttpMethod.GET, "/api/**").authenticated()
+                        .anyExchange().denyAll())
+                .addFilterAt(jwtFilter, SecurityWebFiltersOrder.AUTHENTICATION)
+                .build();
+    }
+}
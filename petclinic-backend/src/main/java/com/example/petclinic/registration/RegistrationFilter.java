@@ -0,0 +1,157 @@
+package com.example.petclinic.registration;
+
+import com.example.petclinic.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Bloom filters over the three unique user columns, so registration only runs the duplicate
+ * SELECTs for values that may already be taken. A miss is certain for this instance's view;
+ * users created by another instance since the last rebuild are not in it, which is why the
+ * unique constraints stay the final arbiter and the insert itself must handle a violation.
+ *
+ * Built in id-ordered pages at startup and nightly (which also sheds purged users and resizes
+ * for growth); registrations are added as they commit. Keys are lowercased to match MySQL's
+ * case-insensitive collation; over-matching only costs an extra lookup. Until the first build
+ * completes every field is reported as possibly taken.
+ */
+@Component
+@Lazy(false)
+public class RegistrationFilter {
+    private static final Logger log = LoggerFactory.getLogger(RegistrationFilter.class);
+
+    public enum Field { USERNAME, PHONE_NUMBER, IDENTITY_CODE }
+
+    private record Filters(BloomFilter usernames, BloomFilter phoneNumbers, BloomFilter identityCodes) {
+        Filters(long capacity, double falsePositiveRate) {
+            this(new BloomFilter(capacity, falsePositiveRate), new BloomFilter(capacity, falsePositiveRate),
+                    new BloomFilter(capacity, falsePositiveRate));
+        }
+
+        void add(String username, String phoneNumber, String identityCode) {
+            usernames.add(normalize(username));
+            phoneNumbers.add(normalize(phoneNumber));
+            identityCodes.add(normalize(identityCode));
+        }
+    }
+
+    private final UserRepository userRepository;
+    private final double falsePositiveRate;
+    private final long minCapacity;
+    private final int pageSize;
+    private final Counter skipped;
+    private final Counter checked;
+    private volatile Filters current;
+    private volatile Filters building;
+
+    public RegistrationFilter(UserRepository userRepository,
+                              MeterRegistry meterRegistry,
+                              @Value("${petclinic.registration.bloom.false-positive-rate:0.01}") double falsePositiveRate,
+                              @Value("${petclinic.registration.bloom.min-capacity:100000}") long minCapacity,
+                              @Value("${petclinic.registration.bloom.page-size:5000}") int pageSize) {
+        this.userRepository = userRepository;
+        this.falsePositiveRate = falsePositiveRate;
+        this.minCapacity = minCapacity;
+        this.pageSize = pageSize;
+        this.skipped = Counter.builder("petclinic.registration.precheck")
+                .tag("result", "skipped")
+                .description("Registrations whose duplicate checks were all ruled out by the Bloom filters")
+                .register(meterRegistry);
+        this.checked = Counter.builder("petclinic.registration.precheck")
+                .tag("result", "checked")
+                .description("Registrations with at least one possibly taken value checked in the database")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildAtStartup() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.warn("Could not build registration filters, duplicate checks stay on the database", e);
+        }
+    }
+
+    /**
+     * Sized for twice the current user count. Registrations committed while the scan runs are
+     * added to both generations, so the swap never drops one.
+     */
+    @Scheduled(cron = "${petclinic.registration.bloom.rebuild-cron:0 15 4 * * *}")
+    public synchronized void rebuild() {
+        Filters next = new Filters(Math.max(minCapacity, userRepository.count() * 2), falsePositiveRate);
+        building = next;
+        try {
+            long users = 0;
+            Long afterId = 0L;
+            while (true) {
+                List<UserKeys> page = userRepository.findKeysAfter(afterId, PageRequest.of(0, pageSize));
+                page.forEach(keys -> next.add(keys.username(), keys.phoneNumber(), keys.identityCode()));
+                users += page.size();
+                if (page.size() < pageSize) {
+                    break;
+                }
+                afterId = page.get(page.size() - 1).id();
+            }
+            current = next;
+            log.info("Registration filters built from {} users ({} bits, {} hashes each)",
+                    users, next.usernames().bitCount(), next.usernames().hashCount());
+        } finally {
+            building = null;
+        }
+    }
+
+    /**
+     * The fields whose values may already belong to a user and need a database check.
+     */
+    public Set<Field> possiblyTaken(String username, String phoneNumber, String identityCode) {
+        Filters filters = current;
+        if (filters == null) {
+            checked.increment();
+            return EnumSet.allOf(Field.class);
+        }
+        Set<Field> fields = EnumSet.noneOf(Field.class);
+        if (filters.usernames().mightContain(normalize(username))) {
+            fields.add(Field.USERNAME);
+        }
+        if (filters.phoneNumbers().mightContain(normalize(phoneNumber))) {
+            fields.add(Field.PHONE_NUMBER);
+        }
+        if (filters.identityCodes().mightContain(normalize(identityCode))) {
+            fields.add(Field.IDENTITY_CODE);
+        }
+        (fields.isEmpty() ? skipped : checked).increment();
+        return fields;
+    }
+
+    /**
+     * Call after the user row has committed.
+     */
+    public void added(String username, String phoneNumber, String identityCode) {
+        Filters filters = current;
+        if (filters != null) {
+            filters.add(username, phoneNumber, identityCode);
+        }
+        Filters next = building;
+        if (next != null) {
+            next.add(username, phoneNumber, identityCode);
+        }
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+}
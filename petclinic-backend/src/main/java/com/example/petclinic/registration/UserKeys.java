@@ -0,0 +1,6 @@
+package com.example.petclinic.registration;
+
+/**
+ * The unique columns of a user, paged by id when the registration filters are rebuilt.
+ */
+public record UserKeys(Long id, String username, String phoneNumber, String identityCode) {}
@@ -0,0 +1,238 @@
+package com.example.petclinic.reminder;
+
+import com.example.petclinic.event.AppointmentEvent;
+import com.example.petclinic.event.AppointmentEventListener;
+import com.example.petclinic.event.AppointmentEventType;
+import com.example.petclinic.model.AppointmentReminder;
+import com.example.petclinic.repository.AppointmentReminderRepository;
+import com.example.petclinic.repository.AppointmentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Sends reminders ahead of each appointment (by default 24h and 1h before).
+ *
+ * Upcoming appointments are pulled into a timing wheel one horizon slice at a time with a single
+ * range query on appointment_time; bookings, reschedules and cancellations arrive through the
+ * outbox so the table is never rescanned. Each reminder is claimed in appointment_reminders
+ * before it is sent, which keeps restarts from sending it twice; moving an appointment to another
+ * time clears its claims so the reminders for the new time go out.
+ */
+@Component
+@Lazy(false)
+@ConditionalOnProperty(name = "petclinic.reminders.enabled", havingValue = "true", matchIfMissing = true)
+public class AppointmentReminderScheduler implements AppointmentEventListener {
+    private static final Logger log = LoggerFactory.getLogger(AppointmentReminderScheduler.class);
+    private static final long MINUTE_MS = 60_000L;
+    // 60 one-minute buckets, 24 one-hour buckets, 8 one-day buckets: an 8 day span
+    private static final int[] WHEEL_SIZES = {60, 24, 8};
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+    @Autowired
+    private AppointmentReminderRepository appointmentReminderRepository;
+    @Autowired
+    private ReminderNotifier reminderNotifier;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${petclinic.reminders.lead-minutes:1440,60}")
+    private List<Long> leadMinutes;
+
+    @Value("${petclinic.reminders.horizon-hours:48}")
+    private long horizonHours;
+
+    @Value("${petclinic.reminders.batch-size:200}")
+    private int batchSize;
+
+    private final ZoneId zone = ZoneId.systemDefault();
+    private final Object lock = new Object();
+    private final Map<Long, List<HierarchicalTimingWheel.Timeout<Reminder>>> scheduled = new HashMap<>();
+    private HierarchicalTimingWheel<Reminder> wheel;
+    // Appointments up to this time have been loaded into the wheel
+    private LocalDateTime loadedUntil;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        LocalDateTime now = LocalDateTime.now();
+        synchronized (lock) {
+            wheel = new HierarchicalTimingWheel<>(MINUTE_MS, WHEEL_SIZES, toMillis(now));
+            loadedUntil = now;
+        }
+        extendWindow();
+    }
+
+    /**
+     * Loads the appointments that entered the horizon since the last call.
+     */
+    @Scheduled(fixedDelayString = "${petclinic.reminders.refresh-interval-ms:900000}",
+               initialDelayString = "${petclinic.reminders.refresh-interval-ms:900000}")
+    public void extendWindow() {
+        LocalDateTime from;
+        LocalDateTime until = LocalDateTime.now().plusHours(horizonHours).plusMinutes(maxLeadMinutes());
+        synchronized (lock) {
+            if (wheel == null || !until.isAfter(loadedUntil)) {
+                return;
+            }
+            from = loadedUntil;
+        }
+        List<ReminderCandidate> candidates = appointmentRepository.findReminderCandidates(from, until);
+        synchronized (lock) {
+            candidates.forEach(this::schedule);
+            loadedUntil = until;
+        }
+        log.debug("Loaded {} appointments into the reminder wheel up to {}", candidates.size(), until);
+    }
+
+    @Scheduled(fixedRateString = "${petclinic.reminders.tick-ms:60000}")
+    public void fireDueReminders() {
+        List<Reminder> due;
+        synchronized (lock) {
+            if (wheel == null) {
+                return;
+            }
+            due = wheel.advanceTo(System.currentTimeMillis());
+            for (Reminder reminder : due) {
+                List<HierarchicalTimingWheel.Timeout<Reminder>> timeouts = scheduled.get(reminder.appointment().appointmentId());
+                if (timeouts != null) {
+                    timeouts.removeIf(HierarchicalTimingWheel.Timeout::isCancelled);
+                    if (timeouts.isEmpty()) {
+                        scheduled.remove(reminder.appointment().appointmentId());
+                    }
+                }
+            }
+        }
+        for (int i = 0; i < due.size(); i += batchSize) {
+            List<Reminder> batch = claim(due.subList(i, Math.min(i + batchSize, due.size())));
+            if (!batch.isEmpty()) {
+                reminderNotifier.send(batch);
+            }
+        }
+    }
+
+    @Scheduled(cron = "${petclinic.reminders.purge-cron:0 30 3 * * *}")
+    public void purgeSentMarkers() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                appointmentReminderRepository.deleteSentBefore(LocalDateTime.now().minusDays(7)));
+    }
+
+    @Override
+    public void onAppointmentEvent(AppointmentEvent event) {
+        if (event.type() == AppointmentEventType.RESCHEDULED && event.previousAppointmentTime() != null
+                && !event.previousAppointmentTime().equals(event.appointmentTime())) {
+            // markers are per lead, so reminders sent for the old time would suppress the new ones
+            new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                    appointmentReminderRepository.deleteByAppointmentIds(List.of(event.appointmentId())));
+        }
+        synchronized (lock) {
+            if (wheel == null) {
+                return;
+            }
+            cancel(event.appointmentId());
+            if (event.type() == AppointmentEventType.CANCELLED || event.appointmentTime().isAfter(loadedUntil)) {
+                // Beyond the loaded window the appointment is picked up by extendWindow
+                return;
+            }
+            schedule(new ReminderCandidate(event.appointmentId(), event.appointmentCode(), event.appointmentTime(),
+                    event.petId(), event.petName(), event.ownerId(), event.doctorId()));
+        }
+    }
+
+    /** Number of reminders currently waiting in the wheel. */
+    public int pendingReminders() {
+        synchronized (lock) {
+            return wheel == null ? 0 : wheel.size();
+        }
+    }
+
+    private void schedule(ReminderCandidate candidate) {
+        cancel(candidate.appointmentId());
+        long now = System.currentTimeMillis();
+        long appointmentAt = toMillis(candidate.appointmentTime());
+        if (appointmentAt <= now) {
+            return;
+        }
+        List<HierarchicalTimingWheel.Timeout<Reminder>> timeouts = new ArrayList<>();
+        for (long lead : leadMinutes) {
+            long fireAt = appointmentAt - lead * MINUTE_MS;
+            // After downtime only the closest overdue reminder is worth sending
+            if (fireAt <= now && hasShorterOverdueLead(lead, appointmentAt, now)) {
+                continue;
+            }
+            HierarchicalTimingWheel.Timeout<Reminder> timeout = wheel.add(fireAt, new Reminder(candidate, lead));
+            if (timeout != null) {
+                timeouts.add(timeout);
+            }
+        }
+        if (!timeouts.isEmpty()) {
+            scheduled.put(candidate.appointmentId(), timeouts);
+        }
+    }
+
+    private boolean hasShorterOverdueLead(long lead, long appointmentAt, long now) {
+        return leadMinutes.stream().anyMatch(other -> other < lead && appointmentAt - other * MINUTE_MS <= now);
+    }
+
+    private void cancel(Long appointmentId) {
+        List<HierarchicalTimingWheel.Timeout<Reminder>> timeouts = scheduled.remove(appointmentId);
+        if (timeouts != null) {
+            timeouts.forEach(wheel::cancel);
+        }
+    }
+
+    /**
+     * Records the batch as sent and returns the reminders that had not been sent before.
+     */
+    private List<Reminder> claim(List<Reminder> batch) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            Set<Long> ids = batch.stream().map(r -> r.appointment().appointmentId()).collect(Collectors.toSet());
+            Set<String> alreadySent = new HashSet<>();
+            for (AppointmentReminder sent : appointmentReminderRepository.findByAppointmentIdIn(ids)) {
+                alreadySent.add(sent.getAppointmentId() + ":" + sent.getLeadMinutes());
+            }
+            LocalDateTime now = LocalDateTime.now();
+            List<Reminder> toSend = new ArrayList<>();
+            List<AppointmentReminder> markers = new ArrayList<>();
+            for (Reminder reminder : batch) {
+                if (alreadySent.add(reminder.appointment().appointmentId() + ":" + reminder.leadMinutes())) {
+                    AppointmentReminder marker = new AppointmentReminder();
+                    marker.setAppointmentId(reminder.appointment().appointmentId());
+                    marker.setLeadMinutes(reminder.leadMinutes());
+                    marker.setSentAt(now);
+                    markers.add(marker);
+                    toSend.add(reminder);
+                }
+            }
+            appointmentReminderRepository.saveAll(markers);
+            return toSend;
+        });
+    }
+
+    private long maxLeadMinutes() {
+        return leadMinutes.stream().mapToLong(Long::longValue).max().orElse(0);
+    }
+
+    private long toMillis(LocalDateTime time) {
+        return time.atZone(zone).toInstant().toEpochMilli();
+    }
+}
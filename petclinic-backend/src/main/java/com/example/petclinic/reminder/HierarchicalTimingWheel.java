@@ -0,0 +1,173 @@
+package com.example.petclinic.reminder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel. Level 0 has one bucket per tick; each higher level has
+ * one bucket per full revolution of the level below. Entries sit in the coarsest
+ * level that can hold them and cascade down as the clock reaches their bucket, so
+ * adding, cancelling and advancing by one tick are all O(1) amortized.
+ * Not thread-safe on its own; the scheduler serializes access.
+ */
+public class HierarchicalTimingWheel<T> {
+    private final long tickMs;
+    private final int[] wheelSizes;
+    private final long[] ticksPerBucket;
+    private final List<List<Timeout<T>>> levels = new ArrayList<>();
+    private long currentTick;
+    private int size;
+
+    /**
+     * @param tickMs     resolution of the wheel
+     * @param wheelSizes buckets per level, finest first (e.g. 60 minutes, 24 hours, 8 days)
+     * @param startMs    wall-clock time of tick 0
+     */
+    public HierarchicalTimingWheel(long tickMs, int[] wheelSizes, long startMs) {
+        this.tickMs = tickMs;
+        this.wheelSizes = wheelSizes.clone();
+        this.ticksPerBucket = new long[wheelSizes.length];
+        long unit = 1;
+        for (int level = 0; level < wheelSizes.length; level++) {
+            ticksPerBucket[level] = unit;
+            unit *= wheelSizes[level];
+            List<Timeout<T>> buckets = new ArrayList<>(wheelSizes[level]);
+            for (int i = 0; i < wheelSizes[level]; i++) {
+                buckets.add(null);
+            }
+            levels.add(buckets);
+        }
+        this.currentTick = Math.floorDiv(startMs, tickMs);
+    }
+
+    /**
+     * Schedules an item. Returns null when the deadline lies beyond the wheel's span;
+     * deadlines at or before the current tick fire on the next tick.
+     */
+    public Timeout<T> add(long deadlineMs, T item) {
+        long expiryTick = Math.max(ceilDiv(deadlineMs, tickMs), currentTick + 1);
+        int level = levelFor(expiryTick);
+        if (level < 0) {
+            return null;
+        }
+        Timeout<T> timeout = new Timeout<>(expiryTick, item);
+        push(level, timeout);
+        size++;
+        return timeout;
+    }
+
+    /**
+     * Moves the clock forward to nowMs and returns the items that expired on the way, tick by tick.
+     */
+    public List<T> advanceTo(long nowMs) {
+        long targetTick = Math.floorDiv(nowMs, tickMs);
+        List<T> expired = new ArrayList<>();
+        while (currentTick < targetTick) {
+            currentTick++;
+            // Cascade coarse buckets first so their entries land in finer levels before those are drained
+            for (int level = wheelSizes.length - 1; level >= 1; level--) {
+                if (currentTick % ticksPerBucket[level] == 0) {
+                    int index = (int) ((currentTick / ticksPerBucket[level]) % wheelSizes[level]);
+                    Timeout<T> head = takeBucket(level, index);
+                    while (head != null) {
+                        Timeout<T> next = head.next;
+                        head.next = null;
+                        if (!head.cancelled) {
+                            place(head);
+                        }
+                        head = next;
+                    }
+                }
+            }
+            Timeout<T> head = takeBucket(0, (int) (currentTick % wheelSizes[0]));
+            while (head != null) {
+                Timeout<T> next = head.next;
+                head.next = null;
+                if (!head.cancelled) {
+                    head.cancelled = true;
+                    size--;
+                    expired.add(head.item);
+                }
+                head = next;
+            }
+        }
+        return expired;
+    }
+
+    public boolean cancel(Timeout<T> timeout) {
+        if (timeout == null || timeout.cancelled) {
+            return false;
+        }
+        timeout.cancelled = true;
+        size--;
+        return true;
+    }
+
+    /** Number of live (not fired, not cancelled) entries. */
+    public int size() {
+        return size;
+    }
+
+    private void place(Timeout<T> timeout) {
+        int level = levelFor(timeout.expiryTick);
+        if (level < 0) {
+            throw new IllegalStateException("Deadline outside wheel span");
+        }
+        push(level, timeout);
+    }
+
+    /**
+     * Finest level whose bucket for expiryTick is still ahead of the clock, or -1 if none can hold it.
+     * Level 0 also accepts the current tick, which is only reachable while cascading (before level 0 drains).
+     */
+    private int levelFor(long expiryTick) {
+        if (expiryTick >= currentTick && expiryTick - currentTick < wheelSizes[0]) {
+            return 0;
+        }
+        for (int level = 1; level < wheelSizes.length; level++) {
+            long distance = expiryTick / ticksPerBucket[level] - currentTick / ticksPerBucket[level];
+            if (distance >= 1 && distance < wheelSizes[level]) {
+                return level;
+            }
+        }
+        return -1;
+    }
+
+    private void push(int level, Timeout<T> timeout) {
+        int index = (int) ((timeout.expiryTick / ticksPerBucket[level]) % wheelSizes[level]);
+        List<Timeout<T>> buckets = levels.get(level);
+        timeout.next = buckets.get(index);
+        buckets.set(index, timeout);
+    }
+
+    private Timeout<T> takeBucket(int level, int index) {
+        List<Timeout<T>> buckets = levels.get(level);
+        Timeout<T> head = buckets.get(index);
+        buckets.set(index, null);
+        return head;
+    }
+
+    private static long ceilDiv(long value, long divisor) {
+        return -Math.floorDiv(-value, divisor);
+    }
+
+    public static final class Timeout<T> {
+        private final long expiryTick;
+        private final T item;
+        private Timeout<T> next;
+        private boolean cancelled;
+
+        private Timeout(long expiryTick, T item) {
+            this.expiryTick = expiryTick;
+            this.item = item;
+        }
+
+        public T item() {
+            return item;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.petclinic.reminder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import java.util.List;
+
+/**
+ * Stand-in notifier until SMS/push delivery exists: writes each reminder to the log.
+ * A real channel can replace it by registering a @Primary ReminderNotifier.
+ */
+@Component
+public class LoggingReminderNotifier implements ReminderNotifier {
+    private static final Logger log = LoggerFactory.getLogger(LoggingReminderNotifier.class);
+
+    @Override
+    public void send(List<Reminder> reminders) {
+        for (Reminder reminder : reminders) {
+            ReminderCandidate appointment = reminder.appointment();
+            log.info("Reminder ({} min): owner {} - {} has appointment {} at {}",
+                    reminder.leadMinutes(), appointment.ownerId(), appointment.petName(),
+                    appointment.appointmentCode(), appointment.appointmentTime());
+        }
+    }
+}
@@ -0,0 +1,3 @@
+package com.example.petclinic.reminder;
+
+public record Reminder(ReminderCandidate appointment, long leadMinutes) {}
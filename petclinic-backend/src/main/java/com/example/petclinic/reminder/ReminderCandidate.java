@@ -0,0 +1,16 @@
+package com.example.petclinic.reminder;
+
+import java.time.LocalDateTime;
+
+/**
+ * Flat view of an upcoming appointment, loaded in one query without touching the lazy associations.
+ */
+public record ReminderCandidate(
+    Long appointmentId,
+    String appointmentCode,
+    LocalDateTime appointmentTime,
+    Long petId,
+    String petName,
+    Long ownerId,
+    Long doctorId
+) {}
@@ -0,0 +1,10 @@
+package com.example.petclinic.reminder;
+
+import java.util.List;
+
+/**
+ * Delivery channel for appointment reminders. Called with batches of due reminders.
+ */
+public interface ReminderNotifier {
+    void send(List<Reminder> reminders);
+}
@@ -0,0 +1,22 @@
+package com.example.petclinic.repository;
+
+import com.example.petclinic.model.AppointmentReminder;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface AppointmentReminderRepository extends JpaRepository<AppointmentReminder, Long> {
+    List<AppointmentReminder> findByAppointmentIdIn(Collection<Long> appointmentIds);
+
+    @Modifying
+    @Query("DELETE FROM AppointmentReminder r WHERE r.sentAt < :cutoff")
+    int deleteSentBefore(@Param("cutoff") LocalDateTime cutoff);
+
+    @Modifying
+    @Query("DELETE FROM AppointmentReminder r WHERE r.appointmentId IN :appointmentIds")
+    int deleteByAppointmentIds(@Param("appointmentIds") Collection<Long> appointmentIds);
+}
@@ -1,11 +1,71 @@
 package com.example.petclinic.repository;
 
+import com.example.petclinic.analytics.AppointmentFact;
+import com.example.petclinic.dto.AppointmentDTO;
 import com.example.petclinic.model.Appointment;
+import com.example.petclinic.purge.PurgedAppointment;
+import com.example.petclinic.reminder.ReminderCandidate;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface AppointmentRepository extends JpaRepository<Appointment, Long> {
     List<Appointment> findByDoctorDoctorId(Long doctorId);
+    List<Appointment> findByPetOwnerId(Long ownerId);
     List<Appointment> findByAppointmentTimeBetween(LocalDateTime start, LocalDateTime end);
+    List<Appointment> findByDoctorDoctorIdAndAppointmentTimeBetweenOrderByAppointmentTime(Long doctorId, LocalDateTime start, LocalDateTime end);
+    boolean existsByDoctorDoctorIdAndAppointmentTime(Long doctorId, LocalDateTime appointmentTime);
+    boolean existsByDoctorDoctorIdAndAppointmentTimeAndIdNot(Long doctorId, LocalDateTime appointmentTime, Long id);
+    long countByDoctorDoctorIdAndAppointmentTimeBetween(Long doctorId, LocalDateTime start, LocalDateTime end);
+
+    @Query("SELECT a.appointmentTime FROM Appointment a " +
+           "WHERE a.doctor.doctorId = :doctorId AND a.appointmentTime >= :start AND a.appointmentTime < :end")
+    List<LocalDateTime> findBookedTimes(@Param("doctorId") Long doctorId, @Param("start") LocalDateTime start,
+                                        @Param("end") LocalDateTime end);
+
+    /**
+     * Doctor agenda straight from uk_appointment_doctor_time; a null status matches every status.
+     */
+    @Query("SELECT new com.example.petclinic.dto.AppointmentDTO(a.id, a.appointmentCode, a.appointmentTime, p.id, d.doctorId, a.status, p.name, u.username) " +
+           "FROM Appointment a JOIN a.pet p JOIN a.doctor d JOIN d.user u " +
+           "WHERE a.doctor.doctorId = :doctorId AND a.appointmentTime >= :start AND a.appointmentTime <= :end " +
+           "AND (:status IS NULL OR a.status = :status) ORDER BY a.appointmentTime")
+    List<AppointmentDTO> findDoctorAgenda(@Param("doctorId") Long doctorId, @Param("start") LocalDateTime start,
+                                          @Param("end") LocalDateTime end, @Param("status") String status);
+
+    @Query("SELECT new com.example.petclinic.reminder.ReminderCandidate(a.id, a.appointmentCode, a.appointmentTime, p.id, p.name, p.owner.id, a.doctor.doctorId) " +
+           "FROM Appointment a JOIN a.pet p " +
+           "WHERE a.appointmentTime > :after AND a.appointmentTime <= :until AND a.status = 'SCHEDULED'")
+    List<ReminderCandidate> findReminderCandidates(@Param("after") LocalDateTime after, @Param("until") LocalDateTime until);
+
+    @Query("SELECT a.id FROM Appointment a WHERE a.appointmentTime < :cutoff ORDER BY a.id")
+    List<Long> findIdsBefore(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    List<Appointment> findByPetIdInAndAppointmentTimeBetween(Collection<Long> petIds, LocalDateTime start, LocalDateTime end);
+
+    @Query("SELECT new com.example.petclinic.analytics.AppointmentFact(a.id, a.appointmentTime, a.doctor.doctorId) " +
+           "FROM Appointment a WHERE a.id > :afterId ORDER BY a.id")
+    List<AppointmentFact> findFactsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT new com.example.petclinic.dto.AppointmentDTO(a.id, a.appointmentCode, a.appointmentTime, p.id, d.doctorId, a.status, p.name, u.username) " +
+           "FROM Appointment a JOIN a.pet p JOIN a.doctor d JOIN d.user u " +
+           "WHERE p.owner.id = :ownerId AND a.changeSeq > :since AND a.changeSeq <= :upTo")
+    List<AppointmentDTO> findChangedForOwner(@Param("ownerId") Long ownerId, @Param("since") long since, @Param("upTo") long upTo);
+
+    @Query("SELECT new com.example.petclinic.dto.AppointmentDTO(a.id, a.appointmentCode, a.appointmentTime, p.id, d.doctorId, a.status, p.name, u.username) " +
+           "FROM Appointment a JOIN a.pet p JOIN a.doctor d JOIN d.user u " +
+           "WHERE a.doctor.doctorId = :doctorId AND a.changeSeq > :since AND a.changeSeq <= :upTo")
+    List<AppointmentDTO> findChangedForDoctor(@Param("doctorId") Long doctorId, @Param("since") long since, @Param("upTo") long upTo);
+
+    @Query("SELECT new com.example.petclinic.purge.PurgedAppointment(a.id, a.appointmentCode, a.appointmentTime, p.id, p.name, o.id, a.doctor.doctorId) " +
+           "FROM Appointment a JOIN a.pet p LEFT JOIN p.owner o WHERE o.id = :ownerId ORDER BY a.id")
+    List<PurgedAppointment> findPurgeBatchForOwner(@Param("ownerId") Long ownerId, Pageable pageable);
+
+    @Query("SELECT new com.example.petclinic.purge.PurgedAppointment(a.id, a.appointmentCode, a.appointmentTime, p.id, p.name, o.id, a.doctor.doctorId) " +
+           "FROM Appointment a LEFT JOIN a.pet p LEFT JOIN p.owner o WHERE a.doctor.doctorId = :doctorId ORDER BY a.id")
+    List<PurgedAppointment> findPurgeBatchForDoctor(@Param("doctorId") Long doctorId, Pageable pageable);
 }
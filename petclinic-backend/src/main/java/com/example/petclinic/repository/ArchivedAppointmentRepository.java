@@ -0,0 +1,43 @@
+package com.example.petclinic.repository;
+
+import com.example.petclinic.analytics.AppointmentFact;
+import com.example.petclinic.dto.AppointmentDTO;
+import com.example.petclinic.model.ArchivedAppointment;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface ArchivedAppointmentRepository extends JpaRepository<ArchivedAppointment, Long> {
+    String DTO_SELECT = "SELECT new com.example.petclinic.dto.AppointmentDTO(a.id, a.appointmentCode, a.appointmentTime, " +
+            "a.petId, a.doctorId, a.status, p.name, u.username) " +
+            "FROM ArchivedAppointment a LEFT JOIN Pet p ON p.id = a.petId " +
+            "LEFT JOIN Doctor d ON d.doctorId = a.doctorId LEFT JOIN d.user u ";
+
+    @Query(DTO_SELECT + "WHERE a.doctorId = :doctorId AND a.appointmentTime BETWEEN :start AND :end ORDER BY a.appointmentTime")
+    List<AppointmentDTO> findForDoctor(@Param("doctorId") Long doctorId, @Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    @Query(DTO_SELECT + "WHERE a.petId IN :petIds AND a.appointmentTime BETWEEN :start AND :end ORDER BY a.appointmentTime")
+    List<AppointmentDTO> findForPets(@Param("petIds") Collection<Long> petIds, @Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    @Modifying
+    @Query("INSERT INTO ArchivedAppointment (id, appointmentCode, appointmentTime, status, petId, doctorId, archivedAt) " +
+           "SELECT a.id, a.appointmentCode, a.appointmentTime, a.status, a.pet.id, a.doctor.doctorId, :archivedAt " +
+           "FROM Appointment a WHERE a.id IN :ids")
+    int copyToArchive(@Param("ids") Collection<Long> ids, @Param("archivedAt") LocalDateTime archivedAt);
+
+    @Query("SELECT new com.example.petclinic.analytics.AppointmentFact(a.id, a.appointmentTime, a.doctorId) " +
+           "FROM ArchivedAppointment a WHERE a.id > :afterId ORDER BY a.id")
+    List<AppointmentFact> findFactsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT a.id FROM ArchivedAppointment a WHERE a.doctorId = :doctorId ORDER BY a.id")
+    List<Long> findIdsByDoctorId(@Param("doctorId") Long doctorId, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM ArchivedAppointment a WHERE a.petId IN :petIds")
+    int deleteForPets(@Param("petIds") Collection<Long> petIds);
+}
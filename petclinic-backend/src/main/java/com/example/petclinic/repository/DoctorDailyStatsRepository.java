@@ -0,0 +1,35 @@
+package com.example.petclinic.repository;
+
+import com.example.petclinic.analytics.DoctorTotals;
+import com.example.petclinic.dto.DailyBookingsDTO;
+import com.example.petclinic.model.DoctorDailyStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.time.LocalDate;
+import java.util.List;
+
+public interface DoctorDailyStatsRepository extends JpaRepository<DoctorDailyStats, Long> {
+
+    /**
+     * Adds the deltas to the (day, doctor) row, creating it on first use. A single upsert
+     * statement, so concurrent bookings never race on the insert.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO analytics_doctor_daily (stat_date, doctor_id, scheduled, cancelled) " +
+                   "VALUES (:day, :doctorId, :scheduled, :cancelled) " +
+                   "ON DUPLICATE KEY UPDATE scheduled = scheduled + VALUES(scheduled), cancelled = cancelled + VALUES(cancelled)",
+           nativeQuery = true)
+    int increment(@Param("day") LocalDate day, @Param("doctorId") Long doctorId,
+                  @Param("scheduled") long scheduled, @Param("cancelled") long cancelled);
+
+    @Query("SELECT new com.example.petclinic.analytics.DoctorTotals(s.doctorId, u.username, SUM(s.scheduled), SUM(s.cancelled)) " +
+           "FROM DoctorDailyStats s LEFT JOIN Doctor d ON d.doctorId = s.doctorId LEFT JOIN d.user u " +
+           "WHERE s.statDate BETWEEN :from AND :to GROUP BY s.doctorId, u.username ORDER BY s.doctorId")
+    List<DoctorTotals> sumByDoctor(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("SELECT new com.example.petclinic.dto.DailyBookingsDTO(s.statDate, SUM(s.scheduled), SUM(s.cancelled)) " +
+           "FROM DoctorDailyStats s WHERE s.statDate BETWEEN :from AND :to GROUP BY s.statDate ORDER BY s.statDate")
+    List<DailyBookingsDTO> sumByDay(@Param("from") LocalDate from, @Param("to") LocalDate to);
+}
@@ -10,5 +10,6 @@ import java.util.Optional;
 public interface DoctorRepository extends JpaRepository<Doctor, Long> {
     Optional<Doctor> findByUserId(Long userId);
     List<Doctor> findByActiveTrue();
+    List<Doctor> findBySpecializationIgnoreCaseAndActiveTrue(String specialization);
     Optional<Doctor> findByDoctorIdAndActiveTrue(Long doctorId);
 }
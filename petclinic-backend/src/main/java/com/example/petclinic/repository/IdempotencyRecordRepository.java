@@ -0,0 +1,26 @@
+package com.example.petclinic.repository;
+
+import com.example.petclinic.model.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, Long> {
+    Optional<IdempotencyRecord> findByKeyHash(String keyHash);
+
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.status = :status, r.contentType = :contentType, r.body = :body WHERE r.keyHash = :keyHash")
+    int complete(@Param("keyHash") String keyHash, @Param("status") int status,
+                 @Param("contentType") String contentType, @Param("body") byte[] body);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.keyHash = :keyHash AND r.status IS NULL")
+    int deletePending(@Param("keyHash") String keyHash);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,29 @@
+package com.example.petclinic.repository;
+
+import com.example.petclinic.dto.AttachmentDTO;
+import com.example.petclinic.model.MedicalRecordAttachment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface MedicalRecordAttachmentRepository extends JpaRepository<MedicalRecordAttachment, Long> {
+    Optional<MedicalRecordAttachment> findByIdAndMedicalRecordId(Long id, Long medicalRecordId);
+    boolean existsByContentHash(String contentHash);
+
+    @Query("SELECT new com.example.petclinic.dto.AttachmentDTO(a.id, a.medicalRecord.id, a.fileName, a.contentType, a.size, a.contentHash, a.createdAt) " +
+           "FROM MedicalRecordAttachment a WHERE a.medicalRecord.id = :recordId ORDER BY a.id")
+    List<AttachmentDTO> findForRecord(@Param("recordId") Long recordId);
+
+    @Modifying
+    @Query("DELETE FROM MedicalRecordAttachment a WHERE a.medicalRecord.id IN :recordIds")
+    int deleteForRecords(@Param("recordIds") Collection<Long> recordIds);
+
+    @Modifying
+    @Query("DELETE FROM MedicalRecordAttachment a WHERE a.medicalRecord.id IN " +
+           "(SELECT r.id FROM MedicalRecord r WHERE r.appointment.id IN :appointmentIds)")
+    int deleteForAppointments(@Param("appointmentIds") Collection<Long> appointmentIds);
+}
@@ -1,16 +1,54 @@
 package com.example.petclinic.repository;
 
+import com.example.petclinic.analytics.VisitFact;
+import com.example.petclinic.dto.MedicalRecordDTO;
 import com.example.petclinic.model.MedicalRecord;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface MedicalRecordRepository extends JpaRepository<MedicalRecord, Long> {
+    @Transactional(readOnly = true)
     List<MedicalRecord> findByPetId(Long petId);
     
+    @Transactional(readOnly = true)
     @Query("SELECT MAX(mr.visitDate) FROM MedicalRecord mr WHERE mr.pet.id = :petId")
     Optional<LocalDate> findLastVisitDateByPetId(@Param("petId") Long petId);
+
+    @Modifying
+    @Query("UPDATE MedicalRecord r SET r.archivedAppointmentId = r.appointment.id, r.appointment = null WHERE r.appointment.id IN :appointmentIds")
+    int detachFromAppointments(@Param("appointmentIds") Collection<Long> appointmentIds);
+
+    /**
+     * Keeps the records of appointments that are being deleted, restamped so owners sync the change.
+     */
+    @Modifying
+    @Query("UPDATE MedicalRecord r SET r.appointment = null, r.changeSeq = :seq WHERE r.appointment.id IN :appointmentIds")
+    int unlinkFromAppointments(@Param("appointmentIds") Collection<Long> appointmentIds, @Param("seq") long seq);
+
+    @Modifying
+    @Query("DELETE FROM MedicalRecord r WHERE r.appointment.id IN :appointmentIds")
+    int deleteForAppointments(@Param("appointmentIds") Collection<Long> appointmentIds);
+
+    @Transactional(readOnly = true)
+    @Query("SELECT r.id FROM MedicalRecord r WHERE r.pet.owner.id = :ownerId ORDER BY r.id")
+    List<Long> findIdsByOwnerId(@Param("ownerId") Long ownerId, Pageable pageable);
+
+    @Transactional(readOnly = true)
+    @Query("SELECT new com.example.petclinic.analytics.VisitFact(r.id, r.visitDate, p.species) " +
+           "FROM MedicalRecord r JOIN r.pet p WHERE r.id > :afterId ORDER BY r.id")
+    List<VisitFact> findVisitFactsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Transactional(readOnly = true)
+    @Query("SELECT new com.example.petclinic.dto.MedicalRecordDTO(r.id, r.visitDate, r.diagnosis, r.prescription, p.id, COALESCE(a.id, r.archivedAppointmentId)) " +
+           "FROM MedicalRecord r JOIN r.pet p LEFT JOIN r.appointment a " +
+           "WHERE p.owner.id = :ownerId AND r.changeSeq > :since AND r.changeSeq <= :upTo")
+    List<MedicalRecordDTO> findChangedForOwner(@Param("ownerId") Long ownerId, @Param("since") long since, @Param("upTo") long upTo);
 }
@@ -0,0 +1,42 @@
+package com.example.petclinic.repository;
+
+import com.example.petclinic.model.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+    List<OutboxEvent> findByDispatchedAtIsNullAndFailedAtIsNullOrderByIdAsc(Pageable pageable);
+
+    Optional<OutboxEvent> findFirstByDispatchedAtIsNullAndFailedAtIsNullOrderByIdAsc();
+
+    long countByDispatchedAtIsNullAndFailedAtIsNull();
+
+    long countByFailedAtIsNotNull();
+
+    List<OutboxEvent> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    Optional<OutboxEvent> findFirstByOrderByIdAsc();
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.dispatchedAt = :dispatchedAt WHERE e.id IN :ids")
+    int markDispatched(@Param("ids") Collection<Long> ids, @Param("dispatchedAt") LocalDateTime dispatchedAt);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.attempts = e.attempts + 1 WHERE e.id = :id")
+    int incrementAttempts(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.attempts = e.attempts + 1, e.failedAt = :failedAt WHERE e.id = :id")
+    int markFailed(@Param("id") Long id, @Param("failedAt") LocalDateTime failedAt);
+
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.dispatchedAt < :cutoff")
+    int deleteDispatchedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -1,9 +1,29 @@
 package com.example.petclinic.repository;
 
+import com.example.petclinic.dto.PetDTO;
 import com.example.petclinic.model.Pet;
+import com.example.petclinic.search.PetKeys;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import java.util.List;
+import java.util.Optional;
 
 public interface PetRepository extends JpaRepository<Pet, Long> {
     List<Pet> findByOwnerId(Long ownerId);
+    Optional<Pet> findByIdAndOwnerId(Long id, Long ownerId);
+
+    @Query("SELECT new com.example.petclinic.dto.PetDTO(p.id, p.name, p.species, p.breed, p.birthDate, MAX(mr.visitDate)) " +
+           "FROM Pet p LEFT JOIN MedicalRecord mr ON mr.pet = p " +
+           "WHERE p.owner.id = :ownerId AND p.changeSeq > :since AND p.changeSeq <= :upTo " +
+           "GROUP BY p.id, p.name, p.species, p.breed, p.birthDate")
+    List<PetDTO> findChangedForOwner(@Param("ownerId") Long ownerId, @Param("since") long since, @Param("upTo") long upTo);
+
+    @Query("SELECT p.id FROM Pet p WHERE p.owner.id = :ownerId ORDER BY p.id")
+    List<Long> findIdsByOwnerId(@Param("ownerId") Long ownerId, Pageable pageable);
+
+    @Query("SELECT new com.example.petclinic.search.PetKeys(p.id, p.name, p.species, o.id) " +
+           "FROM Pet p LEFT JOIN p.owner o WHERE p.id > :afterId ORDER BY p.id")
+    List<PetKeys> findKeysAfter(@Param("afterId") Long afterId, Pageable pageable);
 }
@@ -0,0 +1,23 @@
+package com.example.petclinic.repository;
+
+import com.example.petclinic.dto.SpeciesVisitsDTO;
+import com.example.petclinic.model.SpeciesDailyStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.time.LocalDate;
+import java.util.List;
+
+public interface SpeciesDailyStatsRepository extends JpaRepository<SpeciesDailyStats, Long> {
+
+    @Modifying
+    @Query(value = "INSERT INTO analytics_species_daily (stat_date, species, visits) VALUES (:day, :species, :visits) " +
+                   "ON DUPLICATE KEY UPDATE visits = visits + VALUES(visits)",
+           nativeQuery = true)
+    int increment(@Param("day") LocalDate day, @Param("species") String species, @Param("visits") long visits);
+
+    @Query("SELECT new com.example.petclinic.dto.SpeciesVisitsDTO(s.species, SUM(s.visits)) " +
+           "FROM SpeciesDailyStats s WHERE s.statDate BETWEEN :from AND :to GROUP BY s.species ORDER BY s.species")
+    List<SpeciesVisitsDTO> sumBySpecies(@Param("from") LocalDate from, @Param("to") LocalDate to);
+}
@@ -0,0 +1,32 @@
+package com.example.petclinic.repository;
+
+import com.example.petclinic.dto.SyncTombstoneDTO;
+import com.example.petclinic.model.SyncTombstone;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface SyncTombstoneRepository extends JpaRepository<SyncTombstone, Long> {
+    @Query("SELECT new com.example.petclinic.dto.SyncTombstoneDTO(t.entityType, t.entityId) FROM SyncTombstone t " +
+           "WHERE t.ownerId = :ownerId AND t.seq > :since AND t.seq <= :upTo ORDER BY t.seq")
+    List<SyncTombstoneDTO> findForOwner(@Param("ownerId") Long ownerId, @Param("since") long since, @Param("upTo") long upTo);
+
+    @Query("SELECT new com.example.petclinic.dto.SyncTombstoneDTO(t.entityType, t.entityId) FROM SyncTombstone t " +
+           "WHERE t.doctorId = :doctorId AND t.seq > :since AND t.seq <= :upTo ORDER BY t.seq")
+    List<SyncTombstoneDTO> findForDoctor(@Param("doctorId") Long doctorId, @Param("since") long since, @Param("upTo") long upTo);
+
+    @Query("SELECT MAX(t.seq) FROM SyncTombstone t WHERE t.deletedAt < :cutoff")
+    Optional<Long> findMaxSeqDeletedBefore(@Param("cutoff") LocalDateTime cutoff);
+
+    @Modifying
+    @Query("DELETE FROM SyncTombstone t WHERE t.seq <= :seq")
+    int deleteThroughSeq(@Param("seq") long seq);
+
+    @Modifying
+    @Query("DELETE FROM SyncTombstone t WHERE t.ownerId = :ownerId OR t.doctorId = :doctorId")
+    int deleteForOwnerOrDoctor(@Param("ownerId") Long ownerId, @Param("doctorId") Long doctorId);
+}
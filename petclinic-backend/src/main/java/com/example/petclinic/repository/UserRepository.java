@@ -1,11 +1,27 @@
 package com.example.petclinic.repository;
 
 import com.example.petclinic.model.User;
+import com.example.petclinic.registration.UserKeys;
+import com.example.petclinic.security.ClinicUserDetails;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
-    Optional<User> findByPhoneNumber(String phoneNumber);
-    Optional<User> findByIdentityCode(String identityCode);
+    boolean existsByUsername(String username);
+    boolean existsByPhoneNumber(String phoneNumber);
+    boolean existsByIdentityCode(String identityCode);
+    Optional<User> findFirstByRoleOrderByIdAsc(String role);
+
+    @Query("SELECT new com.example.petclinic.security.ClinicUserDetails(u.username, u.password, u.role, u.id, d.doctorId) " +
+           "FROM User u LEFT JOIN Doctor d ON d.user = u WHERE u.username = :username")
+    Optional<ClinicUserDetails> findUserDetailsByUsername(@Param("username") String username);
+
+    @Query("SELECT new com.example.petclinic.registration.UserKeys(u.id, u.username, u.phoneNumber, u.identityCode) " +
+           "FROM User u WHERE u.id > :afterId ORDER BY u.id")
+    List<UserKeys> findKeysAfter(@Param("afterId") Long afterId, Pageable pageable);
 }
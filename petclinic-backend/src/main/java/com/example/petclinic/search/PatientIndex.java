@@ -0,0 +1,299 @@
+package com.example.petclinic.search;
+
+import com.example.petclinic.dto.PatientMatchDTO;
+import com.example.petclinic.registration.UserKeys;
+import com.example.petclinic.repository.PetRepository;
+import com.example.petclinic.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+
+/**
+ * In-memory prefix index for the front desk's patient type-ahead: pet names, owner usernames,
+ * phone numbers (digits only) and identity codes, all lowercased. Terms live in one sorted
+ * map keyed "term\0field:id", so a prefix lookup is a single range scan that stops after k
+ * hits, and exact matches sort ahead of longer terms. Owner hits expand to the owner's pets.
+ *
+ * Kept current by {@link PatientIndexListener} after each commit on this instance and rebuilt
+ * from the database at startup and every refresh interval, which also picks up changes made by
+ * other instances and by bulk statements. Changes committed while a rebuild runs go to both
+ * generations, and the rebuild does not overwrite them with the rows it read earlier; the
+ * generation swap takes the same lock as a change, so none lands only in the discarded one.
+ */
+@Component
+@Lazy(false)
+public class PatientIndex {
+    private static final Logger log = LoggerFactory.getLogger(PatientIndex.class);
+
+    enum Field { PET_NAME, OWNER_USERNAME, OWNER_PHONE, OWNER_IDENTITY_CODE }
+
+    private record Posting(Field field, Long id) {}
+
+    private record Owner(String username, String phoneNumber, String identityCode) {}
+
+    private static final class Index {
+        final ConcurrentSkipListMap<String, Posting> terms = new ConcurrentSkipListMap<>();
+        final Map<Long, PetKeys> pets = new ConcurrentHashMap<>();
+        final Map<Long, Owner> owners = new ConcurrentHashMap<>();
+        final Map<Long, Set<Long>> petsByOwner = new ConcurrentHashMap<>();
+        // ids changed by live updates while this generation is being loaded
+        final Set<Long> touchedPets = ConcurrentHashMap.newKeySet();
+        final Set<Long> touchedOwners = ConcurrentHashMap.newKeySet();
+
+        synchronized void putPet(PetKeys pet) {
+            removePet(pet.id());
+            pets.put(pet.id(), pet);
+            index(pet.name(), Field.PET_NAME, pet.id());
+            if (pet.ownerId() != null) {
+                petsByOwner.computeIfAbsent(pet.ownerId(), id -> ConcurrentHashMap.newKeySet()).add(pet.id());
+            }
+        }
+
+        synchronized void removePet(Long petId) {
+            PetKeys old = pets.remove(petId);
+            if (old != null) {
+                unindex(old.name(), Field.PET_NAME, petId);
+                if (old.ownerId() != null) {
+                    Set<Long> owned = petsByOwner.get(old.ownerId());
+                    if (owned != null) {
+                        owned.remove(petId);
+                    }
+                }
+            }
+        }
+
+        synchronized void putOwner(Long ownerId, Owner owner) {
+            removeOwnerTerms(ownerId);
+            owners.put(ownerId, owner);
+            index(owner.username(), Field.OWNER_USERNAME, ownerId);
+            index(digits(owner.phoneNumber()), Field.OWNER_PHONE, ownerId);
+            index(owner.identityCode(), Field.OWNER_IDENTITY_CODE, ownerId);
+        }
+
+        synchronized void removeOwner(Long ownerId) {
+            removeOwnerTerms(ownerId);
+            Set<Long> owned = petsByOwner.remove(ownerId);
+            if (owned != null) {
+                owned.forEach(this::removePet);
+            }
+        }
+
+        private void removeOwnerTerms(Long ownerId) {
+            Owner old = owners.remove(ownerId);
+            if (old != null) {
+                unindex(old.username(), Field.OWNER_USERNAME, ownerId);
+                unindex(digits(old.phoneNumber()), Field.OWNER_PHONE, ownerId);
+                unindex(old.identityCode(), Field.OWNER_IDENTITY_CODE, ownerId);
+            }
+        }
+
+        private void index(String term, Field field, Long id) {
+            if (term != null && !term.isBlank()) {
+                terms.put(key(term, field, id), new Posting(field, id));
+            }
+        }
+
+        private void unindex(String term, Field field, Long id) {
+            if (term != null && !term.isBlank()) {
+                terms.remove(key(term, field, id));
+            }
+        }
+
+        private static String key(String term, Field field, Long id) {
+            return normalize(term) + '\0' + field.ordinal() + ':' + id;
+        }
+    }
+
+    private final UserRepository userRepository;
+    private final PetRepository petRepository;
+    private final int pageSize;
+    private final int minQueryLength;
+    private volatile Index current = new Index();
+    private volatile Index building;
+    // held while a change is applied and while generations are swapped, so none is lost in between
+    private final Object generations = new Object();
+
+    public PatientIndex(UserRepository userRepository,
+                        PetRepository petRepository,
+                        @Value("${petclinic.search.page-size:5000}") int pageSize,
+                        @Value("${petclinic.search.min-query-length:2}") int minQueryLength) {
+        this.userRepository = userRepository;
+        this.petRepository = petRepository;
+        this.pageSize = pageSize;
+        this.minQueryLength = minQueryLength;
+    }
+
+    /**
+     * Up to limit patients whose pet name or owner username, phone number or identity code
+     * starts with the query. Phone numbers match on digits, so "555-01" finds "+1 555 0123".
+     */
+    public List<PatientMatchDTO> search(String query, int limit) {
+        String text = query == null ? "" : query.strip();
+        Index index = current;
+        Map<Long, PatientMatchDTO> matches = new LinkedHashMap<>();
+        if (text.length() >= minQueryLength) {
+            collect(index, normalize(text), limit, matches);
+            String digits = digits(text);
+            if (matches.size() < limit && text.matches("[0-9+()\\-. ]+") && digits.length() >= minQueryLength
+                    && !digits.equals(normalize(text))) {
+                collect(index, digits, limit, matches);
+            }
+        }
+        return new ArrayList<>(matches.values());
+    }
+
+    public void petSaved(PetKeys pet) {
+        apply(index -> {
+            index.touchedPets.add(pet.id());
+            index.putPet(pet);
+        });
+    }
+
+    public void petRemoved(Long petId) {
+        apply(index -> {
+            index.touchedPets.add(petId);
+            index.removePet(petId);
+        });
+    }
+
+    public void ownerSaved(UserKeys owner) {
+        apply(index -> {
+            index.touchedOwners.add(owner.id());
+            index.putOwner(owner.id(), new Owner(owner.username(), owner.phoneNumber(), owner.identityCode()));
+        });
+    }
+
+    /**
+     * Drops the owner and all of their pets (the account purge deletes them in bulk).
+     */
+    public void ownerRemoved(Long ownerId) {
+        apply(index -> {
+            index.touchedOwners.add(ownerId);
+            Set<Long> owned = index.petsByOwner.get(ownerId);
+            if (owned != null) {
+                index.touchedPets.addAll(owned);
+            }
+            index.removeOwner(ownerId);
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildAtStartup() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.warn("Could not build the patient index; search only covers changes made since startup", e);
+        }
+    }
+
+    @Scheduled(cron = "${petclinic.search.rebuild-cron:0 */10 * * * *}")
+    public synchronized void rebuild() {
+        long started = System.nanoTime();
+        Index next = new Index();
+        synchronized (generations) {
+            building = next;
+        }
+        try {
+            Long afterId = 0L;
+            while (true) {
+                List<UserKeys> page = userRepository.findKeysAfter(afterId, PageRequest.of(0, pageSize));
+                for (UserKeys user : page) {
+                    if (!next.touchedOwners.contains(user.id())) {
+                        next.putOwner(user.id(), new Owner(user.username(), user.phoneNumber(), user.identityCode()));
+                    }
+                }
+                if (page.size() < pageSize) {
+                    break;
+                }
+                afterId = page.get(page.size() - 1).id();
+            }
+            afterId = 0L;
+            while (true) {
+                List<PetKeys> page = petRepository.findKeysAfter(afterId, PageRequest.of(0, pageSize));
+                for (PetKeys pet : page) {
+                    // an owner removed mid-scan takes the pets read before the removal with them
+                    if (!next.touchedPets.contains(pet.id()) && (pet.ownerId() == null || !next.touchedOwners.contains(pet.ownerId())
+                            || next.owners.containsKey(pet.ownerId()))) {
+                        next.putPet(pet);
+                    }
+                }
+                if (page.size() < pageSize) {
+                    break;
+                }
+                afterId = page.get(page.size() - 1).id();
+            }
+            synchronized (generations) {
+                current = next;
+                building = null;
+            }
+            log.info("Patient index built: {} pets, {} owners, {} terms in {} ms", next.pets.size(), next.owners.size(),
+                    next.terms.size(), (System.nanoTime() - started) / 1_000_000);
+        } finally {
+            synchronized (generations) {
+                building = null;
+            }
+        }
+    }
+
+    private void collect(Index index, String prefix, int limit, Map<Long, PatientMatchDTO> matches) {
+        for (Posting posting : index.terms.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+            if (posting.field() == Field.PET_NAME) {
+                add(index, posting.id(), posting.field(), matches);
+            } else {
+                for (Long petId : index.petsByOwner.getOrDefault(posting.id(), Set.of())) {
+                    add(index, petId, posting.field(), matches);
+                    if (matches.size() >= limit) {
+                        return;
+                    }
+                }
+            }
+            if (matches.size() >= limit) {
+                return;
+            }
+        }
+    }
+
+    private static void add(Index index, Long petId, Field field, Map<Long, PatientMatchDTO> matches) {
+        PetKeys pet = index.pets.get(petId);
+        if (pet == null || matches.containsKey(petId)) {
+            return;
+        }
+        Owner owner = pet.ownerId() != null ? index.owners.get(pet.ownerId()) : null;
+        matches.put(petId, new PatientMatchDTO(pet.id(), pet.name(), pet.species(), pet.ownerId(),
+                owner != null ? owner.username() : null, owner != null ? owner.phoneNumber() : null, field.name()));
+    }
+
+    private void apply(Consumer<Index> change) {
+        synchronized (generations) {
+            change.accept(current);
+            Index next = building;
+            if (next != null && next != current) {
+                change.accept(next);
+            }
+        }
+    }
+
+    private static String normalize(String term) {
+        return term.toLowerCase(Locale.ROOT);
+    }
+
+    private static String digits(String value) {
+        return value == null ? null : value.replaceAll("[^0-9]", "");
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.petclinic.search;
+
+import com.example.petclinic.model.Pet;
+import com.example.petclinic.model.User;
+import com.example.petclinic.registration.UserKeys;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Consumer;
+
+/**
+ * Feeds pet and user inserts, updates and deletes into the {@link PatientIndex} once they
+ * commit, so a rolled-back change never shows up in search. The searchable values are copied
+ * at flush time because the entity may change again before the commit.
+ * Resolved lazily for the same reason as {@code ChangeSequenceListener}.
+ */
+public class PatientIndexListener {
+
+    @Autowired
+    private ObjectProvider<PatientIndex> patientIndex;
+
+    @PostPersist
+    @PostUpdate
+    public void saved(Object entity) {
+        if (entity instanceof Pet pet) {
+            PetKeys keys = new PetKeys(pet.getId(), pet.getName(), pet.getSpecies(),
+                    pet.getOwner() != null ? pet.getOwner().getId() : null);
+            afterCommit(index -> index.petSaved(keys));
+        } else if (entity instanceof User user) {
+            UserKeys keys = new UserKeys(user.getId(), user.getUsername(), user.getPhoneNumber(), user.getIdentityCode());
+            afterCommit(index -> index.ownerSaved(keys));
+        }
+    }
+
+    @PostRemove
+    public void removed(Object entity) {
+        if (entity instanceof Pet pet) {
+            Long petId = pet.getId();
+            afterCommit(index -> index.petRemoved(petId));
+        } else if (entity instanceof User user) {
+            Long userId = user.getId();
+            afterCommit(index -> index.ownerRemoved(userId));
+        }
+    }
+
+    // Slices without the index (repository tests) have nothing to keep current
+    private void afterCommit(Consumer<PatientIndex> change) {
+        Runnable apply = () -> {
+            PatientIndex index = patientIndex.getIfAvailable();
+            if (index != null) {
+                change.accept(index);
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply.run();
+                }
+            });
+        } else {
+            apply.run();
+        }
+    }
+}
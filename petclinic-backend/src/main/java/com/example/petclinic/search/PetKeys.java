@@ -0,0 +1,6 @@
+package com.example.petclinic.search;
+
+/**
+ * The searchable columns of a pet, paged by id when the patient index is rebuilt.
+ */
+public record PetKeys(Long id, String name, String species, Long ownerId) {}
@@ -0,0 +1,42 @@
+package com.example.petclinic.security;
+
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import java.util.Collections;
+
+/**
+ * The authenticated principal. Carries the user id, role and (for doctors) the doctor id,
+ * resolved in one query when the request is authenticated, so controllers can take it via
+ * {@code @AuthenticationPrincipal} and hand ids to services instead of looking the user up again.
+ */
+public class ClinicUserDetails extends User {
+    private final Long userId;
+    private final String role;
+    private final Long doctorId;
+
+    public ClinicUserDetails(String username, String password, String role, Long userId, Long doctorId) {
+        super(username, password, Collections.singletonList(new SimpleGrantedAuthority(role)));
+        this.userId = userId;
+        this.role = role;
+        this.doctorId = doctorId;
+    }
+
+    public boolean isOwner() {
+        return "OWNER".equals(role);
+    }
+
+    public boolean isDoctor() {
+        return "DOCTOR".equals(role);
+    }
+
+    public Long requireDoctorId() {
+        if (doctorId == null) {
+            throw new IllegalArgumentException("Doctor record not found for user");
+        }
+        return doctorId;
+    }
+
+    public Long getUserId() { return userId; }
+    public String getRole() { return role; }
+    public Long getDoctorId() { return doctorId; }
+}
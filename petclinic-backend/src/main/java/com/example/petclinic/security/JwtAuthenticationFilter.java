@@ -1,5 +1,6 @@
 package com.example.petclinic.security;
 
+import com.example.petclinic.timing.RequestTimer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -7,7 +8,6 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -29,12 +29,19 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             jwt = authHeader.substring(7);
+            long parsing = RequestTimer.begin();
             username = jwtUtil.extractUsername(jwt);
+            RequestTimer.end(RequestTimer.Phase.JWT, parsing);
         }
 
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-            if (jwtUtil.validateToken(jwt)) {
+            long loading = RequestTimer.begin();
+            ClinicUserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            RequestTimer.end(RequestTimer.Phase.USER, loading);
+            long validating = RequestTimer.begin();
+            boolean valid = jwtUtil.validateToken(jwt);
+            RequestTimer.end(RequestTimer.Phase.JWT, validating);
+            if (valid) {
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                         userDetails, null, userDetails.getAuthorities());
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
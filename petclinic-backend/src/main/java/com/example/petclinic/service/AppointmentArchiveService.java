@@ -0,0 +1,160 @@
+package com.example.petclinic.service;
+
+import com.example.petclinic.dto.AppointmentDTO;
+import com.example.petclinic.model.Appointment;
+import com.example.petclinic.model.Pet;
+import com.example.petclinic.repository.AppointmentRepository;
+import com.example.petclinic.repository.ArchivedAppointmentRepository;
+import com.example.petclinic.repository.MedicalRecordRepository;
+import com.example.petclinic.repository.PetRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Hot/cold tiering for appointments. A nightly job moves appointments older than the
+ * horizon into appointments_archive in small batches, so the hot table only holds
+ * recent and upcoming visits. History reads consult the archive only when the
+ * requested range reaches back past the horizon.
+ */
+@Service
+@Lazy(false)
+public class AppointmentArchiveService {
+    private static final Logger log = LoggerFactory.getLogger(AppointmentArchiveService.class);
+
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+    @Autowired
+    private ArchivedAppointmentRepository archivedAppointmentRepository;
+    @Autowired
+    private MedicalRecordRepository medicalRecordRepository;
+    @Autowired
+    private PetRepository petRepository;
+    @Autowired
+    private AppointmentService appointmentService;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${petclinic.archive.horizon-days:90}")
+    private long horizonDays;
+
+    @Value("${petclinic.archive.batch-size:500}")
+    private int batchSize;
+
+    @Value("${petclinic.archive.mysql-partitioning:false}")
+    private boolean mysqlPartitioning;
+
+    @Scheduled(cron = "${petclinic.archive.cron:0 0 2 * * *}")
+    public void archiveNightly() {
+        if (mysqlPartitioning) {
+            ensureArchivePartition(LocalDate.now().plusMonths(1));
+        }
+        int archived = archiveBefore(LocalDateTime.now().minusDays(horizonDays));
+        log.info("Archived {} appointments older than {} days", archived, horizonDays);
+    }
+
+    /**
+     * Moves every appointment before the cutoff, one short transaction per batch.
+     */
+    public int archiveBefore(LocalDateTime cutoff) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        int total = 0;
+        while (true) {
+            Integer moved = transactionTemplate.execute(status -> {
+                List<Long> ids = appointmentRepository.findIdsBefore(cutoff, PageRequest.of(0, batchSize));
+                if (ids.isEmpty()) {
+                    return 0;
+                }
+                archivedAppointmentRepository.copyToArchive(ids, LocalDateTime.now());
+                medicalRecordRepository.detachFromAppointments(ids);
+                appointmentRepository.deleteAllByIdInBatch(ids);
+                return ids.size();
+            });
+            total += moved;
+            if (moved < batchSize) {
+                return total;
+            }
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<AppointmentDTO> getHistoryForDoctor(Long doctorId, LocalDateTime from, LocalDateTime to) {
+        List<AppointmentDTO> result = new ArrayList<>(appointmentService.getAgendaForDoctor(doctorId, from, to, null));
+        if (reachesArchive(from)) {
+            result.addAll(archivedAppointmentRepository.findForDoctor(doctorId, from, to));
+            result.sort(Comparator.comparing(AppointmentDTO::appointmentTime));
+        }
+        return result;
+    }
+
+    @Transactional(readOnly = true)
+    public List<AppointmentDTO> getHistoryForOwner(Long ownerId, LocalDateTime from, LocalDateTime to) {
+        List<Long> petIds = petRepository.findByOwnerId(ownerId).stream().map(Pet::getId).toList();
+        if (petIds.isEmpty()) {
+            return List.of();
+        }
+        List<AppointmentDTO> result = new ArrayList<>(appointmentRepository.findByPetIdInAndAppointmentTimeBetween(petIds, from, to).stream()
+                .map(this::convertToAppointmentDTO)
+                .toList());
+        if (reachesArchive(from)) {
+            result.addAll(archivedAppointmentRepository.findForPets(petIds, from, to));
+        }
+        result.sort(Comparator.comparing(AppointmentDTO::appointmentTime));
+        return result;
+    }
+
+    /**
+     * Rows older than the horizon may already be archived; anything newer is guaranteed hot.
+     */
+    private boolean reachesArchive(LocalDateTime from) {
+        return from.isBefore(LocalDateTime.now().minusDays(horizonDays));
+    }
+
+    /**
+     * Splits the catch-all pmax partition so the given month gets its own partition (MySQL only).
+     */
+    private void ensureArchivePartition(LocalDate month) {
+        LocalDate upperBound = month.withDayOfMonth(1).plusMonths(1);
+        String partition = "p" + month.format(DateTimeFormatter.ofPattern("yyyyMM"));
+        Integer exists = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.partitions WHERE table_schema = DATABASE() " +
+                "AND table_name = 'appointments_archive' AND partition_name = ?", Integer.class, partition);
+        if (exists != null && exists == 0) {
+            jdbcTemplate.execute("ALTER TABLE appointments_archive REORGANIZE PARTITION pmax INTO (" +
+                    "PARTITION " + partition + " VALUES LESS THAN (TO_DAYS('" + upperBound + "')), " +
+                    "PARTITION pmax VALUES LESS THAN MAXVALUE)");
+            log.info("Added archive partition {}", partition);
+        }
+    }
+
+    private AppointmentDTO convertToAppointmentDTO(Appointment a) {
+        return new AppointmentDTO(
+                a.getId(),
+                a.getAppointmentCode(),
+                a.getAppointmentTime(),
+                a.getPet().getId(),
+                a.getDoctor().getDoctorId(),
+                a.getStatus(),
+                a.getPet().getName(),
+                a.getDoctor().getUser().getUsername()
+        );
+    }
+}
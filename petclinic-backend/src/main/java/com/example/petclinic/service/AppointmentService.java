@@ -1,15 +1,20 @@
 package com.example.petclinic.service;
 
+import com.example.petclinic.analytics.AnalyticsService;
+import com.example.petclinic.audit.AuditEvent;
+import com.example.petclinic.audit.AuditLog;
+import com.example.petclinic.coalesce.Coalesced;
+import com.example.petclinic.dto.AppointmentDTO;
+import com.example.petclinic.event.OutboxPublisher;
 import com.example.petclinic.model.Appointment;
 import com.example.petclinic.model.Doctor;
 import com.example.petclinic.model.Pet;
-import com.example.petclinic.model.User;
 import com.example.petclinic.repository.AppointmentRepository;
 import com.example.petclinic.repository.DoctorRepository;
 import com.example.petclinic.repository.PetRepository;
-import com.example.petclinic.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
@@ -17,14 +22,21 @@ import java.util.List;
 
 @Service
 public class AppointmentService {
+    /** Coalescing group of {@link #getAgendaForDoctor}, invalidated by {@link DoctorAgendaCache}. */
+    public static final String AGENDA_FLIGHT = "doctor-agenda";
+
     @Autowired
     private AppointmentRepository appointmentRepository;
     @Autowired
     private PetRepository petRepository;
     @Autowired
-    private UserRepository userRepository;
-    @Autowired
     private DoctorRepository doctorRepository;
+    @Autowired
+    private OutboxPublisher outboxPublisher;
+    @Autowired
+    private AnalyticsService analyticsService;
+    @Autowired
+    private AuditLog auditLog;
 
     /**
      * Generate appointment code in format: APT-YYYYMMDD-DXXX-XXX
@@ -36,15 +48,15 @@ public class AppointmentService {
         String doctorStr = String.format("D%03d", doctorId);
         
         // Get count of appointments for this doctor on this date
-        long count = appointmentRepository.findByDoctorDoctorId(doctorId).stream()
-                .filter(a -> a.getAppointmentTime().toLocalDate().equals(date))
-                .count();
+        long count = appointmentRepository.countByDoctorDoctorIdAndAppointmentTimeBetween(
+                doctorId, date.atStartOfDay(), date.plusDays(1).atStartOfDay().minusNanos(1));
         
         String sequenceStr = String.format("%03d", count + 1);
         
         return String.format("APT-%s-%s-%s", dateStr, doctorStr, sequenceStr);
     }
 
+    @Transactional
     public Appointment createAppointment(Long petId, Long doctorId, LocalDateTime appointmentTime) {
         Pet pet = petRepository.findById(petId).orElseThrow(() -> 
             new IllegalArgumentException("Pet not found"));
@@ -57,12 +69,8 @@ public class AppointmentService {
             throw new IllegalArgumentException("Doctor is not active");
         }
         
-        // Check for scheduling conflicts (doctor-specific)
-        List<Appointment> conflicts = appointmentRepository.findByDoctorDoctorId(doctorId).stream()
-                .filter(a -> a.getAppointmentTime().equals(appointmentTime))
-                .toList();
-        
-        if (!conflicts.isEmpty()) {
+        // Check for scheduling conflicts (doctor-specific); uk_appointment_doctor_time backs this up
+        if (appointmentRepository.existsByDoctorDoctorIdAndAppointmentTime(doctorId, appointmentTime)) {
             throw new IllegalArgumentException("该时间段此医生已被预约 (Time slot unavailable for this doctor)");
         }
         
@@ -72,23 +80,31 @@ public class AppointmentService {
         appointment.setAppointmentTime(appointmentTime);
         appointment.setStatus("SCHEDULED");
         appointment.setAppointmentCode(generateAppointmentCode(doctorId, appointmentTime));
-        return appointmentRepository.save(appointment);
+        Appointment saved = appointmentRepository.save(appointment);
+        outboxPublisher.appointmentCreated(saved);
+        analyticsService.appointmentBooked(saved);
+        auditLog.record(AuditEvent.EntityType.APPOINTMENT, saved.getId(), AuditEvent.Action.CREATED,
+                "pet=" + petId + " doctor=" + doctorId + " time=" + appointmentTime);
+        return saved;
     }
 
-    public List<Appointment> getAppointmentsForOwner(String username) {
-        User owner = userRepository.findByUsername(username).orElseThrow();
-        List<Pet> pets = petRepository.findByOwnerId(owner.getId());
-        return appointmentRepository.findAll().stream()
-                .filter(a -> pets.stream().anyMatch(p -> p.getId().equals(a.getPet().getId())))
-                .toList();
+    @Transactional(readOnly = true)
+    public List<Appointment> getAppointmentsForOwner(Long ownerId) {
+        return appointmentRepository.findByPetOwnerId(ownerId);
     }
 
+    @Transactional(readOnly = true)
     public List<Appointment> getAppointmentsForDoctor(Long doctorId, LocalDateTime start, LocalDateTime end) {
-        return appointmentRepository.findByDoctorDoctorId(doctorId).stream()
-                .filter(a -> !a.getAppointmentTime().isBefore(start) && !a.getAppointmentTime().isAfter(end))
-                .toList();
+        return appointmentRepository.findByDoctorDoctorIdAndAppointmentTimeBetweenOrderByAppointmentTime(doctorId, start, end);
     }
 
+    @Coalesced(AGENDA_FLIGHT)
+    @Transactional(readOnly = true)
+    public List<AppointmentDTO> getAgendaForDoctor(Long doctorId, LocalDateTime start, LocalDateTime end, String status) {
+        return appointmentRepository.findDoctorAgenda(doctorId, start, end, status);
+    }
+
+    @Transactional
     public Appointment updateAppointment(Long appointmentId, Long petId, Long doctorId, LocalDateTime appointmentTime) {
         // Find the existing appointment
         Appointment existingAppointment = appointmentRepository.findById(appointmentId)
@@ -107,15 +123,13 @@ public class AppointmentService {
         }
         
         // Check for scheduling conflicts (doctor-specific), excluding current appointment
-        List<Appointment> conflicts = appointmentRepository.findByDoctorDoctorId(doctorId).stream()
-                .filter(a -> !a.getId().equals(appointmentId)) // Exclude current appointment
-                .filter(a -> a.getAppointmentTime().equals(appointmentTime))
-                .toList();
-        
-        if (!conflicts.isEmpty()) {
+        if (appointmentRepository.existsByDoctorDoctorIdAndAppointmentTimeAndIdNot(doctorId, appointmentTime, appointmentId)) {
             throw new IllegalArgumentException("该时间段此医生已被预约 (Time slot unavailable for this doctor)");
         }
         
+        Long previousDoctorId = existingAppointment.getDoctor().getDoctorId();
+        LocalDateTime previousAppointmentTime = existingAppointment.getAppointmentTime();
+
         // Update the appointment
         existingAppointment.setPet(pet);
         existingAppointment.setDoctor(doctor);
@@ -127,25 +141,31 @@ public class AppointmentService {
             existingAppointment.setAppointmentCode(generateAppointmentCode(doctorId, appointmentTime));
         }
         
-        return appointmentRepository.save(existingAppointment);
+        Appointment saved = appointmentRepository.save(existingAppointment);
+        outboxPublisher.appointmentRescheduled(saved, previousDoctorId, previousAppointmentTime);
+        analyticsService.appointmentRescheduled(saved, previousDoctorId, previousAppointmentTime);
+        auditLog.record(AuditEvent.EntityType.APPOINTMENT, saved.getId(), AuditEvent.Action.UPDATED,
+                "pet=" + petId + " doctor=" + previousDoctorId + "->" + doctorId
+                        + " time=" + previousAppointmentTime + "->" + appointmentTime);
+        return saved;
     }
 
-    public void deleteAppointment(Long appointmentId, String ownerUsername) {
+    @Transactional
+    public void deleteAppointment(Long appointmentId, Long ownerId) {
         // Find the appointment
         Appointment appointment = appointmentRepository.findById(appointmentId)
                 .orElseThrow(() -> new IllegalArgumentException("Appointment not found"));
         
-        // Verify ownership: Check if the appointment belongs to one of the owner's pets
-        User owner = userRepository.findByUsername(ownerUsername).orElseThrow();
-        List<Pet> ownerPets = petRepository.findByOwnerId(owner.getId());
-        
-        boolean isOwner = ownerPets.stream()
-                .anyMatch(pet -> pet.getId().equals(appointment.getPet().getId()));
-        
-        if (!isOwner) {
+        // Verify ownership: the appointment's pet must belong to the caller
+        if (!appointment.getPet().getOwner().getId().equals(ownerId)) {
             throw new IllegalArgumentException("Unauthorized: You can only delete your own appointments");
         }
         
+        outboxPublisher.appointmentCancelled(appointment);
+        analyticsService.appointmentCancelled(appointment);
+        auditLog.record(AuditEvent.EntityType.APPOINTMENT, appointment.getId(), AuditEvent.Action.DELETED,
+                "pet=" + appointment.getPet().getId() + " doctor=" + appointment.getDoctor().getDoctorId()
+                        + " time=" + appointment.getAppointmentTime());
         appointmentRepository.delete(appointment);
     }
 }
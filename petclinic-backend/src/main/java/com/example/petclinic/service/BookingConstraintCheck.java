@@ -0,0 +1,60 @@
+package com.example.petclinic.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Refuses to start without uk_appointment_doctor_time: booking relies on it to reject a second
+ * appointment in a doctor's slot, and ddl-auto=update silently fails to add it while duplicates
+ * exist. The upgrade block in init-db.sql removes them and adds the constraint.
+ */
+@Component
+@Lazy(false)
+public class BookingConstraintCheck implements SmartInitializingSingleton {
+    private static final List<String> COLUMNS = List.of("doctor_id", "appointment_time");
+
+    private final DataSource dataSource;
+
+    // the entity manager factory is only injected so that the schema update has run first
+    public BookingConstraintCheck(DataSource dataSource, EntityManagerFactory entityManagerFactory) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!hasDoctorTimeUniqueIndex()) {
+            throw new IllegalStateException("appointments has no unique key on (doctor_id, appointment_time);"
+                    + " run the uk_appointment_doctor_time upgrade in init-db.sql");
+        }
+    }
+
+    boolean hasDoctorTimeUniqueIndex() {
+        Map<String, List<String>> uniqueIndexes = new HashMap<>();
+        try (Connection connection = dataSource.getConnection();
+             ResultSet rs = connection.getMetaData().getIndexInfo(connection.getCatalog(), connection.getSchema(), "appointments", true, false)) {
+            // ordered by index name, then column position
+            while (rs.next()) {
+                String column = rs.getString("COLUMN_NAME");
+                if (column != null) {
+                    uniqueIndexes.computeIfAbsent(rs.getString("INDEX_NAME"), name -> new ArrayList<>())
+                            .add(column.toLowerCase(Locale.ROOT));
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+        return uniqueIndexes.containsValue(COLUMNS);
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.petclinic.service;
+
+import com.example.petclinic.coalesce.SingleFlight;
+import com.example.petclinic.dto.AppointmentDTO;
+import com.example.petclinic.event.AppointmentEvent;
+import com.example.petclinic.event.AppointmentEventListener;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-doctor cache of today's agenda, which doctors poll all day long.
+ *
+ * Entries are dropped when the outbox delivers a booking, reschedule or cancellation for
+ * the doctor (both doctors on a reassignment), so staleness is bounded by the outbox poll
+ * interval; the TTL only guards against missed events. A load that overlaps an
+ * invalidation is returned but not cached, and eviction also stops loads started before it
+ * from being shared with callers that come after.
+ */
+@Component
+public class DoctorAgendaCache implements AppointmentEventListener {
+
+    private record Entry(LocalDate day, List<AppointmentDTO> agenda, long loadedAtNanos) {}
+
+    private final AppointmentService appointmentService;
+    private final SingleFlight singleFlight;
+    private final long ttlNanos;
+    private final Map<Long, Entry> agendas = new ConcurrentHashMap<>();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public DoctorAgendaCache(AppointmentService appointmentService,
+                             SingleFlight singleFlight,
+                             @Value("${petclinic.agenda.today-ttl-seconds:300}") long ttlSeconds) {
+        this.appointmentService = appointmentService;
+        this.singleFlight = singleFlight;
+        this.ttlNanos = ttlSeconds * 1_000_000_000L;
+    }
+
+    public List<AppointmentDTO> getToday(Long doctorId) {
+        LocalDate today = LocalDate.now();
+        long now = System.nanoTime();
+        Entry entry = agendas.get(doctorId);
+        if (entry != null && entry.day().equals(today) && now - entry.loadedAtNanos() < ttlNanos) {
+            return entry.agenda();
+        }
+        long seenInvalidations = invalidations.get();
+        List<AppointmentDTO> agenda = List.copyOf(appointmentService.getAgendaForDoctor(
+                doctorId, today.atStartOfDay(), today.plusDays(1).atStartOfDay().minusNanos(1), null));
+        if (invalidations.get() == seenInvalidations) {
+            Entry loaded = new Entry(today, agenda, now);
+            agendas.put(doctorId, loaded);
+            // an invalidation between the check and the put would otherwise be lost
+            if (invalidations.get() != seenInvalidations) {
+                agendas.remove(doctorId, loaded);
+            }
+        }
+        return agenda;
+    }
+
+    public void evict(Long doctorId) {
+        // before the counter moves, so a load that sees the new count cannot join an older query
+        singleFlight.invalidate(AppointmentService.AGENDA_FLIGHT);
+        invalidations.incrementAndGet();
+        agendas.remove(doctorId);
+    }
+
+    @Override
+    public void onAppointmentEvent(AppointmentEvent event) {
+        evict(event.doctorId());
+        if (event.previousDoctorId() != null && !event.previousDoctorId().equals(event.doctorId())) {
+            evict(event.previousDoctorId());
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.example.petclinic.service;
+
+import com.example.petclinic.event.AppointmentEvent;
+import com.example.petclinic.event.AppointmentEventListener;
+import com.example.petclinic.repository.AppointmentRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory view of which slots each doctor has booked over the booking horizon, used to
+ * pick the first available doctor without a conflict scan per candidate.
+ *
+ * A doctor's slots are loaded on first use and kept current by local reservations and by
+ * outbox events; they are reloaded after the refresh interval to heal anything missed.
+ * The index can be stale, never authoritative: uk_appointment_doctor_time decides, and a
+ * slot the database rejects is simply marked booked and the next candidate tried.
+ */
+@Component
+public class DoctorSlotIndex implements AppointmentEventListener {
+
+    public record Slot(Long doctorId, LocalDateTime time) {}
+
+    private record Candidate(Slot slot, int dayLoad) {}
+
+    private static final class DoctorSlots {
+        final LocalDateTime windowStart;
+        final LocalDateTime windowEnd;
+        final long loadedAtNanos;
+        final NavigableSet<LocalDateTime> booked;
+
+        DoctorSlots(LocalDateTime windowStart, LocalDateTime windowEnd, long loadedAtNanos, Collection<LocalDateTime> booked) {
+            this.windowStart = windowStart;
+            this.windowEnd = windowEnd;
+            this.loadedAtNanos = loadedAtNanos;
+            this.booked = new TreeSet<>(booked);
+        }
+
+        boolean covers(LocalDateTime time) {
+            return !time.isBefore(windowStart) && time.isBefore(windowEnd);
+        }
+    }
+
+    private final AppointmentRepository appointmentRepository;
+    private final Map<Long, DoctorSlots> doctors = new ConcurrentHashMap<>();
+    private final int slotMinutes;
+    private final LocalTime openTime;
+    private final LocalTime closeTime;
+    private final int horizonDays;
+    private final long refreshNanos;
+
+    public DoctorSlotIndex(AppointmentRepository appointmentRepository,
+                           @Value("${petclinic.booking.slot-minutes:30}") int slotMinutes,
+                           @Value("${petclinic.booking.open-time:09:00}") String openTime,
+                           @Value("${petclinic.booking.close-time:17:00}") String closeTime,
+                           @Value("${petclinic.booking.horizon-days:30}") int horizonDays,
+                           @Value("${petclinic.booking.refresh-minutes:10}") long refreshMinutes) {
+        this.appointmentRepository = appointmentRepository;
+        this.slotMinutes = slotMinutes;
+        this.openTime = LocalTime.parse(openTime);
+        this.closeTime = LocalTime.parse(closeTime);
+        this.horizonDays = horizonDays;
+        this.refreshNanos = refreshMinutes * 60_000_000_000L;
+    }
+
+    /**
+     * Reserves the earliest free slot at or after notBefore across the given doctors. Ties on
+     * time go to the doctor with the fewest bookings that day, then to a random one.
+     */
+    public Optional<Slot> reserveEarliest(Collection<Long> doctorIds, LocalDateTime notBefore) {
+        while (true) {
+            List<Candidate> candidates = new ArrayList<>();
+            for (Long doctorId : doctorIds) {
+                DoctorSlots slots = slotsFor(doctorId, notBefore);
+                synchronized (slots) {
+                    LocalDateTime free = nextFree(slots, notBefore);
+                    if (free != null) {
+                        LocalDateTime day = free.toLocalDate().atStartOfDay();
+                        candidates.add(new Candidate(new Slot(doctorId, free), slots.booked.subSet(day, day.plusDays(1)).size()));
+                    }
+                }
+            }
+            if (candidates.isEmpty()) {
+                return Optional.empty();
+            }
+            Collections.shuffle(candidates);
+            candidates.sort(Comparator.comparing((Candidate c) -> c.slot().time()).thenComparingInt(Candidate::dayLoad));
+            for (Candidate candidate : candidates) {
+                if (tryReserve(candidate.slot())) {
+                    return Optional.of(candidate.slot());
+                }
+            }
+            // every candidate was taken by a concurrent booking; look again
+        }
+    }
+
+    public boolean tryReserve(Slot slot) {
+        DoctorSlots slots = slotsFor(slot.doctorId(), slot.time());
+        synchronized (slots) {
+            return slots.booked.add(slot.time());
+        }
+    }
+
+    public void release(Slot slot) {
+        remove(slot.doctorId(), slot.time());
+    }
+
+    @Override
+    public void onAppointmentEvent(AppointmentEvent event) {
+        switch (event.type()) {
+            case CREATED -> add(event.doctorId(), event.appointmentTime());
+            case RESCHEDULED -> {
+                remove(event.previousDoctorId(), event.previousAppointmentTime());
+                add(event.doctorId(), event.appointmentTime());
+            }
+            case CANCELLED -> remove(event.doctorId(), event.appointmentTime());
+        }
+    }
+
+    private void add(Long doctorId, LocalDateTime time) {
+        DoctorSlots slots = doctorId != null ? doctors.get(doctorId) : null;
+        if (slots != null && time != null) {
+            synchronized (slots) {
+                if (slots.covers(time)) {
+                    slots.booked.add(time);
+                }
+            }
+        }
+    }
+
+    private void remove(Long doctorId, LocalDateTime time) {
+        DoctorSlots slots = doctorId != null ? doctors.get(doctorId) : null;
+        if (slots != null && time != null) {
+            synchronized (slots) {
+                slots.booked.remove(time);
+            }
+        }
+    }
+
+    private DoctorSlots slotsFor(Long doctorId, LocalDateTime needed) {
+        long now = System.nanoTime();
+        DoctorSlots slots = doctors.get(doctorId);
+        if (slots != null && slots.covers(needed) && now - slots.loadedAtNanos < refreshNanos) {
+            return slots;
+        }
+        LocalDateTime windowStart = (needed.isBefore(LocalDateTime.now()) ? LocalDateTime.now() : needed)
+                .toLocalDate().atStartOfDay();
+        LocalDateTime windowEnd = windowStart.plusDays(horizonDays + 1L);
+        DoctorSlots loaded = new DoctorSlots(windowStart, windowEnd, now,
+                appointmentRepository.findBookedTimes(doctorId, windowStart, windowEnd));
+        doctors.put(doctorId, loaded);
+        return loaded;
+    }
+
+    private LocalDateTime nextFree(DoctorSlots slots, LocalDateTime notBefore) {
+        LocalDateTime candidate = alignToSlot(notBefore);
+        LocalDateTime limit = notBefore.toLocalDate().plusDays(horizonDays + 1L).atStartOfDay();
+        while (candidate.isBefore(limit) && slots.covers(candidate)) {
+            if (!slots.booked.contains(candidate)) {
+                return candidate;
+            }
+            candidate = alignToSlot(candidate.plusMinutes(slotMinutes));
+        }
+        return null;
+    }
+
+    /**
+     * The first slot start at or after time within opening hours, rolling over to the next day.
+     */
+    LocalDateTime alignToSlot(LocalDateTime time) {
+        LocalDate day = time.toLocalDate();
+        LocalDateTime open = day.atTime(openTime);
+        if (time.isBefore(open)) {
+            return open;
+        }
+        long minutes = ChronoUnit.MINUTES.between(open, time);
+        if (open.plusMinutes(minutes).isBefore(time)) {
+            minutes++;
+        }
+        long slotIndex = (minutes + slotMinutes - 1) / slotMinutes;
+        LocalDateTime slot = open.plusMinutes(slotIndex * slotMinutes);
+        if (slot.plusMinutes(slotMinutes).isAfter(day.atTime(closeTime))) {
+            return day.plusDays(1).atTime(openTime);
+        }
+        return slot;
+    }
+}
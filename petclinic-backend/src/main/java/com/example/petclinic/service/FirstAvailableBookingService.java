@@ -0,0 +1,77 @@
+package com.example.petclinic.service;
+
+import com.example.petclinic.model.Appointment;
+import com.example.petclinic.model.Doctor;
+import com.example.petclinic.repository.AppointmentRepository;
+import com.example.petclinic.repository.DoctorRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Books the earliest slot with any active doctor of a specialization. The slot is picked
+ * and reserved in {@link DoctorSlotIndex}; the insert itself goes through
+ * {@link AppointmentService#createAppointment} in its own transaction, and a slot taken
+ * meanwhile by another instance is skipped in favour of the next candidate.
+ */
+@Service
+public class FirstAvailableBookingService {
+    private static final Logger log = LoggerFactory.getLogger(FirstAvailableBookingService.class);
+
+    @Autowired
+    private AppointmentService appointmentService;
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+    @Autowired
+    private DoctorRepository doctorRepository;
+    @Autowired
+    private DoctorSlotIndex doctorSlotIndex;
+
+    @Value("${petclinic.booking.horizon-days:30}")
+    private int horizonDays;
+
+    @Value("${petclinic.booking.max-attempts:5}")
+    private int maxAttempts;
+
+    public Appointment bookFirstAvailable(Long petId, String specialization, LocalDateTime notBefore) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime from = notBefore == null || notBefore.isBefore(now) ? now : notBefore;
+        if (from.isAfter(now.plusDays(horizonDays))) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "notBefore is beyond the booking horizon");
+        }
+        List<Long> doctorIds = doctorRepository.findBySpecializationIgnoreCaseAndActiveTrue(specialization).stream()
+                .map(Doctor::getDoctorId)
+                .toList();
+
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            Optional<DoctorSlotIndex.Slot> reserved = doctorSlotIndex.reserveEarliest(doctorIds, from);
+            if (reserved.isEmpty()) {
+                break;
+            }
+            DoctorSlotIndex.Slot slot = reserved.get();
+            try {
+                return appointmentService.createAppointment(petId, slot.doctorId(), slot.time());
+            } catch (IllegalArgumentException | DataIntegrityViolationException e) {
+                if (!appointmentRepository.existsByDoctorDoctorIdAndAppointmentTime(slot.doctorId(), slot.time())) {
+                    doctorSlotIndex.release(slot);
+                    throw e;
+                }
+                // booked elsewhere before our insert; the slot stays marked and the next one is tried
+                log.debug("Slot {} for doctor {} was taken concurrently (attempt {})", slot.time(), slot.doctorId(), attempt);
+            } catch (RuntimeException e) {
+                doctorSlotIndex.release(slot);
+                throw e;
+            }
+        }
+        throw new ResponseStatusException(HttpStatus.CONFLICT, "No " + specialization + " doctor available");
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.petclinic.service;
+
+import com.example.petclinic.analytics.AnalyticsService;
+import com.example.petclinic.audit.AuditEvent;
+import com.example.petclinic.audit.AuditLog;
+import com.example.petclinic.dto.MedicalRecordDTO;
+import com.example.petclinic.model.MedicalRecord;
+import com.example.petclinic.repository.AppointmentRepository;
+import com.example.petclinic.repository.MedicalRecordRepository;
+import com.example.petclinic.repository.PetRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+public class MedicalRecordService {
+    @Autowired
+    private MedicalRecordRepository medicalRecordRepository;
+    @Autowired
+    private PetRepository petRepository;
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+    @Autowired
+    private AnalyticsService analyticsService;
+    @Autowired
+    private AuditLog auditLog;
+    @Autowired
+    private PetService petService;
+
+    /**
+     * The record and its species/day rollup commit together; if the rollup fails the record is rolled back.
+     */
+    @Transactional
+    public MedicalRecordDTO addMedicalRecord(MedicalRecordDTO dto) {
+        MedicalRecord record = new MedicalRecord();
+        record.setVisitDate(dto.visitDate());
+        record.setDiagnosis(dto.diagnosis());
+        record.setPrescription(dto.prescription());
+        record.setPet(petRepository.findById(dto.petId()).orElseThrow());
+        record.setAppointment(appointmentRepository.findById(dto.appointmentId()).orElseThrow());
+        MedicalRecord saved = medicalRecordRepository.save(record);
+        analyticsService.visitRecorded(saved);
+        // the pet's last visit date in its owner's list
+        petService.petsChanged();
+        auditLog.record(AuditEvent.EntityType.MEDICAL_RECORD, saved.getId(), AuditEvent.Action.CREATED,
+                "pet=" + dto.petId() + " appointment=" + dto.appointmentId() + " visit=" + dto.visitDate());
+        return new MedicalRecordDTO(saved.getId(), saved.getVisitDate(), saved.getDiagnosis(), saved.getPrescription(), saved.getPet().getId(), saved.getAppointmentId());
+    }
+}
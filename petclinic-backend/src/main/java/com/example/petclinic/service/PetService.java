@@ -1,13 +1,17 @@
 package com.example.petclinic.service;
 
+import com.example.petclinic.coalesce.Coalesced;
+import com.example.petclinic.coalesce.SingleFlight;
 import com.example.petclinic.dto.PetDTO;
 import com.example.petclinic.model.Pet;
-import com.example.petclinic.model.User;
 import com.example.petclinic.repository.MedicalRecordRepository;
 import com.example.petclinic.repository.PetRepository;
 import com.example.petclinic.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
@@ -15,36 +19,57 @@ import java.util.stream.Collectors;
 
 @Service
 public class PetService {
+    /** Coalescing group of {@link #getPetsForOwner}, invalidated by {@link #petsChanged}. */
+    public static final String OWNER_PETS_FLIGHT = "owner-pets";
+
     @Autowired
     private PetRepository petRepository;
     @Autowired
     private UserRepository userRepository;
     @Autowired
     private MedicalRecordRepository medicalRecordRepository;
+    @Autowired
+    private SingleFlight singleFlight;
 
-    public Pet addPet(Pet pet, String username) {
-        User owner = userRepository.findByUsername(username).orElseThrow();
-        pet.setOwner(owner);
-        return petRepository.save(pet);
+    @Transactional
+    public Pet addPet(Pet pet, Long ownerId) {
+        pet.setOwner(userRepository.getReferenceById(ownerId));
+        Pet saved = petRepository.save(pet);
+        petsChanged();
+        return saved;
     }
 
-    public List<PetDTO> getPetsForOwner(String username) {
-        User owner = userRepository.findByUsername(username).orElseThrow();
-        List<Pet> pets = petRepository.findByOwnerId(owner.getId());
+    @Coalesced(OWNER_PETS_FLIGHT)
+    @Transactional(readOnly = true)
+    public List<PetDTO> getPetsForOwner(Long ownerId) {
+        List<Pet> pets = petRepository.findByOwnerId(ownerId);
         return pets.stream()
                 .map(this::convertToPetDTO)
                 .collect(Collectors.toList());
     }
 
-    public Optional<Pet> getPetByIdForOwner(Long petId, String username) {
-        User owner = userRepository.findByUsername(username).orElseThrow();
-        Optional<Pet> pet = petRepository.findById(petId);
-        if (pet.isPresent() && pet.get().getOwner().getId().equals(owner.getId())) {
-            return pet;
-        }
-        return Optional.empty();
+    @Transactional(readOnly = true)
+    public Optional<Pet> getPetByIdForOwner(Long petId, Long ownerId) {
+        return petRepository.findByIdAndOwnerId(petId, ownerId);
     }
     
+    /**
+     * For every write that changes an owner's pet list, last visit dates included. Takes effect
+     * on commit: a list started any earlier may not show the write and must not be shared.
+     */
+    public void petsChanged() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    singleFlight.invalidate(OWNER_PETS_FLIGHT);
+                }
+            });
+        } else {
+            singleFlight.invalidate(OWNER_PETS_FLIGHT);
+        }
+    }
+
     private PetDTO convertToPetDTO(Pet pet) {
         LocalDate lastVisitDate = medicalRecordRepository
                 .findLastVisitDateByPetId(pet.getId())
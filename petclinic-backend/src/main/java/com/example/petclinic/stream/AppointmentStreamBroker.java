@@ -0,0 +1,289 @@
+package com.example.petclinic.stream;
+
+import com.example.petclinic.event.AppointmentEvent;
+import com.example.petclinic.event.AppointmentEventListener;
+import com.example.petclinic.model.OutboxEvent;
+import com.example.petclinic.repository.OutboxEventRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Pushes appointment changes from the outbox to subscribed doctors and owners over SSE.
+ *
+ * Emitters are parked servlet async requests, so an idle subscriber costs a socket and a
+ * small object rather than a thread. Each subscriber has its own bounded queue, drained by
+ * at most one writer thread at a time, so per-connection order is kept while a slow client
+ * only holds up its own queue; one whose queue overflows is disconnected and resumes with
+ * Last-Event-ID once it catches up. The outbox dispatcher only enqueues and never blocks.
+ * The SSE id is the outbox id; a reconnect with Last-Event-ID replays newer events from the
+ * outbox table (retention permitting), otherwise the client gets a "reset" event and should
+ * refetch the full list. The replay runs as the subscriber's first drain, ahead of any live
+ * events queued meanwhile.
+ */
+@Component
+@Lazy(false)
+public class AppointmentStreamBroker implements AppointmentEventListener {
+    private static final Logger log = LoggerFactory.getLogger(AppointmentStreamBroker.class);
+    private static final long COMMENT = -1;
+
+    public enum Scope { OWNER, DOCTOR }
+
+    private record Outgoing(long eventId, SseEmitter.SseEventBuilder event) {}
+
+    private static final class Subscriber {
+        final Scope scope;
+        final Long scopeId;
+        final SseEmitter emitter;
+        final BlockingQueue<Outgoing> queue;
+        final AtomicBoolean draining = new AtomicBoolean();
+        // only touched by the draining writer
+        final Set<Long> replayedIds = new HashSet<>();
+        volatile Long replayAfter;
+        volatile boolean closed;
+
+        Subscriber(Scope scope, Long scopeId, SseEmitter emitter, int queueCapacity, Long replayAfter) {
+            this.scope = scope;
+            this.scopeId = scopeId;
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+            this.replayAfter = replayAfter;
+        }
+    }
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+    private final int queueCapacity;
+    private final ExecutorService writers;
+    private final Counter slowDisconnects;
+    private final Map<Long, Set<Subscriber>> ownerSubscribers = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Subscriber>> doctorSubscribers = new ConcurrentHashMap<>();
+
+    @Value("${petclinic.stream.timeout-minutes:30}")
+    private long timeoutMinutes;
+
+    @Value("${petclinic.stream.max-replay:500}")
+    private int maxReplay;
+
+    public AppointmentStreamBroker(OutboxEventRepository outboxEventRepository,
+                                   ObjectMapper objectMapper,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${petclinic.stream.queue-capacity:256}") int queueCapacity,
+                                   @Value("${petclinic.stream.writer-threads:4}") int writerThreads) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+        this.queueCapacity = queueCapacity;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.writers = Executors.newFixedThreadPool(writerThreads, r -> {
+            Thread thread = new Thread(r, "appointment-stream-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.slowDisconnects = Counter.builder("petclinic.stream.slow-disconnects")
+                .description("Subscribers disconnected because their send queue was full")
+                .register(meterRegistry);
+        Gauge.builder("petclinic.stream.subscribers", this, AppointmentStreamBroker::subscriberCount)
+                .description("Open appointment SSE connections")
+                .register(meterRegistry);
+    }
+
+    public SseEmitter subscribe(Scope scope, Long scopeId, Long lastEventId) {
+        SseEmitter emitter = newEmitter(timeoutMinutes * 60_000L);
+        Subscriber subscriber = new Subscriber(scope, scopeId, emitter, queueCapacity, lastEventId);
+        Runnable remove = () -> close(subscriber);
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(e -> remove.run());
+        indexFor(scope).computeIfAbsent(scopeId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        // commits the response headers so clients see the stream as open right away
+        enqueue(subscriber, new Outgoing(COMMENT, SseEmitter.event().comment("connected")));
+        return emitter;
+    }
+
+    @Override
+    public void onAppointmentEvent(long eventId, AppointmentEvent event) {
+        deliver(ownerSubscribers.get(event.ownerId()), eventId, event);
+        deliver(doctorSubscribers.get(event.doctorId()), eventId, event);
+        if (event.previousDoctorId() != null && !event.previousDoctorId().equals(event.doctorId())) {
+            deliver(doctorSubscribers.get(event.previousDoctorId()), eventId, event);
+        }
+    }
+
+    /**
+     * Comment line that keeps proxies from closing idle connections and flushes out dead ones.
+     */
+    @Scheduled(fixedDelayString = "${petclinic.stream.heartbeat-ms:25000}")
+    public void heartbeat() {
+        forEachSubscriber(s -> {
+            if (s.queue.isEmpty()) {
+                enqueue(s, new Outgoing(COMMENT, SseEmitter.event().comment("ping")));
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        writers.shutdownNow();
+        forEachSubscriber(s -> s.emitter.complete());
+    }
+
+    SseEmitter newEmitter(long timeoutMillis) {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    int subscriberCount() {
+        return ownerSubscribers.values().stream().mapToInt(Set::size).sum()
+                + doctorSubscribers.values().stream().mapToInt(Set::size).sum();
+    }
+
+    private void deliver(Set<Subscriber> subscribers, long eventId, AppointmentEvent event) {
+        if (subscribers == null) {
+            return;
+        }
+        for (Subscriber subscriber : subscribers) {
+            enqueue(subscriber, new Outgoing(eventId, toSse(eventId, event)));
+        }
+    }
+
+    private void enqueue(Subscriber subscriber, Outgoing outgoing) {
+        if (subscriber.closed) {
+            return;
+        }
+        if (!subscriber.queue.offer(outgoing)) {
+            slowDisconnects.increment();
+            close(subscriber);
+            subscriber.emitter.completeWithError(new IOException("Subscriber too slow, send queue full"));
+            return;
+        }
+        scheduleDrain(subscriber);
+    }
+
+    private void scheduleDrain(Subscriber subscriber) {
+        if (subscriber.draining.compareAndSet(false, true)) {
+            try {
+                writers.execute(() -> drain(subscriber));
+            } catch (RuntimeException e) {
+                // rejected during shutdown
+                subscriber.draining.set(false);
+            }
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            Long replayAfter = subscriber.replayAfter;
+            if (replayAfter != null) {
+                subscriber.replayAfter = null;
+                // the "connected" comment goes first so the response is committed before the replay
+                Outgoing first = subscriber.queue.poll();
+                if (first != null) {
+                    send(subscriber, first.event());
+                }
+                replay(subscriber, replayAfter);
+            }
+            Outgoing outgoing;
+            while (!subscriber.closed && (outgoing = subscriber.queue.poll()) != null) {
+                // events still pending in the outbox during replay arrive here a second time
+                if (outgoing.eventId() == COMMENT || !subscriber.replayedIds.remove(outgoing.eventId())) {
+                    send(subscriber, outgoing.event());
+                }
+            }
+        } finally {
+            subscriber.draining.set(false);
+            if (!subscriber.closed && !subscriber.queue.isEmpty()) {
+                scheduleDrain(subscriber);
+            }
+        }
+    }
+
+    private void replay(Subscriber subscriber, long lastEventId) {
+        Optional<OutboxEvent> oldest = outboxEventRepository.findFirstByOrderByIdAsc();
+        List<OutboxEvent> missed = outboxEventRepository.findByIdGreaterThanOrderByIdAsc(lastEventId, PageRequest.of(0, maxReplay + 1));
+        if ((oldest.isPresent() && oldest.get().getId() > lastEventId + 1) || missed.size() > maxReplay) {
+            // events after lastEventId were purged or there are too many to be worth replaying
+            send(subscriber, SseEmitter.event().name("reset").data("{}", MediaType.APPLICATION_JSON));
+            return;
+        }
+        for (OutboxEvent outboxEvent : missed) {
+            try {
+                AppointmentEvent event = objectMapper.readValue(outboxEvent.getPayload(), AppointmentEvent.class);
+                if (matches(subscriber, event)) {
+                    subscriber.replayedIds.add(outboxEvent.getId());
+                    send(subscriber, toSse(outboxEvent.getId(), event));
+                }
+            } catch (IOException e) {
+                log.warn("Skipping unreadable outbox event {} during replay", outboxEvent.getId(), e);
+            }
+        }
+    }
+
+    private boolean matches(Subscriber subscriber, AppointmentEvent event) {
+        if (subscriber.scope == Scope.OWNER) {
+            return subscriber.scopeId.equals(event.ownerId());
+        }
+        return subscriber.scopeId.equals(event.doctorId()) || subscriber.scopeId.equals(event.previousDoctorId());
+    }
+
+    private SseEmitter.SseEventBuilder toSse(long eventId, AppointmentEvent event) {
+        return SseEmitter.event()
+                .id(Long.toString(eventId))
+                .name(event.type().name().toLowerCase())
+                .data(event, MediaType.APPLICATION_JSON);
+    }
+
+    private void send(Subscriber subscriber, SseEmitter.SseEventBuilder sseEvent) {
+        if (subscriber.closed) {
+            return;
+        }
+        try {
+            subscriber.emitter.send(sseEvent);
+        } catch (IOException | IllegalStateException e) {
+            close(subscriber);
+            subscriber.emitter.completeWithError(e);
+        }
+    }
+
+    private void close(Subscriber subscriber) {
+        subscriber.closed = true;
+        subscriber.queue.clear();
+        indexFor(subscriber.scope).computeIfPresent(subscriber.scopeId, (id, set) -> {
+            set.remove(subscriber);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    private void forEachSubscriber(Consumer<Subscriber> action) {
+        ownerSubscribers.values().forEach(set -> set.forEach(action));
+        doctorSubscribers.values().forEach(set -> set.forEach(action));
+    }
+
+    private Map<Long, Set<Subscriber>> indexFor(Scope scope) {
+        return scope == Scope.OWNER ? ownerSubscribers : doctorSubscribers;
+    }
+}
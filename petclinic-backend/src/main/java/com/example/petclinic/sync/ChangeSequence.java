@@ -0,0 +1,315 @@
+package com.example.petclinic.sync;
+
+import com.example.petclinic.model.SyncSequence;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Global, monotonically increasing change sequence for delta sync.
+ *
+ * Values are handed out from blocks reserved on the sync_sequence row in a short transaction of
+ * their own, so writers never hold that row lock. Every value issued inside a transaction stays
+ * "in flight" until the transaction completes, and current() only reports values below the
+ * lowest one any instance may still commit: a reader that sees current value V has every change
+ * up to V visible, which is what lets a sync token be a plain number without ever skipping a
+ * late commit.
+ *
+ * Other instances learn this instance's lowest uncommitted value from its sync_instances row.
+ * The reservation that hands out a block lowers the row in the same transaction, so a block is
+ * never visible in current_value before it is covered; raising it again is left to publish(),
+ * which also gives up the rest of an idle block so that instance stops holding the others back.
+ * Rows whose heartbeat has gone stale belong to dead instances, whose transactions the database
+ * has rolled back, and are ignored.
+ */
+@Component
+@Lazy(false)
+public class ChangeSequence {
+    private static final Logger log = LoggerFactory.getLogger(ChangeSequence.class);
+
+    private static final String RESERVE = "UPDATE sync_sequence SET current_value = current_value + ? WHERE id = ?";
+    private static final String LOWER_WATERMARK = "UPDATE sync_instances SET low_water = CASE WHEN low_water IS NULL OR low_water > ? THEN ? ELSE low_water END,"
+            + " generation = generation + 1, heartbeat_at = ? WHERE instance_id = ?";
+    private static final String INSERT_INSTANCE =
+            "INSERT INTO sync_instances (instance_id, low_water, generation, heartbeat_at) VALUES (?, ?, ?, ?)";
+    private static final String INSERT_TOMBSTONE =
+            "INSERT INTO sync_tombstones (seq, entity_type, entity_id, owner_id, doctor_id, deleted_at) VALUES (?, ?, ?, ?, ?, ?)";
+
+    public record Removal(Long entityId, Long ownerId, Long doctorId) {}
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${petclinic.sync.sequence-block-size:50}")
+    private int blockSize;
+    @Value("${petclinic.sync.instance-timeout-seconds:60}")
+    private long instanceTimeoutSeconds;
+
+    private final String instanceId = UUID.randomUUID().toString();
+
+    // guarded by this
+    private long issued;
+    private long reservedThrough;
+    private int reserving;
+    private long generation;
+    private final NavigableMap<Long, InFlight> inFlight = new TreeMap<>();
+
+    public long next() {
+        InFlight owner = currentTransaction();
+        while (true) {
+            synchronized (this) {
+                if (issued < reservedThrough) {
+                    long seq = ++issued;
+                    if (owner != null) {
+                        inFlight.put(seq, owner);
+                    }
+                    return seq;
+                }
+                reserving++;
+            }
+            // reserve outside the lock so other writers are not held up by the round trip
+            Block block = null;
+            try {
+                block = reserve();
+            } finally {
+                synchronized (this) {
+                    reserving--;
+                    if (block != null) {
+                        generation = Math.max(generation, block.generation());
+                        if (block.end() > reservedThrough) {
+                            issued = Math.max(issued, block.end() - blockSize);
+                            reservedThrough = block.end();
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Highest value below every value still in flight in another transaction, on any live
+     * instance; values issued in the caller's own transaction count as visible to it. Must be
+     * read from the primary: replicas can lag behind the commits it accounts for.
+     */
+    public long current() {
+        InFlight own = TransactionSynchronizationManager.isSynchronizationActive()
+                ? (InFlight) TransactionSynchronizationManager.getResource(this) : null;
+        // current_value first: a block it includes is already covered in sync_instances
+        long horizon = readColumn("current_value");
+        Long ownLowWater = null;
+        List<Map<String, Object>> instances = jdbcTemplate.queryForList(
+                "SELECT instance_id, low_water FROM sync_instances WHERE low_water IS NOT NULL AND heartbeat_at >= ?",
+                LocalDateTime.now().minusSeconds(instanceTimeoutSeconds));
+        for (Map<String, Object> instance : instances) {
+            long lowWater = ((Number) instance.get("low_water")).longValue();
+            if (instanceId.equals(instance.get("instance_id"))) {
+                ownLowWater = lowWater;
+            } else {
+                horizon = Math.min(horizon, lowWater - 1);
+            }
+        }
+        synchronized (this) {
+            if (reserving > 0 && ownLowWater != null) {
+                // a block may be reserved but not installed yet
+                horizon = Math.min(horizon, ownLowWater - 1);
+            }
+            for (Map.Entry<Long, InFlight> entry : inFlight.entrySet()) {
+                if (entry.getValue() != own) {
+                    return Math.min(horizon, entry.getKey() - 1);
+                }
+            }
+            return issued < reservedThrough ? Math.min(horizon, issued) : horizon;
+        }
+    }
+
+    /**
+     * Raises this instance's published low water mark to its oldest value in flight and
+     * refreshes its heartbeat. With nothing in flight the rest of the current block is given
+     * up, so an idle instance does not hold back the others.
+     */
+    @Scheduled(fixedDelayString = "${petclinic.sync.publish-interval-ms:1000}")
+    public void publish() {
+        Long lowWater;
+        long publishedGeneration;
+        synchronized (this) {
+            if (reserving > 0) {
+                return;
+            }
+            if (inFlight.isEmpty()) {
+                issued = reservedThrough;
+                lowWater = null;
+            } else {
+                lowWater = inFlight.firstKey();
+            }
+            publishedGeneration = generation;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        int updated = jdbcTemplate.update("UPDATE sync_instances SET low_water = ?, heartbeat_at = ? WHERE instance_id = ? AND generation = ?",
+                lowWater, now, instanceId, publishedGeneration);
+        if (updated == 0 && lowWater != null) {
+            // our row was expired while we still have values in flight
+            try {
+                jdbcTemplate.update(INSERT_INSTANCE, instanceId, lowWater, publishedGeneration, now);
+            } catch (DuplicateKeyException e) {
+                // still there: a reservation since the snapshot above has lowered it already
+            }
+        }
+        int expired = jdbcTemplate.update("DELETE FROM sync_instances WHERE heartbeat_at < ?", now.minusSeconds(instanceTimeoutSeconds));
+        if (expired > 0) {
+            log.info("Dropped {} stale change-sequence instance(s)", expired);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        synchronized (this) {
+            if (!inFlight.isEmpty() || reserving > 0) {
+                return;
+            }
+        }
+        try {
+            jdbcTemplate.update("DELETE FROM sync_instances WHERE instance_id = ?", instanceId);
+        } catch (DataAccessException e) {
+            log.warn("Could not remove change-sequence instance {}; it expires after {}s", instanceId, instanceTimeoutSeconds);
+        }
+    }
+
+    public long purgedThrough() {
+        return readColumn("purged_through");
+    }
+
+    public void markPurgedThrough(long seq) {
+        jdbcTemplate.update("UPDATE sync_sequence SET purged_through = ? WHERE id = ? AND purged_through < ?", seq, SyncSequence.ROW_ID, seq);
+    }
+
+    public void recordTombstone(String entityType, Long entityId, Long ownerId, Long doctorId) {
+        jdbcTemplate.update(INSERT_TOMBSTONE, next(), entityType, entityId, ownerId, doctorId, LocalDateTime.now());
+    }
+
+    /**
+     * Tombstones for rows removed by a bulk statement, all under a single sequence value.
+     */
+    public void recordTombstones(String entityType, List<Removal> removals) {
+        if (removals.isEmpty()) {
+            return;
+        }
+        long seq = next();
+        Timestamp deletedAt = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_TOMBSTONE, removals, removals.size(), (ps, removal) -> {
+            ps.setLong(1, seq);
+            ps.setString(2, entityType);
+            ps.setLong(3, removal.entityId());
+            ps.setObject(4, removal.ownerId());
+            ps.setObject(5, removal.doctorId());
+            ps.setTimestamp(6, deletedAt);
+        });
+    }
+
+    /**
+     * Rows that predate delta sync get sequence 0, so they are part of every full sync but
+     * never of a delta. After the first start this only touches rows written by bulk statements.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void initialize() {
+        createRow();
+        int backfilled = jdbcTemplate.update("UPDATE pets SET change_seq = 0 WHERE change_seq IS NULL")
+                + jdbcTemplate.update("UPDATE appointments SET change_seq = 0 WHERE change_seq IS NULL")
+                + jdbcTemplate.update("UPDATE medical_records SET change_seq = 0 WHERE change_seq IS NULL");
+        if (backfilled > 0) {
+            log.info("Marked {} rows without a change sequence as sequence 0", backfilled);
+        }
+    }
+
+    private void createRow() {
+        if (jdbcTemplate.queryForList("SELECT id FROM sync_sequence WHERE id = ?", Long.class, SyncSequence.ROW_ID).isEmpty()) {
+            try {
+                jdbcTemplate.update("INSERT INTO sync_sequence (id, current_value, purged_through) VALUES (?, 0, 0)", SyncSequence.ROW_ID);
+            } catch (DuplicateKeyException e) {
+                // created concurrently
+            }
+        }
+    }
+
+    /**
+     * Reserves the next block and, in the same transaction, lowers this instance's low water
+     * mark to its first value.
+     */
+    private Block reserve() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return template.execute(status -> {
+            if (jdbcTemplate.update(RESERVE, blockSize, SyncSequence.ROW_ID) == 0) {
+                createRow();
+                jdbcTemplate.update(RESERVE, blockSize, SyncSequence.ROW_ID);
+            }
+            long end = readColumn("current_value");
+            long start = end - blockSize + 1;
+            LocalDateTime now = LocalDateTime.now();
+            // concurrent reservations are serialized by the sync_sequence row lock
+            if (jdbcTemplate.update(LOWER_WATERMARK, start, start, now, instanceId) == 0) {
+                jdbcTemplate.update(INSERT_INSTANCE, instanceId, start, 1L, now);
+            }
+            Long reservedGeneration = jdbcTemplate.queryForObject("SELECT generation FROM sync_instances WHERE instance_id = ?", Long.class, instanceId);
+            return new Block(end, reservedGeneration);
+        });
+    }
+
+    private InFlight currentTransaction() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        InFlight owner = (InFlight) TransactionSynchronizationManager.getResource(this);
+        if (owner == null) {
+            owner = new InFlight();
+            TransactionSynchronizationManager.bindResource(this, owner);
+            InFlight registered = owner;
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(ChangeSequence.this);
+                    synchronized (ChangeSequence.this) {
+                        inFlight.values().removeIf(tx -> tx == registered);
+                    }
+                }
+            });
+        }
+        return owner;
+    }
+
+    private static final class InFlight {
+    }
+
+    private record Block(long end, long generation) {}
+
+    private long readColumn(String column) {
+        List<Long> values = jdbcTemplate.queryForList("SELECT " + column + " FROM sync_sequence WHERE id = ?", Long.class, SyncSequence.ROW_ID);
+        return values.isEmpty() ? 0 : values.get(0);
+    }
+}
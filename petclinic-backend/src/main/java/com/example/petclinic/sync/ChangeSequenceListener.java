@@ -0,0 +1,87 @@
+package com.example.petclinic.sync;
+
+import com.example.petclinic.model.Appointment;
+import com.example.petclinic.model.MedicalRecord;
+import com.example.petclinic.model.Pet;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreRemove;
+import jakarta.persistence.PreUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Stamps Pet, Appointment and MedicalRecord with the next change sequence on every insert
+ * and update, and leaves a tombstone when one is deleted. Bulk JPQL statements (archival)
+ * bypass these callbacks on purpose: archived rows are not deletions from the client's view.
+ * The account purge also deletes in bulk and records its tombstones itself.
+ * Instantiated by Hibernate through Spring's bean container while the entity manager factory
+ * is still being built, so the sequence bean is resolved lazily on first use.
+ */
+public class ChangeSequenceListener {
+    public static final String PET = "pet";
+    public static final String APPOINTMENT = "appointment";
+    public static final String MEDICAL_RECORD = "medicalRecord";
+
+    @Autowired
+    private ObjectProvider<ChangeSequence> changeSequence;
+
+    @PostLoad
+    public void loaded(Object entity) {
+        if (entity instanceof Appointment appointment) {
+            appointment.setLoadedDoctorId(doctorIdOf(appointment));
+        }
+    }
+
+    @PrePersist
+    public void created(Object entity) {
+        stamp(entity);
+        if (entity instanceof Appointment appointment) {
+            appointment.setLoadedDoctorId(doctorIdOf(appointment));
+        }
+    }
+
+    @PreUpdate
+    public void updated(Object entity) {
+        stamp(entity);
+        if (entity instanceof Appointment appointment) {
+            Long doctorId = doctorIdOf(appointment);
+            Long previousDoctorId = appointment.getLoadedDoctorId();
+            if (previousDoctorId != null && !previousDoctorId.equals(doctorId)) {
+                // gone from the previous doctor's schedule; the owner still sees the update
+                changeSequence.getObject().recordTombstone(APPOINTMENT, appointment.getId(), null, previousDoctorId);
+            }
+            appointment.setLoadedDoctorId(doctorId);
+        }
+    }
+
+    @PreRemove
+    public void removed(Object entity) {
+        if (entity instanceof Pet pet) {
+            changeSequence.getObject().recordTombstone(PET, pet.getId(), ownerIdOf(pet), null);
+        } else if (entity instanceof Appointment appointment) {
+            changeSequence.getObject().recordTombstone(APPOINTMENT, appointment.getId(), ownerIdOf(appointment.getPet()), doctorIdOf(appointment));
+        } else if (entity instanceof MedicalRecord record) {
+            changeSequence.getObject().recordTombstone(MEDICAL_RECORD, record.getId(), ownerIdOf(record.getPet()), null);
+        }
+    }
+
+    private void stamp(Object entity) {
+        long seq = changeSequence.getObject().next();
+        if (entity instanceof Pet pet) {
+            pet.setChangeSeq(seq);
+        } else if (entity instanceof Appointment appointment) {
+            appointment.setChangeSeq(seq);
+        } else if (entity instanceof MedicalRecord record) {
+            record.setChangeSeq(seq);
+        }
+    }
+
+    private static Long doctorIdOf(Appointment appointment) {
+        return appointment.getDoctor() != null ? appointment.getDoctor().getDoctorId() : null;
+    }
+
+    private static Long ownerIdOf(Pet pet) {
+        return pet != null && pet.getOwner() != null ? pet.getOwner().getId() : null;
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.petclinic.sync;
+
+import com.example.petclinic.dto.SyncResponseDTO;
+import com.example.petclinic.repository.AppointmentRepository;
+import com.example.petclinic.repository.MedicalRecordRepository;
+import com.example.petclinic.repository.PetRepository;
+import com.example.petclinic.repository.SyncTombstoneRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Delta sync for the mobile app. A token is the change sequence the client has seen; each
+ * call returns rows in the caller's scope with a sequence in (token, current] plus tombstones,
+ * all from (owner|doctor, change_seq) index ranges. A missing token, or one older than the
+ * purged tombstones, gets a full snapshot instead.
+ */
+@Service
+@Lazy(false)
+public class SyncService {
+    private static final Logger log = LoggerFactory.getLogger(SyncService.class);
+    private static final long FULL = -1L;
+
+    @Autowired
+    private ChangeSequence changeSequence;
+    @Autowired
+    private PetRepository petRepository;
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+    @Autowired
+    private MedicalRecordRepository medicalRecordRepository;
+    @Autowired
+    private SyncTombstoneRepository syncTombstoneRepository;
+
+    @Value("${petclinic.sync.tombstone-retention-days:30}")
+    private long tombstoneRetentionDays;
+
+    // not read-only, so it stays on the primary: a lagging replica could miss rows the token covers
+    @Transactional
+    public SyncResponseDTO syncForOwner(Long ownerId, Long since) {
+        // read the sequence first: everything up to it is committed (see ChangeSequence)
+        long upTo = changeSequence.current();
+        long from = effectiveSince(since);
+        return new SyncResponseDTO(
+                Long.toString(upTo),
+                from == FULL,
+                petRepository.findChangedForOwner(ownerId, from, upTo),
+                appointmentRepository.findChangedForOwner(ownerId, from, upTo),
+                medicalRecordRepository.findChangedForOwner(ownerId, from, upTo),
+                from == FULL ? List.of() : syncTombstoneRepository.findForOwner(ownerId, from, upTo));
+    }
+
+    @Transactional
+    public SyncResponseDTO syncForDoctor(Long doctorId, Long since) {
+        long upTo = changeSequence.current();
+        long from = effectiveSince(since);
+        return new SyncResponseDTO(
+                Long.toString(upTo),
+                from == FULL,
+                List.of(),
+                appointmentRepository.findChangedForDoctor(doctorId, from, upTo),
+                List.of(),
+                from == FULL ? List.of() : syncTombstoneRepository.findForDoctor(doctorId, from, upTo));
+    }
+
+    @Scheduled(cron = "${petclinic.sync.purge-cron:0 45 3 * * *}")
+    @Transactional
+    public void purgeTombstones() {
+        syncTombstoneRepository.findMaxSeqDeletedBefore(LocalDateTime.now().minusDays(tombstoneRetentionDays))
+                .ifPresent(seq -> {
+                    int purged = syncTombstoneRepository.deleteThroughSeq(seq);
+                    changeSequence.markPurgedThrough(seq);
+                    log.info("Purged {} sync tombstones through sequence {}", purged, seq);
+                });
+    }
+
+    private long effectiveSince(Long since) {
+        if (since == null || since < changeSequence.purgedThrough()) {
+            return FULL;
+        }
+        return since;
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.petclinic.timing;
+
+import java.util.Locale;
+
+/**
+ * Per-request phase totals for the Server-Timing header and the access log. Only requests
+ * picked by {@link ServerTimingFilter} get a timer; everywhere else {@link #begin()} is a
+ * thread-local read returning 0 and {@link #end} returns at once. Work done on other threads
+ * (async executors, the audit writer) is not attributed to the request.
+ */
+public final class RequestTimer {
+    public static final String HEADER = "Server-Timing";
+
+    public enum Phase {
+        JWT("jwt", "JWT verification"),
+        USER("user", "User lookup"),
+        QUEUE("queue", "Bulkhead wait"),
+        DB("db", "JDBC"),
+        HANDLER("app", "Controller"),
+        // statements run while the body is written are open-session-in-view lazy loads
+        SERIALIZATION_DB("ser-db", "Lazy loads during serialization"),
+        SERIALIZATION("ser", "Serialization and write");
+
+        private final String metric;
+        private final String description;
+
+        Phase(String metric, String description) {
+            this.metric = metric;
+            this.description = description;
+        }
+    }
+
+    private static final ThreadLocal<RequestTimer> CURRENT = new ThreadLocal<>();
+    private static final Phase[] PHASES = Phase.values();
+
+    private final long started;
+    private final long[] nanos = new long[PHASES.length];
+    private final int[] counts = new int[PHASES.length];
+    private long handlerStart;
+    private long bodyStart;
+    private long finished;
+    private boolean headerAllowed;
+
+    RequestTimer(long started) {
+        this.started = started;
+    }
+
+    static RequestTimer start() {
+        RequestTimer timer = new RequestTimer(System.nanoTime());
+        CURRENT.set(timer);
+        return timer;
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+
+    public static RequestTimer current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * A start time for {@link #end}, or 0 when the request is not being timed.
+     */
+    public static long begin() {
+        return CURRENT.get() != null ? System.nanoTime() : 0;
+    }
+
+    public static void end(Phase phase, long begun) {
+        if (begun != 0) {
+            record(phase, System.nanoTime() - begun);
+        }
+    }
+
+    public static void record(Phase phase, long elapsedNanos) {
+        RequestTimer timer = CURRENT.get();
+        if (timer != null) {
+            timer.add(phase == Phase.DB && timer.bodyStart != 0 ? Phase.SERIALIZATION_DB : phase, elapsedNanos);
+        }
+    }
+
+    public static void handlerStarted() {
+        RequestTimer timer = CURRENT.get();
+        if (timer != null) {
+            timer.markHandlerStarted(System.nanoTime());
+        }
+    }
+
+    /**
+     * Lets the caller see its own timings in the Server-Timing header; everyone else's only
+     * reach the access log.
+     */
+    public static void allowHeader() {
+        RequestTimer timer = CURRENT.get();
+        if (timer != null) {
+            timer.headerAllowed = true;
+        }
+    }
+
+    public static void handlerFinished() {
+        RequestTimer timer = CURRENT.get();
+        if (timer != null) {
+            timer.markHandlerFinished(System.nanoTime());
+        }
+    }
+
+    boolean isHeaderAllowed() {
+        return headerAllowed;
+    }
+
+    void add(Phase phase, long elapsedNanos) {
+        nanos[phase.ordinal()] += elapsedNanos;
+        counts[phase.ordinal()]++;
+    }
+
+    void markHandlerStarted(long now) {
+        if (handlerStart == 0) {
+            handlerStart = now;
+        }
+    }
+
+    /**
+     * Called when the body is about to be written, or after completion for handlers that
+     * write nothing through a message converter; only the first call counts.
+     */
+    void markHandlerFinished(long now) {
+        if (handlerStart != 0 && bodyStart == 0) {
+            bodyStart = now;
+            add(Phase.HANDLER, now - handlerStart);
+        }
+    }
+
+    void finish(long now) {
+        finished = now;
+        if (bodyStart != 0) {
+            add(Phase.SERIALIZATION, now - bodyStart);
+        }
+    }
+
+    /**
+     * The Server-Timing value for what has been measured so far. Sent before the body, so it
+     * carries everything up to the first byte; serialization only reaches the access log.
+     */
+    String header(long now) {
+        StringBuilder header = new StringBuilder(160);
+        for (Phase phase : PHASES) {
+            int i = phase.ordinal();
+            if (counts[i] == 0) {
+                continue;
+            }
+            header.append(phase.metric).append(";dur=").append(millis(nanos[i]))
+                    .append(";desc=\"").append(phase.description);
+            if (phase == Phase.DB || phase == Phase.SERIALIZATION_DB) {
+                header.append(" (").append(counts[i]).append(counts[i] == 1 ? " statement)" : " statements)");
+            }
+            header.append("\"").append(", ");
+        }
+        return header.append("total;dur=").append(millis(now - started)).toString();
+    }
+
+    /**
+     * Compact form for the access log, e.g. "jwt=0.2 user=1.4 db=3.1/4 app=5.0 ser=0.6 total=7.3".
+     */
+    String summary() {
+        StringBuilder summary = new StringBuilder(96);
+        for (Phase phase : PHASES) {
+            int i = phase.ordinal();
+            if (counts[i] == 0) {
+                continue;
+            }
+            summary.append(phase.metric).append('=').append(millis(nanos[i]));
+            if (phase == Phase.DB || phase == Phase.SERIALIZATION_DB) {
+                summary.append('/').append(counts[i]);
+            }
+            summary.append(' ');
+        }
+        return summary.append("total=").append(millis((finished != 0 ? finished : System.nanoTime()) - started)).toString();
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.1f", nanos / 1_000_000d);
+    }
+}
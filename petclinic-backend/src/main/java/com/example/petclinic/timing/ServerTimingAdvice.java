@@ -0,0 +1,37 @@
+package com.example.petclinic.timing;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Closes the controller phase and sets Server-Timing as the message converter is about to
+ * write, the last moment the header can still be sent ahead of the body.
+ */
+@ControllerAdvice
+public class ServerTimingAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        RequestTimer timer = RequestTimer.current();
+        if (timer != null) {
+            long now = System.nanoTime();
+            timer.markHandlerFinished(now);
+            if (timer.isHeaderAllowed()) {
+                response.getHeaders().set(RequestTimer.HEADER, timer.header(now));
+            }
+        }
+        return body;
+    }
+}
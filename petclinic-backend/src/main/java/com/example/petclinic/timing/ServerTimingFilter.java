@@ -0,0 +1,60 @@
+package com.example.petclinic.timing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Times a sample of requests phase by phase (see {@link RequestTimer}). Runs ahead of the
+ * security chain so JWT verification is inside the measurement. The header normally goes out
+ * from {@link ServerTimingAdvice} just before the body; responses written without a message
+ * converter (attachment downloads, errors, 204s) get it here if nothing is committed yet.
+ * Only staff (DOCTOR authority, which also covers the actuator) get the header, since timings
+ * say a lot about the backend. The summary of every sampled request is left in a request
+ * attribute for the access log pattern, where it also covers serialization.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class ServerTimingFilter extends OncePerRequestFilter {
+    public static final String ACCESS_LOG_ATTRIBUTE = "petclinic.serverTiming";
+
+    private final boolean enabled;
+    private final double sampleRate;
+
+    public ServerTimingFilter(@Value("${petclinic.server-timing.enabled:true}") boolean enabled,
+                              @Value("${petclinic.server-timing.sample-rate:0.01}") double sampleRate) {
+        this.enabled = enabled;
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!enabled || (sampleRate < 1.0 && ThreadLocalRandom.current().nextDouble() >= sampleRate)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        RequestTimer timer = RequestTimer.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            long now = System.nanoTime();
+            timer.markHandlerFinished(now);
+            if (timer.isHeaderAllowed() && !response.isCommitted() && !response.containsHeader(RequestTimer.HEADER)) {
+                response.setHeader(RequestTimer.HEADER, timer.header(now));
+            }
+            timer.finish(now);
+            request.setAttribute(ACCESS_LOG_ATTRIBUTE, timer.summary());
+            RequestTimer.clear();
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.petclinic.warmup;
+
+import com.example.petclinic.controller.AppointmentController;
+import com.example.petclinic.controller.PetController;
+import com.example.petclinic.controller.UserController;
+import com.example.petclinic.dto.DoctorDTO;
+import com.example.petclinic.repository.UserRepository;
+import com.example.petclinic.security.ClinicUserDetails;
+import com.example.petclinic.service.DoctorAgendaCache;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Runs the main read paths a few hundred times before the instance reports ready, so the first
+ * real requests after a deploy do not pay for cold JIT, unbuilt Hibernate query plans and Jackson
+ * serializers, a half-open connection pool and an empty agenda cache.
+ *
+ * Runs on the startup thread from ApplicationReadyEvent; Boot only flips readiness to
+ * ACCEPTING_TRAFFIC once every ready listener has returned, and this indicator (in the readiness
+ * group) stays OUT_OF_SERVICE until the warm-up is over. Liveness is unaffected. Only reads are
+ * exercised, against the first owner and doctor found; a failing step is logged and skipped
+ * rather than keeping the instance out of rotation.
+ */
+@Component
+@Lazy(false)
+public class WarmUp implements HealthIndicator {
+    private static final Logger log = LoggerFactory.getLogger(WarmUp.class);
+
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private UserController userController;
+    @Autowired
+    private PetController petController;
+    @Autowired
+    private AppointmentController appointmentController;
+    @Autowired
+    private DoctorAgendaCache doctorAgendaCache;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${petclinic.warmup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${petclinic.warmup.iterations:300}")
+    private int iterations;
+
+    @Value("${petclinic.warmup.max-seconds:60}")
+    private long maxSeconds;
+
+    @Value("${petclinic.warmup.connections:10}")
+    private int connections;
+
+    private volatile boolean complete;
+    private volatile String summary = "pending";
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!enabled) {
+            summary = "disabled";
+            complete = true;
+            return;
+        }
+        long started = System.nanoTime();
+        long deadline = started + maxSeconds * 1_000_000_000L;
+        try {
+            int opened = step("connection pool", this::openConnections, 0);
+            int agendas = step("agenda cache", this::loadAgendas, 0);
+            Optional<ClinicUserDetails> owner = step("owner lookup", () -> principal("OWNER"), Optional.empty());
+            Optional<ClinicUserDetails> doctor = step("doctor lookup", () -> principal("DOCTOR"), Optional.empty());
+            int runs = 0;
+            while (runs < iterations && System.nanoTime() < deadline) {
+                if (!step("read paths", () -> readPaths(owner, doctor), false)) {
+                    break;
+                }
+                runs++;
+            }
+            summary = String.format("%d connections, %d agendas, %d iterations in %d ms",
+                    opened, agendas, runs, (System.nanoTime() - started) / 1_000_000);
+            log.info("Warm-up finished: {}", summary);
+        } finally {
+            complete = true;
+        }
+    }
+
+    @Override
+    public Health health() {
+        return (complete ? Health.up() : Health.outOfService()).withDetail("warmUp", summary).build();
+    }
+
+    /**
+     * Holds connections open together so the pool has to create them now rather than under load.
+     */
+    private int openConnections() throws SQLException {
+        int target = connections;
+        if (dataSource.isWrapperFor(HikariDataSource.class)) {
+            target = Math.min(target, dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize());
+        }
+        List<Connection> held = new ArrayList<>();
+        try {
+            for (int i = 0; i < target; i++) {
+                Connection connection = dataSource.getConnection();
+                held.add(connection);
+                connection.isValid(5);
+            }
+            return held.size();
+        } finally {
+            for (Connection connection : held) {
+                connection.close();
+            }
+        }
+    }
+
+    private int loadAgendas() {
+        List<DoctorDTO> doctors = userController.getAllDoctors();
+        doctors.forEach(d -> doctorAgendaCache.getToday(d.doctorId()));
+        return doctors.size();
+    }
+
+    private Optional<ClinicUserDetails> principal(String role) {
+        return userRepository.findFirstByRoleOrderByIdAsc(role)
+                .flatMap(user -> userRepository.findUserDetailsByUsername(user.getUsername()));
+    }
+
+    private boolean readPaths(Optional<ClinicUserDetails> owner, Optional<ClinicUserDetails> doctor) throws JsonProcessingException {
+        objectMapper.writeValueAsBytes(userController.getAllDoctors());
+        if (owner.isPresent()) {
+            ClinicUserDetails principal = userRepository.findUserDetailsByUsername(owner.get().getUsername()).orElseThrow();
+            objectMapper.writeValueAsBytes(petController.getPets(principal));
+            objectMapper.writeValueAsBytes(appointmentController.getAppointments(null, null, null, principal));
+            LocalDateTime now = LocalDateTime.now();
+            objectMapper.writeValueAsBytes(appointmentController.getAppointmentHistory(now.minusYears(1), now, principal));
+        }
+        if (doctor.isPresent()) {
+            ClinicUserDetails principal = userRepository.findUserDetailsByUsername(doctor.get().getUsername()).orElseThrow();
+            objectMapper.writeValueAsBytes(appointmentController.getAppointments(null, null, null, principal));
+            objectMapper.writeValueAsBytes(appointmentController.getTodaysAgenda(principal));
+        }
+        return true;
+    }
+
+    private interface Step<T> {
+        T run() throws Exception;
+    }
+
+    private <T> T step(String name, Step<T> step, T fallback) {
+        try {
+            return step.run();
+        } catch (Exception e) {
+            log.warn("Warm-up step '{}' failed, continuing without it", name, e);
+            return fallback;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.petclinic.analytics;
+
+import com.example.petclinic.dto.AnalyticsSummaryDTO;
+import com.example.petclinic.model.*;
+import com.example.petclinic.sync.ChangeSequence;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({AnalyticsService.class, ChangeSequence.class})
+class AnalyticsServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 3, 2);
+
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    private Pet pet;
+    private Doctor doctor;
+
+    @BeforeEach
+    void setUp() {
+        User owner = user("owner1", "OWNER", "111");
+        pet = new Pet();
+        pet.setName("Rex");
+        pet.setSpecies("Dog");
+        pet.setBreed("Beagle");
+        pet.setBirthDate(LocalDate.of(2020, 1, 1));
+        pet.setOwner(owner);
+        entityManager.persist(pet);
+        doctor = new Doctor();
+        doctor.setUser(user("drwho", "DOCTOR", "222"));
+        doctor.setSpecialization("General");
+        doctor.setRegisteredAt(LocalDateTime.now());
+        entityManager.persist(doctor);
+    }
+
+    @Test
+    void testIncrementalRollups_BookRescheduleCancel() {
+        Appointment first = appointment("A-1", DAY.atTime(9, 0));
+        Appointment second = appointment("A-2", DAY.atTime(10, 0));
+        analyticsService.appointmentBooked(first);
+        analyticsService.appointmentBooked(second);
+
+        second.setAppointmentTime(DAY.plusDays(1).atTime(10, 0));
+        analyticsService.appointmentRescheduled(second, doctor.getDoctorId(), DAY.atTime(10, 0));
+        analyticsService.appointmentCancelled(first);
+
+        AnalyticsSummaryDTO summary = analyticsService.getSummary(DAY, DAY.plusDays(1));
+        assertEquals(1, summary.scheduled());
+        assertEquals(1, summary.cancelled());
+        assertEquals(0.5, summary.cancellationRate(), 1e-9);
+        assertEquals(2, summary.days().size());
+        assertEquals(0L, summary.days().get(0).scheduled());
+        assertEquals(1L, summary.days().get(1).scheduled());
+        assertEquals("drwho", summary.doctors().get(0).doctorName());
+        assertEquals(1.0 / 32, summary.doctors().get(0).utilization(), 1e-9);
+    }
+
+    @Test
+    void testRebuild_CountsExistingHistory() {
+        appointment("A-1", DAY.atTime(9, 0));
+        appointment("A-2", DAY.atTime(11, 0));
+        MedicalRecord record = new MedicalRecord();
+        record.setVisitDate(DAY);
+        record.setDiagnosis("Checkup");
+        record.setPrescription("None");
+        record.setPet(pet);
+        entityManager.persist(record);
+        analyticsService.visitRecorded(record);
+        entityManager.flush();
+
+        analyticsService.rebuild();
+
+        AnalyticsSummaryDTO summary = analyticsService.getSummary(DAY, DAY);
+        assertEquals(2, summary.scheduled());
+        assertEquals(1, summary.species().size());
+        assertEquals("Dog", summary.species().get(0).species());
+        assertEquals(1L, summary.species().get(0).visits());
+    }
+
+    private User user(String username, String role, String phone) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("secret");
+        user.setRole(role);
+        user.setPhoneNumber(phone);
+        user.setIdentityCode("ID-" + username);
+        entityManager.persist(user);
+        return user;
+    }
+
+    private Appointment appointment(String code, LocalDateTime time) {
+        Appointment appointment = new Appointment();
+        appointment.setAppointmentCode(code);
+        appointment.setAppointmentTime(time);
+        appointment.setStatus("SCHEDULED");
+        appointment.setPet(pet);
+        appointment.setDoctor(doctor);
+        entityManager.persist(appointment);
+        return appointment;
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.petclinic.attachment;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AttachmentStoreTest {
+
+    private static final String HELLO_SHA256 = "2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824";
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testStore_ContentAddressedAndDeduplicated() throws Exception {
+        AttachmentStore store = new AttachmentStore(dir.toString());
+
+        AttachmentStore.StoredBlob first = store.store(stream("hello"), 1024);
+        AttachmentStore.StoredBlob second = store.store(stream("hello"), 1024);
+
+        assertEquals(HELLO_SHA256, first.sha256());
+        assertEquals(5, first.size());
+        assertFalse(first.deduplicated());
+        assertTrue(second.deduplicated());
+        assertEquals("hello", Files.readString(store.path(HELLO_SHA256)));
+        assertEquals(dir.resolve("blobs/2c/f2/" + HELLO_SHA256), store.path(HELLO_SHA256));
+        assertEquals(0, countFiles(dir.resolve("tmp")));
+    }
+
+    @Test
+    void testStore_RejectsOversizedUploadAndLeavesNothingBehind() throws Exception {
+        AttachmentStore store = new AttachmentStore(dir.toString());
+
+        assertThrows(ResponseStatusException.class, () -> store.store(new ByteArrayInputStream(new byte[200_000]), 100_000));
+
+        assertEquals(0, countFiles(dir.resolve("blobs")));
+        assertEquals(0, countFiles(dir.resolve("tmp")));
+    }
+
+    @Test
+    void testSweep_OnlyRemovesUnreferencedBlobsPastGrace() throws Exception {
+        AttachmentStore store = new AttachmentStore(dir.toString());
+        String kept = store.store(stream("kept"), 1024).sha256();
+        String orphan = store.store(stream("orphan"), 1024).sha256();
+
+        assertEquals(0, store.sweep(hash -> false, Instant.now().minusSeconds(3600)));
+
+        assertEquals(1, store.sweep(kept::equals, Instant.now().plusSeconds(1)));
+        assertTrue(Files.exists(store.path(kept)));
+        assertFalse(Files.exists(store.path(orphan)));
+    }
+
+    @Test
+    void testPath_RejectsAnythingButADigest() throws Exception {
+        AttachmentStore store = new AttachmentStore(dir.toString());
+
+        assertThrows(IllegalArgumentException.class, () -> store.path("../../etc/passwd"));
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static long countFiles(Path root) throws Exception {
+        try (Stream<Path> files = Files.walk(root)) {
+            return files.filter(Files::isRegularFile).count();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.petclinic.audit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuditLogTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testRecord_WrittenAndFoundByEntityAndTimeAcrossSegments() throws Exception {
+        AuditLog auditLog = auditLog(512);
+        for (long id = 1; id <= 20; id++) {
+            auditLog.record(AuditEvent.EntityType.APPOINTMENT, id % 4, AuditEvent.Action.CREATED, "pet=" + id);
+        }
+        auditLog.record(AuditEvent.EntityType.MEDICAL_RECORD, 2L, AuditEvent.Action.CREATED, "visit");
+        auditLog.shutdown();
+        AuditLogReader reader = new AuditLogReader(dir);
+
+        List<AuditEvent> appointment2 = reader.find(new AuditLogReader.Query(AuditEvent.EntityType.APPOINTMENT, 2L, null, null, 100));
+        List<AuditEvent> all = reader.find(new AuditLogReader.Query(null, null, null, null, 100));
+
+        assertTrue(AuditSegments.list(dir).size() > 1);
+        assertEquals(5, appointment2.size());
+        assertEquals("pet=2", appointment2.get(0).detail());
+        assertEquals("system", appointment2.get(0).actor());
+        assertEquals(21, all.size());
+        assertEquals(21, all.get(20).sequence());
+        assertEquals(AuditEvent.EntityType.MEDICAL_RECORD, all.get(20).entityType());
+        assertTrue(reader.find(new AuditLogReader.Query(null, null, System.currentTimeMillis() + 60_000, null, 100)).isEmpty());
+        assertEquals(21, reader.find(new AuditLogReader.Query(null, null, all.get(0).timestamp(), all.get(20).timestamp() + 1, 100)).size());
+    }
+
+    @Test
+    void testRestart_ContinuesSequenceAndSkipsTornRecord() throws Exception {
+        AuditLog first = auditLog(1 << 20);
+        first.record(AuditEvent.EntityType.APPOINTMENT, 7L, AuditEvent.Action.CREATED, "one");
+        first.record(AuditEvent.EntityType.APPOINTMENT, 7L, AuditEvent.Action.UPDATED, "two");
+        first.shutdown();
+        // simulate a crash mid-write: drop the footer and half of the last record
+        Path segment = AuditSegments.list(dir).get(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(Files.size(segment) - AuditSegments.FOOTER_BYTES - 5);
+        }
+
+        AuditLog second = auditLog(1 << 20);
+        second.record(AuditEvent.EntityType.APPOINTMENT, 7L, AuditEvent.Action.DELETED, "three");
+        second.shutdown();
+
+        List<AuditEvent> events = new AuditLogReader(dir).find(new AuditLogReader.Query(null, 7L, null, null, 100));
+        assertEquals(List.of("one", "three"), events.stream().map(AuditEvent::detail).toList());
+        assertEquals(List.of(1L, 2L), events.stream().map(AuditEvent::sequence).toList());
+    }
+
+    private AuditLog auditLog(long segmentBytes) throws Exception {
+        return new AuditLog(new SimpleMeterRegistry(), dir.toString(), 64, segmentBytes, 3, false, 1000);
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.petclinic.audit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MpscRingBufferTest {
+
+    @Test
+    void testOffer_FailsWhenFullAndSlotsAreReused() {
+        MpscRingBuffer<Integer> ring = new MpscRingBuffer<>(4);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(ring.offer(i));
+        }
+        assertFalse(ring.offer(4));
+        assertEquals(0, ring.poll());
+        assertTrue(ring.offer(4));
+
+        List<Integer> drained = new ArrayList<>();
+        Integer next;
+        while ((next = ring.poll()) != null) {
+            drained.add(next);
+        }
+        assertEquals(List.of(1, 2, 3, 4), drained);
+        assertEquals(0, ring.size());
+    }
+
+    @Test
+    void testPoll_EveryElementFromConcurrentProducersOnceAndInProducerOrder() throws Exception {
+        int producers = 4;
+        int perProducer = 50_000;
+        MpscRingBuffer<long[]> ring = new MpscRingBuffer<>(1024);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            long producer = p;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (long i = 0; i < perProducer; i++) {
+                    while (!ring.offer(new long[] {producer, i})) {
+                        Thread.onSpinWait();
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+
+        start.countDown();
+        long[] expectedNext = new long[producers];
+        int received = 0;
+        long deadline = System.nanoTime() + 30_000_000_000L;
+        while (received < producers * perProducer && System.nanoTime() < deadline) {
+            long[] element = ring.poll();
+            if (element == null) {
+                Thread.onSpinWait();
+                continue;
+            }
+            assertEquals(expectedNext[(int) element[0]]++, element[1]);
+            received++;
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(producers * perProducer, received);
+        assertNull(ring.poll());
+    }
+}
@@ -0,0 +1,194 @@
+package com.example.petclinic.benchmark;
+
+import com.example.petclinic.PetclinicApplication;
+import com.example.petclinic.model.*;
+import com.example.petclinic.reactive.ReactiveReadApplication;
+import com.example.petclinic.repository.AppointmentRepository;
+import com.example.petclinic.repository.DoctorRepository;
+import com.example.petclinic.repository.MedicalRecordRepository;
+import com.example.petclinic.repository.PetRepository;
+import com.example.petclinic.repository.UserRepository;
+import com.example.petclinic.security.JwtUtil;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the read endpoints on the servlet stack (MVC + JPA) versus the reactive
+ * stack (WebFlux + R2DBC), both on the same in-memory H2 schema and data. Concurrency is
+ * the JMH thread count (default 64, override with -t). After each iteration the fork prints
+ * live JVM threads and heap used after GC, divided by the client concurrency as a rough
+ * per-connection cost. Each stack runs in its own fork.
+ *
+ *   mvn -Pbenchmark test-compile exec:exec -Djmh.args="ReadApi -t 256"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(64)
+@Fork(1)
+public class ReadApiBenchmark {
+    private static final String JDBC_URL = "jdbc:h2:mem:read_api_bench;MODE=MySQL;DB_CLOSE_DELAY=-1";
+    private static final String R2DBC_URL = "r2dbc:h2:mem:///read_api_bench?options=DB_CLOSE_DELAY=-1;MODE=MySQL";
+
+    @Param({"servlet", "reactive"})
+    public String stack;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String baseUrl;
+    private String ownerToken;
+    private String doctorToken;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // The servlet app owns the schema, so it always starts first to create and seed it
+        ConfigurableApplicationContext servlet = new SpringApplicationBuilder(PetclinicApplication.class)
+                .profiles("test")
+                .run("--server.port=0",
+                        "--spring.datasource.url=" + JDBC_URL,
+                        "--spring.jpa.hibernate.ddl-auto=create",
+                        "--petclinic.rate-limit.enabled=false",
+                        "--petclinic.slow-query.enabled=false",
+                        "--logging.level.root=ERROR");
+        seed(servlet);
+        JwtUtil jwtUtil = servlet.getBean(JwtUtil.class);
+        ownerToken = jwtUtil.generateToken("bench_owner", "OWNER");
+        doctorToken = jwtUtil.generateToken("bench_doctor", "DOCTOR");
+
+        if ("reactive".equals(stack)) {
+            servlet.close();
+            context = new SpringApplicationBuilder(ReactiveReadApplication.class)
+                    .web(WebApplicationType.REACTIVE)
+                    .profiles("test")
+                    .run("--server.port=0",
+                            "--spring.r2dbc.url=" + R2DBC_URL,
+                            "--spring.r2dbc.username=sa",
+                            "--spring.r2dbc.pool.max-size=20",
+                            "--logging.level.root=ERROR");
+        } else {
+            context = servlet;
+        }
+        baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @TearDown(Level.Iteration)
+    public void reportFootprint(BenchmarkParams params) {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        long heapUsed = memory.getHeapMemoryUsage().getUsed();
+        int concurrency = params.getThreads();
+        System.out.printf("%n[%s] live threads=%d peak=%d, heap after GC=%d KiB (~%d KiB per client thread)%n",
+                stack, threads.getThreadCount(), threads.getPeakThreadCount(),
+                heapUsed / 1024, heapUsed / 1024 / concurrency);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int ownerPets() throws Exception {
+        return get("/api/pets", ownerToken);
+    }
+
+    @Benchmark
+    public int ownerAppointments() throws Exception {
+        return get("/api/appointments", ownerToken);
+    }
+
+    @Benchmark
+    public int doctorAgenda() throws Exception {
+        return get("/api/appointments", doctorToken);
+    }
+
+    @Benchmark
+    public int doctors() throws Exception {
+        return get("/api/users/doctors", ownerToken);
+    }
+
+    private int get(String path, String token) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException(path + " returned " + response.statusCode());
+        }
+        return response.body().length;
+    }
+
+    private static void seed(ConfigurableApplicationContext context) {
+        UserRepository users = context.getBean(UserRepository.class);
+        User owner = users.save(user("bench_owner", "OWNER", "100"));
+        User doctorUser = users.save(user("bench_doctor", "DOCTOR", "200"));
+
+        Doctor doctor = new Doctor();
+        doctor.setUser(doctorUser);
+        doctor.setSpecialization("General");
+        doctor.setRegisteredAt(LocalDateTime.now());
+        doctor = context.getBean(DoctorRepository.class).save(doctor);
+
+        PetRepository pets = context.getBean(PetRepository.class);
+        AppointmentRepository appointments = context.getBean(AppointmentRepository.class);
+        MedicalRecordRepository records = context.getBean(MedicalRecordRepository.class);
+        LocalDateTime start = LocalDate.now().plusDays(1).atTime(9, 0);
+        for (int i = 0; i < 20; i++) {
+            Pet pet = new Pet();
+            pet.setName("Pet " + i);
+            pet.setSpecies(i % 2 == 0 ? "Dog" : "Cat");
+            pet.setBreed("Mixed");
+            pet.setBirthDate(LocalDate.of(2020, 1, 1).plusDays(i));
+            pet.setOwner(owner);
+            pet = pets.save(pet);
+            for (int j = 0; j < 5; j++) {
+                Appointment appointment = new Appointment();
+                appointment.setPet(pet);
+                appointment.setDoctor(doctor);
+                appointment.setAppointmentTime(start.plusMinutes(30L * (i * 5 + j)));
+                appointment.setStatus("SCHEDULED");
+                appointment.setAppointmentCode("APT-BENCH-" + i + "-" + j);
+                appointment = appointments.save(appointment);
+                if (j == 0) {
+                    MedicalRecord record = new MedicalRecord();
+                    record.setPet(pet);
+                    record.setAppointment(appointment);
+                    record.setVisitDate(LocalDate.now().minusDays(i));
+                    record.setDiagnosis("Checkup");
+                    record.setPrescription("None");
+                    records.save(record);
+                }
+            }
+        }
+    }
+
+    private static User user(String username, String role, String phone) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("bench");
+        user.setRole(role);
+        user.setPhoneNumber(phone);
+        user.setIdentityCode("ID-" + username);
+        return user;
+    }
+}
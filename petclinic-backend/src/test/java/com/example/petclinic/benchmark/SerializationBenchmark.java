@@ -0,0 +1,118 @@
+package com.example.petclinic.benchmark;
+
+import com.example.petclinic.dto.AppointmentDTO;
+import com.example.petclinic.dto.PetDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * CPU cost and payload size of the list endpoints' responses (200 appointments, 50 pets)
+ * with plain Jackson, Jackson + Blackbird, Smile, and JSON + gzip.
+ * Payload sizes are printed once per fork.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    private ObjectMapper reflectionJson;
+    private ObjectMapper blackbirdJson;
+    private ObjectMapper blackbirdSmile;
+    private List<AppointmentDTO> appointments;
+    private List<PetDTO> pets;
+
+    @Setup
+    public void setUp() throws IOException {
+        reflectionJson = mapper(new ObjectMapper());
+        blackbirdJson = mapper(new ObjectMapper()).registerModule(new BlackbirdModule());
+        blackbirdSmile = mapper(new ObjectMapper(new SmileFactory())).registerModule(new BlackbirdModule());
+
+        appointments = new ArrayList<>();
+        LocalDateTime start = LocalDateTime.of(2025, 11, 22, 9, 0);
+        for (int i = 0; i < 200; i++) {
+            long doctorId = i % 5 + 1;
+            appointments.add(new AppointmentDTO((long) i, String.format("APT-20251122-D%03d-%03d", doctorId, i),
+                    start.plusMinutes(30L * i), (long) (i % 40), doctorId, "SCHEDULED",
+                    "Pet " + (i % 40), "dr_" + doctorId));
+        }
+        pets = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            pets.add(new PetDTO((long) i, "Pet " + i, i % 2 == 0 ? "Dog" : "Cat", "Mixed",
+                    LocalDate.of(2020, 1, 1).plusDays(i), LocalDate.of(2025, 10, 1).plusDays(i)));
+        }
+
+        byte[] json = blackbirdJson.writeValueAsBytes(appointments);
+        byte[] smile = blackbirdSmile.writeValueAsBytes(appointments);
+        System.out.printf("%nappointments: json=%d B, json+gzip=%d B, smile=%d B, smile+gzip=%d B%n",
+                json.length, gzip(json).length, smile.length, gzip(smile).length);
+        json = blackbirdJson.writeValueAsBytes(pets);
+        smile = blackbirdSmile.writeValueAsBytes(pets);
+        System.out.printf("pets: json=%d B, json+gzip=%d B, smile=%d B, smile+gzip=%d B%n",
+                json.length, gzip(json).length, smile.length, gzip(smile).length);
+    }
+
+    @Benchmark
+    public byte[] appointmentsJsonReflection() throws IOException {
+        return reflectionJson.writeValueAsBytes(appointments);
+    }
+
+    @Benchmark
+    public byte[] appointmentsJsonBlackbird() throws IOException {
+        return blackbirdJson.writeValueAsBytes(appointments);
+    }
+
+    @Benchmark
+    public byte[] appointmentsSmileBlackbird() throws IOException {
+        return blackbirdSmile.writeValueAsBytes(appointments);
+    }
+
+    @Benchmark
+    public byte[] appointmentsJsonGzip() throws IOException {
+        return gzip(blackbirdJson.writeValueAsBytes(appointments));
+    }
+
+    @Benchmark
+    public byte[] petsJsonReflection() throws IOException {
+        return reflectionJson.writeValueAsBytes(pets);
+    }
+
+    @Benchmark
+    public byte[] petsJsonBlackbird() throws IOException {
+        return blackbirdJson.writeValueAsBytes(pets);
+    }
+
+    @Benchmark
+    public byte[] petsSmileBlackbird() throws IOException {
+        return blackbirdSmile.writeValueAsBytes(pets);
+    }
+
+    private static ObjectMapper mapper(ObjectMapper mapper) {
+        // Same date handling as Spring Boot's auto-configured mapper
+        return mapper.registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.petclinic.bulkhead;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkheadFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testMatch_FirstGroupByMethodAndPath() throws Exception {
+        BulkheadFilter filter = new BulkheadFilter(clinicGroups(5), meterRegistry);
+
+        assertEquals("auth", groupOf(filter, "POST", "/api/auth/login"));
+        assertEquals("booking", groupOf(filter, "POST", "/api/appointments"));
+        assertEquals("owner-read", groupOf(filter, "GET", "/api/appointments/7"));
+        assertEquals("owner-read", groupOf(filter, "GET", "/api/sync"));
+        assertEquals("owner-other", groupOf(filter, "POST", "/api/pets"));
+        assertEquals("owner-other", groupOf(filter, "PUT", "/api/users/me"));
+        assertEquals("owner-other", groupOf(filter, "POST", "/api/medical-records"));
+        assertNull(groupOf(filter, "GET", "/actuator/health"));
+    }
+
+    @Test
+    void testMatch_DoctorAuthorityTakesPrecedenceOverOwnerGroups() throws Exception {
+        BulkheadFilter filter = new BulkheadFilter(clinicGroups(5), meterRegistry);
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "drwho", null, List.of(new SimpleGrantedAuthority("DOCTOR"))));
+
+        assertEquals("doctor-clinical", groupOf(filter, "GET", "/api/pets/1"));
+        assertEquals("doctor-clinical", groupOf(filter, "POST", "/api/appointments"));
+        assertEquals("doctor-clinical", groupOf(filter, "POST", "/api/medical-records/3/attachments"));
+        // login happens before there is an authority to match
+        assertEquals("auth", groupOf(filter, "POST", "/api/auth/login"));
+    }
+
+    @Test
+    void testFullGroup_Returns503WithRetryAfter() throws Exception {
+        BulkheadFilter filter = new BulkheadFilter(clinicGroups(1), meterRegistry);
+        CountDownLatch inside = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> holder = executor.submit(() -> {
+                filter.doFilter(request("POST", "/api/pets"), new MockHttpServletResponse(), (req, res) -> {
+                    inside.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+                return null;
+            });
+            assertTrue(inside.await(5, TimeUnit.SECONDS));
+
+            AtomicInteger passed = new AtomicInteger();
+            MockHttpServletResponse rejected = new MockHttpServletResponse();
+            filter.doFilter(request("PUT", "/api/pets/1"), rejected, (req, res) -> passed.incrementAndGet());
+
+            assertEquals(503, rejected.getStatus());
+            assertEquals("1", rejected.getHeader("Retry-After"));
+            assertTrue(rejected.getContentAsString().contains("\"bulkhead\":\"owner-other\""));
+            assertEquals(0, passed.get());
+
+            // other groups are unaffected
+            MockHttpServletResponse read = new MockHttpServletResponse();
+            filter.doFilter(request("GET", "/api/pets"), read, (req, res) -> passed.incrementAndGet());
+            assertEquals(200, read.getStatus());
+            assertEquals(1, passed.get());
+
+            release.countDown();
+            holder.get(5, TimeUnit.SECONDS);
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    // The group whose admitted count went up, or null when no group matched
+    private String groupOf(BulkheadFilter filter, String method, String path) throws Exception {
+        Map<String, Double> before = admittedByGroup();
+        AtomicInteger passed = new AtomicInteger();
+        filter.doFilter(request(method, path), new MockHttpServletResponse(), (req, res) -> passed.incrementAndGet());
+        assertEquals(1, passed.get());
+        Map<String, Double> after = admittedByGroup();
+        return after.keySet().stream()
+                .filter(group -> after.get(group) > before.getOrDefault(group, 0.0))
+                .findFirst().orElse(null);
+    }
+
+    private Map<String, Double> admittedByGroup() {
+        return meterRegistry.find("petclinic.bulkhead.requests").tag("outcome", "admitted").counters().stream()
+                .collect(Collectors.toMap(counter -> counter.getId().getTag("group"), Counter::count));
+    }
+
+    private static MockHttpServletRequest request(String method, String path) {
+        return new MockHttpServletRequest(method, path);
+    }
+
+    // Same shape as the groups in application.properties
+    private static BulkheadProperties clinicGroups(int maxConcurrent) {
+        BulkheadProperties properties = new BulkheadProperties();
+        properties.setGroups(List.of(
+                group("auth", List.of("POST"), List.of("/api/auth/login", "/api/auth/register"), null, maxConcurrent),
+                group("doctor-clinical", List.of(), List.of("/api/**"), "DOCTOR", maxConcurrent),
+                group("booking", List.of("POST", "PUT", "DELETE"), List.of("/api/appointments/**"), null, maxConcurrent),
+                group("owner-read", List.of("GET"), List.of("/api/pets/**", "/api/appointments/**", "/api/medical-records/**",
+                        "/api/users/**", "/api/sync"), null, maxConcurrent),
+                group("owner-other", List.of(), List.of("/api/**"), null, maxConcurrent)));
+        return properties;
+    }
+
+    private static BulkheadProperties.Group group(String name, List<String> methods, List<String> paths, String authority,
+                                                  int maxConcurrent) {
+        BulkheadProperties.Group group = new BulkheadProperties.Group();
+        group.setName(name);
+        group.setMethods(methods);
+        group.setPaths(paths);
+        group.setAuthority(authority);
+        group.setMaxConcurrent(maxConcurrent);
+        return group;
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.petclinic.bulkhead;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkheadTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void testTryEnter_RejectsOnceSlotsAndQueueAreFull() {
+        Bulkhead bulkhead = new Bulkhead(group(2, 0, 1000), meterRegistry);
+
+        assertTrue(bulkhead.tryEnter());
+        assertTrue(bulkhead.tryEnter());
+        assertFalse(bulkhead.tryEnter());
+        assertEquals(2, bulkhead.active());
+
+        bulkhead.exit();
+        assertTrue(bulkhead.tryEnter());
+        assertEquals(1.0, count("rejected"));
+        assertEquals(3.0, count("admitted"));
+    }
+
+    @Test
+    void testTryEnter_WaiterGetsTheReleasedSlot() throws Exception {
+        Bulkhead bulkhead = new Bulkhead(group(1, 1, 5000), meterRegistry);
+        assertTrue(bulkhead.tryEnter());
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Boolean> waiter = executor.submit(bulkhead::tryEnter);
+            while (bulkhead.waiting() == 0) {
+                Thread.sleep(1);
+            }
+            // the queue holds one, so a third caller is turned away without waiting
+            assertFalse(bulkhead.tryEnter());
+
+            bulkhead.exit();
+            assertTrue(waiter.get(5, TimeUnit.SECONDS));
+            assertEquals(0, bulkhead.waiting());
+            assertEquals(1, bulkhead.active());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testTryEnter_GivesUpAfterMaxWait() throws Exception {
+        Bulkhead bulkhead = new Bulkhead(group(1, 5, 20), meterRegistry);
+        assertTrue(bulkhead.tryEnter());
+        CountDownLatch done = new CountDownLatch(1);
+        Thread waiter = new Thread(() -> {
+            assertFalse(bulkhead.tryEnter());
+            done.countDown();
+        });
+        waiter.start();
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(1.0, count("timed-out"));
+        assertEquals(1, meterRegistry.get("petclinic.bulkhead.wait").timer().count());
+    }
+
+    private double count(String outcome) {
+        return meterRegistry.get("petclinic.bulkhead.requests").tag("outcome", outcome).counter().count();
+    }
+
+    private static BulkheadProperties.Group group(int maxConcurrent, int maxWaiting, long maxWaitMs) {
+        BulkheadProperties.Group group = new BulkheadProperties.Group();
+        group.setName("test");
+        group.setMaxConcurrent(maxConcurrent);
+        group.setMaxWaiting(maxWaiting);
+        group.setMaxWaitMs(maxWaitMs);
+        return group;
+    }
+}
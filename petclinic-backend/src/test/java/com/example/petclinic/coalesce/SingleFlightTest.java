@@ -0,0 +1,101 @@
+package com.example.petclinic.coalesce;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final SingleFlight singleFlight = new SingleFlight(registry, 100);
+
+    @Test
+    void testExecute_ConcurrentCallersShareOneComputation() throws Throwable {
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Object>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(pool.submit(() -> execute("doctors", () -> {
+                    runs.incrementAndGet();
+                    started.countDown();
+                    release.await();
+                    return "list";
+                })));
+            }
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            // let the other callers reach the in-flight call before it finishes
+            while (count("joined") + count("executed") < 8) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+            for (Future<Object> result : results) {
+                assertEquals("list", result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(1, runs.get());
+        assertEquals(7, count("joined"));
+        singleFlight.execute("doctors", List.of(), 0, runs::incrementAndGet);
+        assertEquals(2, runs.get());
+    }
+
+    @Test
+    void testExecute_DifferentArgumentsRunSeparately() throws Throwable {
+        assertEquals(1L, singleFlight.execute("owner-pets", List.of(1L), 1000, () -> 1L));
+        assertEquals(2L, singleFlight.execute("owner-pets", List.of(2L), 1000, () -> 2L));
+        assertEquals(1L, singleFlight.execute("owner-pets", List.of(1L), 1000, () -> 99L));
+        assertEquals(1, count("retained"));
+    }
+
+    @Test
+    void testExecute_RetainedUntilInvalidated() throws Throwable {
+        AtomicInteger runs = new AtomicInteger();
+        singleFlight.execute("doctor-agenda", List.of(1L), 60_000, runs::incrementAndGet);
+        singleFlight.execute("doctor-agenda", List.of(1L), 60_000, runs::incrementAndGet);
+        assertEquals(1, runs.get());
+
+        singleFlight.invalidate("doctor-agenda");
+
+        assertEquals(2, singleFlight.execute("doctor-agenda", List.of(1L), 60_000, runs::incrementAndGet));
+    }
+
+    @Test
+    void testExecute_FailuresAreNotRetained() throws Throwable {
+        IllegalStateException failure = new IllegalStateException("database down");
+
+        assertSame(failure, assertThrows(IllegalStateException.class,
+                () -> singleFlight.execute("doctors", List.of(), 60_000, () -> { throw failure; })));
+
+        assertEquals("list", singleFlight.execute("doctors", List.of(), 60_000, () -> "list"));
+    }
+
+    private Object execute(String name, SingleFlight.Computation computation) throws Exception {
+        try {
+            return singleFlight.execute(name, List.of(), 0, computation);
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private double count(String outcome) {
+        return registry.get("petclinic.coalesce.calls").tag("outcome", outcome).counters().stream()
+                .mapToDouble(c -> c.count()).sum();
+    }
+}
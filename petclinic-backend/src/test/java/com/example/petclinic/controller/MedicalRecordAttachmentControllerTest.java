@@ -0,0 +1,131 @@
+package com.example.petclinic.controller;
+
+import com.example.petclinic.attachment.AttachmentService;
+import com.example.petclinic.attachment.AttachmentStore;
+import com.example.petclinic.dto.AttachmentDTO;
+import com.example.petclinic.security.ClinicUserDetails;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class MedicalRecordAttachmentControllerTest {
+    private static final byte[] CONTENT = "0123456789".getBytes(StandardCharsets.US_ASCII);
+    private static final String URL = "/api/medical-records/1/attachments/2";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private AttachmentStore attachmentStore;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @MockBean
+    private AttachmentService attachmentService;
+
+    private final ClinicUserDetails doctor = new ClinicUserDetails("drwho", "secret", "DOCTOR", 10L, 20L);
+    private final AtomicBoolean entityManagerOpen = new AtomicBoolean();
+    private AttachmentStore.StoredBlob blob;
+    private String etag;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        blob = attachmentStore.store(new ByteArrayInputStream(CONTENT), 1024);
+        etag = "\"" + blob.sha256() + "\"";
+        AttachmentDTO attachment = new AttachmentDTO(2L, 1L, "scan.pdf", "application/pdf", blob.size(), blob.sha256(), LocalDateTime.now());
+        when(attachmentService.get(eq(1L), eq(2L), any())).thenAnswer(invocation -> {
+            entityManagerOpen.set(TransactionSynchronizationManager.hasResource(entityManagerFactory));
+            return attachment;
+        });
+    }
+
+    @Test
+    void testDownload_WholeFile() throws Exception {
+        mockMvc.perform(get(URL).with(user(doctor)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, CONTENT.length))
+                .andExpect(content().bytes(CONTENT));
+        // attachment transfers are left out of open-in-view, so no connection outlives get()
+        assertFalse(entityManagerOpen.get());
+    }
+
+    @Test
+    void testDownload_PdfOpensInline() throws Exception {
+        mockMvc.perform(get(URL).with(user(doctor)))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"scan.pdf\""));
+    }
+
+    @Test
+    void testDownload_SvgIsDownloadedNotRendered() throws Exception {
+        when(attachmentService.get(eq(1L), eq(2L), any())).thenReturn(
+                new AttachmentDTO(2L, 1L, "chart.svg", "image/svg+xml", blob.size(), blob.sha256(), LocalDateTime.now()));
+
+        mockMvc.perform(get(URL).with(user(doctor)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"chart.svg\""))
+                .andExpect(header().string("X-Content-Type-Options", "nosniff"));
+    }
+
+    @Test
+    void testDownload_SingleRange() throws Exception {
+        mockMvc.perform(get(URL).with(user(doctor)).header(HttpHeaders.RANGE, "bytes=2-5"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 2-5/10"))
+                .andExpect(content().bytes("2345".getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    @Test
+    void testDownload_IfRangeMatchesServesRange() throws Exception {
+        mockMvc.perform(get(URL).with(user(doctor)).header(HttpHeaders.RANGE, "bytes=-3").header(HttpHeaders.IF_RANGE, etag))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 7-9/10"))
+                .andExpect(content().bytes("789".getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    @Test
+    void testDownload_StaleIfRangeServesWholeFile() throws Exception {
+        mockMvc.perform(get(URL).with(user(doctor)).header(HttpHeaders.RANGE, "bytes=2-5").header(HttpHeaders.IF_RANGE, "\"stale\""))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_RANGE))
+                .andExpect(content().bytes(CONTENT));
+    }
+
+    @Test
+    void testDownload_MatchingIfNoneMatchIsNotModified() throws Exception {
+        mockMvc.perform(get(URL).with(user(doctor)).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    void testDownload_RangeBeyondEndIsNotSatisfiable() throws Exception {
+        mockMvc.perform(get(URL).with(user(doctor)).header(HttpHeaders.RANGE, "bytes=10-20"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */10"));
+    }
+}
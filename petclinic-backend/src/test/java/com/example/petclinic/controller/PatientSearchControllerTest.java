@@ -0,0 +1,73 @@
+package com.example.petclinic.controller;
+
+import com.example.petclinic.dto.PatientMatchDTO;
+import com.example.petclinic.search.PatientIndex;
+import com.example.petclinic.security.ClinicUserDetails;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class PatientSearchControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @MockBean
+    private PatientIndex patientIndex;
+
+    private final ClinicUserDetails doctor = new ClinicUserDetails("drwho", "secret", "DOCTOR", 10L, 20L);
+    private final ClinicUserDetails owner = new ClinicUserDetails("alice", "secret", "OWNER", 1L, null);
+
+    @Test
+    void testSearch_DoctorGetsMatchesWithDefaultLimit() throws Exception {
+        when(patientIndex.search("re", 10)).thenReturn(List.of(
+                new PatientMatchDTO(10L, "Rex", "Dog", 1L, "alice", "555-0100", "PET_NAME")));
+
+        mockMvc.perform(get("/api/patients/search").param("q", "re").with(user(doctor)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].petName", is("Rex")))
+                .andExpect(jsonPath("$[0].matchedField", is("PET_NAME")));
+        verify(patientIndex).search("re", 10);
+    }
+
+    @Test
+    void testSearch_OwnerIsForbidden() throws Exception {
+        mockMvc.perform(get("/api/patients/search").param("q", "re").with(user(owner)))
+                .andExpect(status().isForbidden());
+        verify(patientIndex, never()).search(anyString(), anyInt());
+    }
+
+    @Test
+    void testSearch_LimitOutsideBoundsIsRejected() throws Exception {
+        mockMvc.perform(get("/api/patients/search").param("q", "re").param("limit", "0").with(user(doctor)))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/patients/search").param("q", "re").param("limit", "51").with(user(doctor)))
+                .andExpect(status().isBadRequest());
+        verify(patientIndex, never()).search(anyString(), anyInt());
+    }
+
+    @Test
+    void testSearch_LimitAtUpperBoundIsAccepted() throws Exception {
+        when(patientIndex.search("re", 50)).thenReturn(List.of());
+
+        mockMvc.perform(get("/api/patients/search").param("q", "re").param("limit", "50").with(user(doctor)))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[]"));
+    }
+}
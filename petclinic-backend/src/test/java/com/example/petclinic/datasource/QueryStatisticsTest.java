@@ -0,0 +1,60 @@
+package com.example.petclinic.datasource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryStatisticsTest {
+
+    @Test
+    void testNormalize_CollapsesLiteralsAndInLists() {
+        assertEquals("select * from pets where name = ? and id in (?) limit ?",
+                SqlShape.normalize("select *\n  from pets where name = 'O''Malley' and id IN (1, 2,3) limit 10", 2000));
+        assertEquals("select t1_0.id from appointments t1_0 where t1_0.pet_id in (?)",
+                SqlShape.normalize("select t1_0.id from appointments t1_0 where t1_0.pet_id in (?,?,?)", 2000));
+    }
+
+    @Test
+    void testTopSlowest_GroupsByShapeAndOrdersByMax() {
+        QueryStatistics statistics = new QueryStatistics(new SimpleMeterRegistry(), 1000, 1.0, 2, 2000);
+        statistics.record("select * from pets where id = 1", 2_000_000);
+        statistics.record("select * from pets where id = 2", 4_000_000);
+        statistics.record("select * from users where id = 1", 9_000_000);
+        // table is full: a third shape is counted but not tracked
+        statistics.record("select * from doctors where id = 1", 50_000_000);
+
+        List<QueryShapeStats> top = statistics.topSlowest(10);
+        assertEquals(2, top.size());
+        assertEquals("select * from users where id = ?", top.get(0).sql());
+        assertEquals("select * from pets where id = ?", top.get(1).sql());
+        assertEquals(2, top.get(1).count());
+        assertEquals(4.0, top.get(1).maxMs(), 1e-9);
+        assertEquals(3.0, top.get(1).meanMs(), 1e-9);
+    }
+
+    @Test
+    void testTimedDataSource_RecordsPreparedAndPlainStatements() {
+        QueryStatistics statistics = new QueryStatistics(new SimpleMeterRegistry(), 1000, 1.0, 100, 2000);
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("queryStatistics", statistics);
+        DriverManagerDataSource h2 = new DriverManagerDataSource("jdbc:h2:mem:timed;DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new TimedDataSource(h2, beanFactory.getBeanProvider(QueryStatistics.class)));
+
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS node (id INT)");
+        jdbcTemplate.update("INSERT INTO node VALUES (?)", 1);
+        jdbcTemplate.update("INSERT INTO node VALUES (?)", 2);
+        jdbcTemplate.queryForList("SELECT id FROM node WHERE id IN (1, 2)", Integer.class);
+
+        List<String> shapes = statistics.topSlowest(10).stream().map(QueryShapeStats::sql).toList();
+        assertTrue(shapes.contains("CREATE TABLE IF NOT EXISTS node (id INT)"));
+        assertTrue(shapes.contains("SELECT id FROM node WHERE id in (?)"));
+        assertEquals(2, statistics.topSlowest(10).stream()
+                .filter(s -> s.sql().equals("INSERT INTO node VALUES (?)")).findFirst().orElseThrow().count());
+    }
+}
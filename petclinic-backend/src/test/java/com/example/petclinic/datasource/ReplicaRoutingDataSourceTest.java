@@ -0,0 +1,95 @@
+package com.example.petclinic.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplicaRoutingDataSourceTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate writeTx;
+    private TransactionTemplate readOnlyTx;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = h2("routing_primary");
+        DataSource replica = h2("routing_replica");
+        new JdbcTemplate(primary).execute("CREATE TABLE IF NOT EXISTS node (name VARCHAR(20))");
+        new JdbcTemplate(primary).execute("DELETE FROM node");
+        new JdbcTemplate(primary).execute("INSERT INTO node VALUES ('primary')");
+        new JdbcTemplate(replica).execute("CREATE TABLE IF NOT EXISTS node (name VARCHAR(20))");
+        new JdbcTemplate(replica).execute("DELETE FROM node");
+        new JdbcTemplate(replica).execute("INSERT INTO node VALUES ('replica')");
+
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(List.of("replica-0"), new ReadYourWritesTracker(60_000));
+        routing.setTargetDataSources(Map.of(ReplicaRoutingDataSource.PRIMARY, primary, "replica-0", replica));
+        routing.setDefaultTargetDataSource(primary);
+        routing.afterPropertiesSet();
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        writeTx = new TransactionTemplate(transactionManager);
+        readOnlyTx = new TransactionTemplate(transactionManager);
+        readOnlyTx.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testReadOnlyTransaction_GoesToReplica() {
+        assertEquals("replica", readOnlyTx.execute(status -> currentNode()));
+    }
+
+    @Test
+    void testWriteTransaction_GoesToPrimary() {
+        assertEquals("primary", writeTx.execute(status -> currentNode()));
+    }
+
+    @Test
+    void testReadAfterOwnWrite_StaysOnPrimary() {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "test_owner", null, List.of(new SimpleGrantedAuthority("OWNER"))));
+
+        writeTx.execute(status -> currentNode());
+
+        assertEquals("primary", readOnlyTx.execute(status -> currentNode()));
+    }
+
+    @Test
+    void testReadAfterOtherUsersWrite_GoesToReplica() {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "test_owner", null, List.of(new SimpleGrantedAuthority("OWNER"))));
+        writeTx.execute(status -> currentNode());
+
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "test_doctor", null, List.of(new SimpleGrantedAuthority("DOCTOR"))));
+
+        assertEquals("replica", readOnlyTx.execute(status -> currentNode()));
+    }
+
+    private String currentNode() {
+        return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    private static DataSource h2(String name) {
+        return new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+    }
+}
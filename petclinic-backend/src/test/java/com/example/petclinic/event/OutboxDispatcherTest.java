@@ -0,0 +1,94 @@
+package com.example.petclinic.event;
+
+import com.example.petclinic.model.OutboxEvent;
+import com.example.petclinic.repository.OutboxEventRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxDispatcherTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final List<Long> delivered = new ArrayList<>();
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private OutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+        AppointmentEventListener failsOnTwo = new AppointmentEventListener() {
+            @Override
+            public void onAppointmentEvent(long eventId, AppointmentEvent event) {
+                if (eventId == 2L) {
+                    throw new IllegalStateException("listener down");
+                }
+                delivered.add(eventId);
+            }
+        };
+        dispatcher = new OutboxDispatcher(outboxEventRepository, List.of(failsOnTwo), objectMapper,
+                transactionManager, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(dispatcher, "batchSize", 100);
+        ReflectionTestUtils.setField(dispatcher, "maxBatchesPerPoll", 1);
+        ReflectionTestUtils.setField(dispatcher, "maxAttempts", 3);
+    }
+
+    @Test
+    void testPoll_FailingListenerStopsTheBatchAndCountsTheAttempt() throws Exception {
+        when(outboxEventRepository.findByDispatchedAtIsNullAndFailedAtIsNullOrderByIdAsc(any()))
+                .thenReturn(List.of(event(1L, 0), event(2L, 0), event(3L, 0)));
+
+        dispatcher.poll();
+
+        assertEquals(List.of(1L), delivered);
+        verify(outboxEventRepository).markDispatched(eq(List.of(1L)), any());
+        verify(outboxEventRepository).incrementAttempts(2L);
+        verify(outboxEventRepository, never()).markFailed(anyLong(), any());
+    }
+
+    @Test
+    void testPoll_EventIsParkedAfterMaxAttemptsAndLaterEventsGoThrough() throws Exception {
+        when(outboxEventRepository.findByDispatchedAtIsNullAndFailedAtIsNullOrderByIdAsc(any()))
+                .thenReturn(List.of(event(2L, 2), event(3L, 0)));
+
+        dispatcher.poll();
+
+        assertEquals(List.of(3L), delivered);
+        verify(outboxEventRepository).markFailed(eq(2L), any());
+        verify(outboxEventRepository, never()).incrementAttempts(anyLong());
+        verify(outboxEventRepository).markDispatched(eq(List.of(3L)), any());
+    }
+
+    private OutboxEvent event(Long id, int attempts) throws Exception {
+        OutboxEvent outboxEvent = new OutboxEvent();
+        outboxEvent.setId(id);
+        outboxEvent.setAttempts(attempts);
+        outboxEvent.setCreatedAt(LocalDateTime.now());
+        outboxEvent.setEventType(AppointmentEventType.CREATED.name());
+        outboxEvent.setAggregateId(10L);
+        outboxEvent.setPayload(objectMapper.writeValueAsString(new AppointmentEvent(AppointmentEventType.CREATED, 10L,
+                "APT-10", 1L, "Rex", 1L, 1L, LocalDateTime.now().plusDays(1), null, null, LocalDateTime.now())));
+        return outboxEvent;
+    }
+}
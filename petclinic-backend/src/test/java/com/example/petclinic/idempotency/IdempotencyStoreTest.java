@@ -0,0 +1,112 @@
+package com.example.petclinic.idempotency;
+
+import com.example.petclinic.model.IdempotencyRecord;
+import com.example.petclinic.repository.IdempotencyRecordRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyStoreTest {
+
+    @Mock
+    private IdempotencyRecordRepository repository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private IdempotencyStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new IdempotencyStore(repository, transactionManager);
+        ReflectionTestUtils.setField(store, "maxEntries", 100);
+        ReflectionTestUtils.setField(store, "ttlHours", 24L);
+        ReflectionTestUtils.setField(store, "waitTimeoutMs", 5000L);
+        ReflectionTestUtils.setField(store, "pendingTimeoutSeconds", 60L);
+        lenient().when(repository.findByKeyHash(any())).thenReturn(Optional.empty());
+    }
+
+    @Test
+    void testDuplicateWhileInFlight_WaitsAndReplays() throws Exception {
+        assertEquals(IdempotencyStore.Outcome.PROCEED, store.acquire("k", "body").outcome());
+
+        CompletableFuture<IdempotencyStore.Acquisition> duplicate = CompletableFuture.supplyAsync(() -> {
+            try {
+                return store.acquire("k", "body");
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Thread.sleep(100);
+        assertFalse(duplicate.isDone());
+
+        StoredResponse response = new StoredResponse("body", 200, "application/json", "{\"id\":1}".getBytes());
+        store.complete("k", response);
+
+        IdempotencyStore.Acquisition replay = duplicate.get(5, TimeUnit.SECONDS);
+        assertEquals(IdempotencyStore.Outcome.REPLAY, replay.outcome());
+        assertSame(response, replay.response());
+        verify(repository, times(1)).saveAndFlush(any());
+    }
+
+    @Test
+    void testCompletedKey_ReplaysOrRejectsDifferentBody() throws Exception {
+        store.acquire("k", "body");
+        store.complete("k", new StoredResponse("body", 201, "application/json", new byte[0]));
+
+        assertEquals(IdempotencyStore.Outcome.REPLAY, store.acquire("k", "body").outcome());
+        assertEquals(IdempotencyStore.Outcome.MISMATCH, store.acquire("k", "other").outcome());
+    }
+
+    @Test
+    void testReleasedKey_CanBeRetried() throws Exception {
+        store.acquire("k", "body");
+        store.release("k");
+
+        assertEquals(IdempotencyStore.Outcome.PROCEED, store.acquire("k", "body").outcome());
+        verify(repository).deletePending("k");
+    }
+
+    @Test
+    void testPersistedResponse_ReplayedAfterRestart() throws Exception {
+        IdempotencyRecord record = new IdempotencyRecord();
+        record.setKeyHash("k");
+        record.setRequestHash("body");
+        record.setStatus(200);
+        record.setContentType("application/json");
+        record.setBody("{}".getBytes());
+        record.setCreatedAt(LocalDateTime.now());
+        when(repository.findByKeyHash("k")).thenReturn(Optional.of(record));
+
+        IdempotencyStore.Acquisition acquisition = store.acquire("k", "body");
+
+        assertEquals(IdempotencyStore.Outcome.REPLAY, acquisition.outcome());
+        assertEquals(200, acquisition.response().status());
+        verify(repository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void testClaimedByAnotherInstance_IsInProgress() throws Exception {
+        IdempotencyRecord record = new IdempotencyRecord();
+        record.setKeyHash("k");
+        record.setRequestHash("body");
+        record.setCreatedAt(LocalDateTime.now());
+        when(repository.findByKeyHash("k")).thenReturn(Optional.of(record));
+
+        assertEquals(IdempotencyStore.Outcome.IN_PROGRESS, store.acquire("k", "body").outcome());
+    }
+}
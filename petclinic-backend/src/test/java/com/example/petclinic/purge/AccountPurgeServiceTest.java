@@ -0,0 +1,219 @@
+package com.example.petclinic.purge;
+
+import com.example.petclinic.event.OutboxPublisher;
+import com.example.petclinic.model.*;
+import com.example.petclinic.search.PatientIndex;
+import com.example.petclinic.service.PetService;
+import com.example.petclinic.sync.ChangeSequence;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Not transactional: every purge batch commits on its own, as it does in production
+@DataJpaTest(properties = "petclinic.purge.batch-size=2")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({AccountPurgeService.class, ChangeSequence.class, OutboxPublisher.class, PatientIndex.class})
+class AccountPurgeServiceTest {
+
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private AccountPurgeService purgeService;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @MockBean
+    private PetService petService;
+
+    private User owner;
+    private Doctor doctor;
+    private int booked;
+
+    @BeforeEach
+    void setUp() {
+        inTransaction(() -> {
+            owner = user("owner1", "OWNER", "111");
+            doctor = doctor("drwho", "222");
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        inTransaction(() -> {
+            for (String entity : List.of("SyncTombstone", "OutboxEvent", "AppointmentReminder", "MedicalRecordAttachment",
+                    "MedicalRecord", "Appointment", "ArchivedAppointment", "Pet", "Doctor", "User")) {
+                entityManager.createQuery("DELETE FROM " + entity).executeUpdate();
+            }
+        });
+    }
+
+    @Test
+    void testOwnerPurge_DeletesWholeGraphInBatches() {
+        inTransaction(() -> {
+            Pet rex = pet("Rex", owner);
+            Pet tom = pet("Tom", owner);
+            Appointment first = appointment(rex, doctor);
+            appointment(rex, doctor);
+            appointment(rex, doctor);
+            Appointment fourth = appointment(tom, doctor);
+            appointment(tom, doctor);
+            record(rex, first);
+            record(tom, fourth);
+            record(tom, null);
+            reminder(first);
+            archived(9001L, rex, doctor);
+        });
+
+        PurgeJob job = new PurgeJob(owner.getId());
+        purgeService.run(job);
+
+        assertEquals(PurgeJob.State.COMPLETED, job.getState());
+        assertEquals(5, job.toDTO().appointmentsDeleted());
+        assertEquals(3, job.toDTO().medicalRecordsDeleted());
+        assertEquals(2, job.toDTO().petsDeleted());
+        assertEquals(0, count("User u WHERE u.id = " + owner.getId()));
+        assertEquals(0, count("Pet p"));
+        assertEquals(0, count("Appointment a"));
+        assertEquals(0, count("MedicalRecord r"));
+        assertEquals(0, count("AppointmentReminder r"));
+        assertEquals(0, count("ArchivedAppointment a"));
+        assertEquals(1, count("Doctor d"));
+        assertEquals(5, count("SyncTombstone t WHERE t.doctorId = " + doctor.getDoctorId() + " AND t.ownerId IS NULL"));
+        assertEquals(5, count("OutboxEvent e WHERE e.eventType = 'CANCELLED'"));
+    }
+
+    @Test
+    void testDoctorPurge_KeepsPetsAndMedicalRecords() {
+        MedicalRecord[] records = new MedicalRecord[1];
+        inTransaction(() -> {
+            Pet rex = pet("Rex", owner);
+            Appointment first = appointment(rex, doctor);
+            appointment(rex, doctor);
+            appointment(rex, doctor);
+            records[0] = record(rex, first);
+            Doctor other = doctor("drno", "333");
+            archived(9001L, rex, doctor);
+            archived(9002L, rex, doctor);
+            archived(9003L, rex, doctor);
+            archived(9004L, rex, other);
+        });
+        MedicalRecord record = records[0];
+
+        PurgeJob job = new PurgeJob(doctor.getUser().getId());
+        purgeService.run(job);
+
+        assertEquals(PurgeJob.State.COMPLETED, job.getState());
+        assertEquals(1, count("Doctor d"));
+        assertEquals(2, count("User u"));
+        assertEquals(0, count("Appointment a"));
+        assertEquals(1, count("Pet p"));
+        assertEquals(0, count("ArchivedAppointment a WHERE a.doctorId = " + doctor.getDoctorId()));
+        assertEquals(1, count("ArchivedAppointment a"));
+        MedicalRecord kept = entityManager.find(MedicalRecord.class, record.getId());
+        assertNull(kept.getAppointment());
+        assertTrue(kept.getChangeSeq() > record.getChangeSeq());
+        assertEquals(3, count("SyncTombstone t WHERE t.ownerId = " + owner.getId() + " AND t.doctorId IS NULL"));
+    }
+
+    private void inTransaction(Runnable work) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> work.run());
+    }
+
+    private long count(String fromWhere) {
+        return entityManager.createQuery("SELECT COUNT(*) FROM " + fromWhere, Long.class).getSingleResult();
+    }
+
+    private User user(String username, String role, String phone) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("secret");
+        user.setRole(role);
+        user.setPhoneNumber(phone);
+        user.setIdentityCode("ID-" + username);
+        entityManager.persist(user);
+        return user;
+    }
+
+    private Doctor doctor(String username, String phone) {
+        Doctor doctor = new Doctor();
+        doctor.setUser(user(username, "DOCTOR", phone));
+        doctor.setSpecialization("General");
+        doctor.setRegisteredAt(LocalDateTime.now());
+        entityManager.persist(doctor);
+        return doctor;
+    }
+
+    private Pet pet(String name, User owner) {
+        Pet pet = new Pet();
+        pet.setName(name);
+        pet.setSpecies("Dog");
+        pet.setBreed("Beagle");
+        pet.setBirthDate(LocalDate.of(2020, 1, 1));
+        pet.setOwner(owner);
+        entityManager.persist(pet);
+        return pet;
+    }
+
+    private Appointment appointment(Pet pet, Doctor doctor) {
+        Appointment appointment = new Appointment();
+        appointment.setAppointmentCode("A-" + booked);
+        appointment.setAppointmentTime(LocalDateTime.of(2030, 1, 1, 9, 0).plusHours(booked++));
+        appointment.setStatus("SCHEDULED");
+        appointment.setPet(pet);
+        appointment.setDoctor(doctor);
+        entityManager.persist(appointment);
+        return appointment;
+    }
+
+    private MedicalRecord record(Pet pet, Appointment appointment) {
+        MedicalRecord record = new MedicalRecord();
+        record.setPet(pet);
+        record.setAppointment(appointment);
+        record.setVisitDate(LocalDate.of(2030, 1, 1));
+        record.setDiagnosis("Checkup");
+        record.setPrescription("None");
+        entityManager.persist(record);
+        return record;
+    }
+
+    private void reminder(Appointment appointment) {
+        AppointmentReminder reminder = new AppointmentReminder();
+        reminder.setAppointmentId(appointment.getId());
+        reminder.setLeadMinutes(60);
+        reminder.setSentAt(LocalDateTime.now());
+        entityManager.persist(reminder);
+    }
+
+    private void archived(Long id, Pet pet, Doctor doctor) {
+        ArchivedAppointment archived = new ArchivedAppointment();
+        archived.setId(id);
+        archived.setAppointmentCode("A-OLD-" + id);
+        archived.setAppointmentTime(LocalDateTime.of(2020, 1, 1, 9, 0));
+        archived.setStatus("COMPLETED");
+        archived.setPetId(pet.getId());
+        archived.setDoctorId(doctor.getDoctorId());
+        archived.setArchivedAt(LocalDateTime.now());
+        entityManager.persist(archived);
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.petclinic.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    void testBurstUpToCapacityThenRejected() {
+        TokenBucket bucket = new TokenBucket(5, 60, 0);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, bucket.tryAcquire(0));
+        }
+        long wait = bucket.tryAcquire(0);
+        assertEquals(SECOND, wait);
+    }
+
+    @Test
+    void testRefillsAtConfiguredRate() {
+        TokenBucket bucket = new TokenBucket(1, 60, 0);
+
+        assertEquals(0, bucket.tryAcquire(0));
+        assertTrue(bucket.tryAcquire(SECOND / 2) > 0);
+        assertEquals(0, bucket.tryAcquire(SECOND));
+    }
+
+    @Test
+    void testIdleBucketIsFull() {
+        TokenBucket bucket = new TokenBucket(3, 60, 0);
+        bucket.tryAcquire(0);
+
+        assertFalse(bucket.isFull(0));
+        assertTrue(bucket.isFull(SECOND));
+    }
+
+    @Test
+    void testConcurrentCallersNeverExceedCapacity() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(100, 1, 0);
+        AtomicInteger admitted = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 1000; i++) {
+            executor.submit(() -> {
+                if (bucket.tryAcquire(0) == 0) {
+                    admitted.incrementAndGet();
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(100, admitted.get());
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.petclinic.reactive;
+
+import com.example.petclinic.security.JwtUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@SpringBootTest(classes = ReactiveReadApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "spring.main.web-application-type=reactive",
+                "spring.r2dbc.url=r2dbc:h2:mem:///reactive_api?options=DB_CLOSE_DELAY=-1;MODE=MySQL",
+                // application.properties is picked up here too; the warm-up indicator only exists in the servlet app
+                "management.endpoint.health.group.readiness.include=readinessState"
+        })
+@AutoConfigureWebTestClient
+@ActiveProfiles("test")
+class ReactiveReadApiTest {
+
+    private static final LocalDate DAY = LocalDate.now().plusDays(3);
+
+    @Autowired
+    private WebTestClient webTestClient;
+    @Autowired
+    private DatabaseClient databaseClient;
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @BeforeEach
+    void setUp() {
+        for (String sql : List.of(
+                "DROP ALL OBJECTS",
+                "CREATE TABLE users (id BIGINT PRIMARY KEY, username VARCHAR(255), password VARCHAR(255), role VARCHAR(255))",
+                "CREATE TABLE doctors (doctor_id BIGINT PRIMARY KEY, user_id BIGINT, specialization VARCHAR(255), active BOOLEAN)",
+                "CREATE TABLE pets (id BIGINT PRIMARY KEY, name VARCHAR(255), species VARCHAR(255), breed VARCHAR(255), birth_date DATE, owner_id BIGINT)",
+                "CREATE TABLE appointments (id BIGINT PRIMARY KEY, appointment_code VARCHAR(255), appointment_time TIMESTAMP, status VARCHAR(255), pet_id BIGINT, doctor_id BIGINT)",
+                "CREATE TABLE medical_records (id BIGINT PRIMARY KEY, visit_date DATE, diagnosis VARCHAR(255), prescription VARCHAR(255), pet_id BIGINT, appointment_id BIGINT, archived_appointment_id BIGINT)",
+                "INSERT INTO users VALUES (1, 'owner1', 'x', 'OWNER'), (2, 'drwho', 'x', 'DOCTOR'), (3, 'owner2', 'x', 'OWNER')",
+                "INSERT INTO doctors VALUES (10, 2, 'General', TRUE)",
+                "INSERT INTO pets VALUES (100, 'Rex', 'Dog', 'Beagle', DATE '2020-01-01', 1), (101, 'Tom', 'Cat', 'Persian', DATE '2021-01-01', 1), " +
+                        "(102, 'Nemo', 'Fish', 'Clown', DATE '2022-01-01', 3)",
+                "INSERT INTO appointments VALUES (1000, 'APT-1', TIMESTAMP '" + DAY + " 09:00:00', 'SCHEDULED', 100, 10), " +
+                        "(1001, 'APT-2', TIMESTAMP '" + DAY + " 10:00:00', 'SCHEDULED', 102, 10)",
+                "INSERT INTO medical_records VALUES (5000, DATE '2024-05-01', 'Cold', 'Rest', 100, NULL, 999)")) {
+            databaseClient.sql(sql).then().block();
+        }
+    }
+
+    @Test
+    void testOwnerReadsOwnPetsAndAppointments() {
+        String token = jwtUtil.generateToken("owner1", "OWNER");
+        webTestClient.get().uri("/api/pets").header("Authorization", "Bearer " + token)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[0].name").isEqualTo("Rex")
+                .jsonPath("$[0].lastVisitDate").isEqualTo("2024-05-01");
+        webTestClient.get().uri("/api/pets/102").header("Authorization", "Bearer " + token)
+                .exchange()
+                .expectStatus().isNotFound();
+        webTestClient.get().uri("/api/appointments").header("Authorization", "Bearer " + token)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(1)
+                .jsonPath("$[0].appointmentCode").isEqualTo("APT-1")
+                .jsonPath("$[0].doctorName").isEqualTo("drwho");
+    }
+
+    @Test
+    void testDoctorReadsAgendaAndMedicalRecords() {
+        String token = jwtUtil.generateToken("drwho", "DOCTOR");
+        webTestClient.get().uri("/api/appointments?from={from}&to={to}", DAY.atStartOfDay(), DAY.plusDays(1).atStartOfDay())
+                .header("Authorization", "Bearer " + token)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2);
+        webTestClient.get().uri("/api/medical-records/pet/100").header("Authorization", "Bearer " + token)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].appointmentId").isEqualTo(999);
+        webTestClient.get().uri("/api/users/doctors").header("Authorization", "Bearer " + token)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].specialization").isEqualTo("General");
+    }
+
+    @Test
+    void testAuthorizationRules() {
+        webTestClient.get().uri("/api/pets").exchange().expectStatus().isUnauthorized();
+        webTestClient.get().uri("/api/pets").header("Authorization", "Bearer not-a-token")
+                .exchange().expectStatus().isUnauthorized();
+        webTestClient.get().uri("/api/medical-records/pet/100")
+                .header("Authorization", "Bearer " + jwtUtil.generateToken("owner1", "OWNER"))
+                .exchange().expectStatus().isForbidden();
+    }
+}
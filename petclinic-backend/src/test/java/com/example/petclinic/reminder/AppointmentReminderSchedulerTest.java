@@ -0,0 +1,62 @@
+package com.example.petclinic.reminder;
+
+import com.example.petclinic.event.AppointmentEvent;
+import com.example.petclinic.event.AppointmentEventType;
+import com.example.petclinic.repository.AppointmentReminderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AppointmentReminderSchedulerTest {
+
+    private static final LocalDateTime VISIT = LocalDateTime.now().plusDays(1).withNano(0);
+
+    @Mock
+    private AppointmentReminderRepository appointmentReminderRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private AppointmentReminderScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(scheduler, "leadMinutes", List.of(1440L, 60L));
+        lenient().when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+    }
+
+    @Test
+    void testReschedule_ToAnotherTimeClearsSentMarkers() {
+        scheduler.onAppointmentEvent(event(AppointmentEventType.RESCHEDULED, VISIT.plusDays(2), VISIT));
+
+        verify(appointmentReminderRepository).deleteByAppointmentIds(List.of(7L));
+    }
+
+    @Test
+    void testOtherEvents_KeepSentMarkers() {
+        scheduler.onAppointmentEvent(event(AppointmentEventType.CREATED, VISIT, null));
+        // a doctor change at the same time must not resend reminders already delivered
+        scheduler.onAppointmentEvent(event(AppointmentEventType.RESCHEDULED, VISIT, VISIT));
+
+        verify(appointmentReminderRepository, never()).deleteByAppointmentIds(anyCollection());
+    }
+
+    private static AppointmentEvent event(AppointmentEventType type, LocalDateTime time, LocalDateTime previousTime) {
+        return new AppointmentEvent(type, 7L, "APT-7", 1L, "Rex", 2L, 3L, time,
+                previousTime != null ? 3L : null, previousTime, LocalDateTime.now());
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.petclinic.reminder;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HierarchicalTimingWheelTest {
+
+    private static final long MINUTE = 60_000L;
+    private static final long HOUR = 60 * MINUTE;
+
+    private HierarchicalTimingWheel<String> wheel;
+
+    @BeforeEach
+    void setUp() {
+        wheel = new HierarchicalTimingWheel<>(MINUTE, new int[]{60, 24, 8}, 0);
+    }
+
+    @Test
+    void testEntryFiresAtItsMinute() {
+        wheel.add(5 * MINUTE, "five");
+
+        assertTrue(wheel.advanceTo(4 * MINUTE).isEmpty());
+        assertEquals(List.of("five"), wheel.advanceTo(5 * MINUTE));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void testEntriesCascadeFromCoarseLevels() {
+        wheel.add(26 * HOUR + 7 * MINUTE, "day");
+        wheel.add(3 * HOUR + 30 * MINUTE, "hours");
+
+        assertTrue(wheel.advanceTo(3 * HOUR + 29 * MINUTE).isEmpty());
+        assertEquals(List.of("hours"), wheel.advanceTo(3 * HOUR + 30 * MINUTE));
+        assertTrue(wheel.advanceTo(26 * HOUR + 6 * MINUTE).isEmpty());
+        assertEquals(List.of("day"), wheel.advanceTo(26 * HOUR + 7 * MINUTE));
+    }
+
+    @Test
+    void testEntryOnBucketBoundaryFiresOnTime() {
+        wheel.add(2 * HOUR, "boundary");
+
+        assertTrue(wheel.advanceTo(2 * HOUR - MINUTE).isEmpty());
+        assertEquals(List.of("boundary"), wheel.advanceTo(2 * HOUR));
+    }
+
+    @Test
+    void testCancelledEntryNeverFires() {
+        HierarchicalTimingWheel.Timeout<String> timeout = wheel.add(90 * MINUTE, "cancelled");
+        wheel.add(91 * MINUTE, "kept");
+
+        assertTrue(wheel.cancel(timeout));
+        assertEquals(List.of("kept"), wheel.advanceTo(2 * HOUR));
+    }
+
+    @Test
+    void testPastDeadlineFiresOnNextTick() {
+        wheel.advanceTo(10 * MINUTE);
+        wheel.add(MINUTE, "late");
+
+        assertEquals(List.of("late"), wheel.advanceTo(11 * MINUTE));
+    }
+
+    @Test
+    void testDeadlineBeyondSpanIsRejected() {
+        assertNull(wheel.add(9 * 24 * HOUR, "too far"));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void testEveryMinuteOverSeveralDaysFiresInOrder() {
+        for (long minute = 1; minute < 5 * 24 * 60; minute += 37) {
+            wheel.add(minute * MINUTE, Long.toString(minute));
+        }
+        List<String> fired = new ArrayList<>();
+        for (long now = 0; now <= 5 * 24 * HOUR; now += 13 * MINUTE) {
+            fired.addAll(wheel.advanceTo(now));
+        }
+
+        assertEquals(0, wheel.size());
+        long previous = 0;
+        for (String minute : fired) {
+            assertTrue(Long.parseLong(minute) > previous);
+            previous = Long.parseLong(minute);
+        }
+        assertEquals((5 * 24 * 60 - 1 + 36) / 37, fired.size());
+    }
+}
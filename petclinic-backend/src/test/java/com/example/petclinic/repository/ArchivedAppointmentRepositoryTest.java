@@ -0,0 +1,111 @@
+package com.example.petclinic.repository;
+
+import com.example.petclinic.dto.AppointmentDTO;
+import com.example.petclinic.model.*;
+import com.example.petclinic.sync.ChangeSequence;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import(ChangeSequence.class)
+class ArchivedAppointmentRepositoryTest {
+
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+    @Autowired
+    private ArchivedAppointmentRepository archivedAppointmentRepository;
+    @Autowired
+    private MedicalRecordRepository medicalRecordRepository;
+
+    @Test
+    void testMoveToArchive_KeepsIdsAndMedicalRecordLink() {
+        User owner = user("owner1", "OWNER", "111");
+        User doctorUser = user("drwho", "DOCTOR", "222");
+        Pet pet = new Pet();
+        pet.setName("Rex");
+        pet.setSpecies("Dog");
+        pet.setBreed("Beagle");
+        pet.setBirthDate(LocalDate.of(2020, 1, 1));
+        pet.setOwner(owner);
+        entityManager.persist(pet);
+        Doctor doctor = new Doctor();
+        doctor.setUser(doctorUser);
+        doctor.setSpecialization("General");
+        doctor.setRegisteredAt(LocalDateTime.now());
+        entityManager.persist(doctor);
+
+        LocalDateTime oldTime = LocalDateTime.now().minusDays(200);
+        Appointment old = appointment("OLD-1", oldTime, pet, doctor);
+        Appointment recent = appointment("NEW-1", LocalDateTime.now().minusDays(1), pet, doctor);
+        MedicalRecord record = new MedicalRecord();
+        record.setVisitDate(LocalDate.now().minusDays(200));
+        record.setDiagnosis("Checkup");
+        record.setPrescription("None");
+        record.setPet(pet);
+        record.setAppointment(old);
+        entityManager.persist(record);
+        entityManager.flush();
+        entityManager.clear();
+
+        List<AppointmentDTO> agenda = appointmentRepository.findDoctorAgenda(
+                doctor.getDoctorId(), oldTime.minusDays(1), LocalDateTime.now(), null);
+        assertEquals(List.of("OLD-1", "NEW-1"), agenda.stream().map(AppointmentDTO::appointmentCode).toList());
+        assertTrue(appointmentRepository.findDoctorAgenda(
+                doctor.getDoctorId(), oldTime.minusDays(1), LocalDateTime.now(), "CANCELLED").isEmpty());
+
+        List<Long> ids = appointmentRepository.findIdsBefore(LocalDateTime.now().minusDays(90), PageRequest.of(0, 10));
+        assertEquals(List.of(old.getId()), ids);
+        assertEquals(1, archivedAppointmentRepository.copyToArchive(ids, LocalDateTime.now()));
+        assertEquals(1, medicalRecordRepository.detachFromAppointments(ids));
+        appointmentRepository.deleteAllByIdInBatch(ids);
+        entityManager.clear();
+
+        assertEquals(List.of(recent.getId()), appointmentRepository.findAll().stream().map(Appointment::getId).toList());
+        List<AppointmentDTO> archived = archivedAppointmentRepository.findForDoctor(
+                doctor.getDoctorId(), oldTime.minusDays(1), oldTime.plusDays(1));
+        assertEquals(1, archived.size());
+        assertEquals(old.getId(), archived.get(0).id());
+        assertEquals("Rex", archived.get(0).petName());
+        assertEquals("drwho", archived.get(0).doctorName());
+        assertEquals(1, archivedAppointmentRepository.findForPets(List.of(pet.getId()), oldTime.minusDays(1), oldTime.plusDays(1)).size());
+        assertEquals(old.getId(), medicalRecordRepository.findById(record.getId()).orElseThrow().getAppointmentId());
+    }
+
+    private User user(String username, String role, String phone) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("secret");
+        user.setRole(role);
+        user.setPhoneNumber(phone);
+        user.setIdentityCode("ID-" + username);
+        entityManager.persist(user);
+        return user;
+    }
+
+    private Appointment appointment(String code, LocalDateTime time, Pet pet, Doctor doctor) {
+        Appointment appointment = new Appointment();
+        appointment.setAppointmentCode(code);
+        appointment.setAppointmentTime(time);
+        appointment.setStatus("SCHEDULED");
+        appointment.setPet(pet);
+        appointment.setDoctor(doctor);
+        entityManager.persist(appointment);
+        return appointment;
+    }
+}
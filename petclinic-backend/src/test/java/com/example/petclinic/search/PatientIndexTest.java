@@ -0,0 +1,96 @@
+package com.example.petclinic.search;
+
+import com.example.petclinic.dto.PatientMatchDTO;
+import com.example.petclinic.registration.UserKeys;
+import com.example.petclinic.repository.PetRepository;
+import com.example.petclinic.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PatientIndexTest {
+
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private PetRepository petRepository;
+
+    private PatientIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new PatientIndex(userRepository, petRepository, 2, 2);
+    }
+
+    @Test
+    void testSearch_MatchesPetNamesAndOwnerFieldsByPrefix() {
+        index.ownerSaved(new UserKeys(1L, "alice", "+1 555-0100", "AB123"));
+        index.ownerSaved(new UserKeys(2L, "bob", "555-0200", "CD456"));
+        index.petSaved(new PetKeys(10L, "Rex", "Dog", 1L));
+        index.petSaved(new PetKeys(11L, "Bella", "Cat", 2L));
+        index.petSaved(new PetKeys(12L, "Rexy", "Dog", 2L));
+
+        assertEquals(List.of(10L, 12L), petIds(index.search("re", 10)));
+        assertEquals("PET_NAME", index.search("REX", 10).get(0).matchedField());
+        assertEquals(List.of(11L, 12L), petIds(index.search("Bo", 10)));
+        assertEquals(List.of(10L), petIds(index.search("ab1", 10)));
+        assertEquals(List.of(10L), petIds(index.search("1555", 10)));
+        assertEquals(List.of(11L, 12L), petIds(index.search("555-02", 10)));
+        assertEquals(1, index.search("re", 1).size());
+        assertTrue(index.search("r", 10).isEmpty());
+
+        PatientMatchDTO match = index.search("bell", 10).get(0);
+        assertEquals("bob", match.ownerUsername());
+        assertEquals("555-0200", match.ownerPhoneNumber());
+    }
+
+    @Test
+    void testUpdates_ReplaceOldTermsAndRemoveOwnersWithTheirPets() {
+        index.ownerSaved(new UserKeys(1L, "alice", "5550100", "AB123"));
+        index.petSaved(new PetKeys(10L, "Rex", "Dog", 1L));
+        index.petSaved(new PetKeys(10L, "Max", "Dog", 1L));
+
+        assertTrue(index.search("rex", 10).isEmpty());
+        assertEquals(List.of(10L), petIds(index.search("ma", 10)));
+
+        index.ownerSaved(new UserKeys(1L, "alicia", "5550100", "AB123"));
+        assertEquals("alicia", index.search("alici", 10).get(0).ownerUsername());
+
+        index.ownerRemoved(1L);
+        assertTrue(index.search("ma", 10).isEmpty());
+        assertTrue(index.search("ab", 10).isEmpty());
+    }
+
+    @Test
+    void testRebuild_PagesThroughTheDatabaseAndKeepsNewerLiveUpdates() {
+        when(userRepository.findKeysAfter(eq(0L), any())).thenReturn(List.of(
+                new UserKeys(1L, "alice", "5550100", "AB123"), new UserKeys(2L, "bob", "5550200", "CD456")));
+        when(userRepository.findKeysAfter(eq(2L), any())).thenReturn(List.of());
+        when(petRepository.findKeysAfter(eq(0L), any())).thenAnswer(invocation -> {
+            // renamed on this instance while the rebuild was reading the old row
+            index.petSaved(new PetKeys(10L, "Max", "Dog", 1L));
+            return List.of(new PetKeys(10L, "Rex", "Dog", 1L));
+        });
+
+        index.rebuild();
+
+        assertEquals(List.of(10L), petIds(index.search("max", 10)));
+        assertTrue(index.search("rex", 10).isEmpty());
+        assertEquals(List.of(10L), petIds(index.search("ali", 10)));
+        verify(petRepository, times(1)).findKeysAfter(any(), any());
+    }
+
+    private static List<Long> petIds(List<PatientMatchDTO> matches) {
+        return matches.stream().map(PatientMatchDTO::petId).toList();
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.petclinic.security;
+
+import com.example.petclinic.model.Doctor;
+import com.example.petclinic.model.User;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({JwtAuthenticationFilter.class, JwtUtil.class, UserDetailsServiceImpl.class})
+class JwtAuthenticationFilterTest {
+
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private JwtAuthenticationFilter jwtAuthenticationFilter;
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testOwnerToken_ResolvesUserIdWithoutDoctorId() throws Exception {
+        User owner = user("owner1", "OWNER", "111");
+        entityManager.flush();
+
+        ClinicUserDetails principal = authenticate(jwtUtil.generateToken("owner1", "OWNER"));
+
+        assertEquals(owner.getId(), principal.getUserId());
+        assertTrue(principal.isOwner());
+        assertNull(principal.getDoctorId());
+        assertThrows(IllegalArgumentException.class, principal::requireDoctorId);
+    }
+
+    @Test
+    void testDoctorToken_ResolvesUserAndDoctorIds() throws Exception {
+        Doctor doctor = new Doctor();
+        doctor.setUser(user("drwho", "DOCTOR", "222"));
+        doctor.setSpecialization("General");
+        doctor.setRegisteredAt(LocalDateTime.now());
+        entityManager.persist(doctor);
+        entityManager.flush();
+
+        ClinicUserDetails principal = authenticate(jwtUtil.generateToken("drwho", "DOCTOR"));
+
+        assertEquals(doctor.getUser().getId(), principal.getUserId());
+        assertTrue(principal.isDoctor());
+        assertEquals(doctor.getDoctorId(), principal.requireDoctorId());
+        assertEquals("DOCTOR", principal.getAuthorities().iterator().next().getAuthority());
+    }
+
+    private ClinicUserDetails authenticate(String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/pets");
+        request.addHeader("Authorization", "Bearer " + token);
+        MockFilterChain chain = new MockFilterChain();
+        jwtAuthenticationFilter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertNotNull(chain.getRequest());
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertNotNull(authentication);
+        return assertInstanceOf(ClinicUserDetails.class, authentication.getPrincipal());
+    }
+
+    private User user(String username, String role, String phone) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("secret");
+        user.setRole(role);
+        user.setPhoneNumber(phone);
+        user.setIdentityCode("ID-" + username);
+        entityManager.persist(user);
+        return user;
+    }
+}
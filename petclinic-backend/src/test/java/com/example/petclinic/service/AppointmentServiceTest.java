@@ -1,5 +1,8 @@
 package com.example.petclinic.service;
 
+import com.example.petclinic.analytics.AnalyticsService;
+import com.example.petclinic.audit.AuditLog;
+import com.example.petclinic.event.OutboxPublisher;
 import com.example.petclinic.model.Appointment;
 import com.example.petclinic.model.Doctor;
 import com.example.petclinic.model.Pet;
@@ -33,6 +36,15 @@ class AppointmentServiceTest {
     @Mock
     private DoctorRepository doctorRepository;
 
+    @Mock
+    private OutboxPublisher outboxPublisher;
+
+    @Mock
+    private AnalyticsService analyticsService;
+
+    @Mock
+    private AuditLog auditLog;
+
     @InjectMocks
     private AppointmentService appointmentService;
 
@@ -86,6 +98,7 @@ class AppointmentServiceTest {
         assertEquals(testPet, result.getPet());
         assertEquals(testDoctor, result.getDoctor());
         verify(appointmentRepository, times(1)).save(any(Appointment.class));
+        verify(outboxPublisher, times(1)).appointmentCreated(savedAppointment);
     }
 
     @Test
@@ -99,6 +112,7 @@ class AppointmentServiceTest {
             appointmentService.createAppointment(999L, 1L, appointmentTime);
         });
         verify(appointmentRepository, never()).save(any(Appointment.class));
+        verify(outboxPublisher, never()).appointmentCreated(any(Appointment.class));
     }
 
     @Test
@@ -0,0 +1,40 @@
+package com.example.petclinic.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Not transactional and on its own database: the test drops the constraint for real
+@DataJpaTest(properties = "spring.datasource.url=jdbc:h2:mem:bookingconstraint;MODE=MySQL;DATABASE_TO_LOWER=TRUE;CASE_INSENSITIVE_IDENTIFIERS=TRUE")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(BookingConstraintCheck.class)
+class BookingConstraintCheckTest {
+
+    @Autowired
+    private BookingConstraintCheck check;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testStartupFailsWithoutDoctorTimeConstraint() {
+        assertTrue(check.hasDoctorTimeUniqueIndex());
+
+        jdbcTemplate.execute("ALTER TABLE appointments DROP CONSTRAINT uk_appointment_doctor_time");
+        try {
+            assertThrows(IllegalStateException.class, check::afterSingletonsInstantiated);
+        } finally {
+            jdbcTemplate.execute("ALTER TABLE appointments ADD CONSTRAINT uk_appointment_doctor_time UNIQUE (doctor_id, appointment_time)");
+        }
+        check.afterSingletonsInstantiated();
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.petclinic.service;
+
+import com.example.petclinic.coalesce.SingleFlight;
+import com.example.petclinic.dto.AppointmentDTO;
+import com.example.petclinic.event.AppointmentEvent;
+import com.example.petclinic.event.AppointmentEventType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DoctorAgendaCacheTest {
+
+    @Mock
+    private AppointmentService appointmentService;
+
+    private DoctorAgendaCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new DoctorAgendaCache(appointmentService, new SingleFlight(new SimpleMeterRegistry(), 100), 300);
+        when(appointmentService.getAgendaForDoctor(any(), any(), any(), isNull())).thenReturn(List.of(
+                new AppointmentDTO(1L, "APT-1", LocalDateTime.now(), 10L, 1L, "SCHEDULED", "Rex", "drwho")));
+    }
+
+    @Test
+    void testGetToday_ServedFromCacheUntilEvicted() {
+        assertEquals(1, cache.getToday(1L).size());
+        cache.getToday(1L);
+        verify(appointmentService, times(1)).getAgendaForDoctor(eq(1L), any(), any(), isNull());
+
+        cache.onAppointmentEvent(event(1L, null));
+        cache.getToday(1L);
+        verify(appointmentService, times(2)).getAgendaForDoctor(eq(1L), any(), any(), isNull());
+    }
+
+    @Test
+    void testReassignment_EvictsBothDoctors() {
+        cache.getToday(1L);
+        cache.getToday(2L);
+
+        cache.onAppointmentEvent(event(2L, 1L));
+        cache.getToday(1L);
+        cache.getToday(2L);
+
+        verify(appointmentService, times(2)).getAgendaForDoctor(eq(1L), any(), any(), isNull());
+        verify(appointmentService, times(2)).getAgendaForDoctor(eq(2L), any(), any(), isNull());
+    }
+
+    private AppointmentEvent event(Long doctorId, Long previousDoctorId) {
+        return new AppointmentEvent(previousDoctorId == null ? AppointmentEventType.CREATED : AppointmentEventType.RESCHEDULED,
+                1L, "APT-1", 10L, "Rex", 100L, doctorId, LocalDateTime.now(),
+                previousDoctorId, null, LocalDateTime.now());
+    }
+}
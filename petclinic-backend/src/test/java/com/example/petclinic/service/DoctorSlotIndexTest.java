@@ -0,0 +1,85 @@
+package com.example.petclinic.service;
+
+import com.example.petclinic.event.AppointmentEvent;
+import com.example.petclinic.event.AppointmentEventType;
+import com.example.petclinic.repository.AppointmentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DoctorSlotIndexTest {
+
+    private static final LocalDate DAY = LocalDate.now().plusDays(2);
+
+    @Mock
+    private AppointmentRepository appointmentRepository;
+
+    private DoctorSlotIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new DoctorSlotIndex(appointmentRepository, 30, "09:00", "17:00", 30, 10);
+    }
+
+    @Test
+    void testAlignToSlot_RoundsUpWithinOpeningHours() {
+        assertEquals(DAY.atTime(9, 0), index.alignToSlot(DAY.atTime(7, 15)));
+        assertEquals(DAY.atTime(9, 30), index.alignToSlot(DAY.atTime(9, 10)));
+        assertEquals(DAY.atTime(10, 0), index.alignToSlot(DAY.atTime(9, 30, 1)));
+        assertEquals(DAY.atTime(16, 30), index.alignToSlot(DAY.atTime(16, 30)));
+        assertEquals(DAY.plusDays(1).atTime(9, 0), index.alignToSlot(DAY.atTime(16, 45)));
+    }
+
+    @Test
+    void testReserveEarliest_PrefersEarliestThenLeastLoadedDoctor() {
+        // doctor 1 is booked at 9:00, doctor 2 at 9:00 and 9:30, doctor 3 at 9:00 and 14:00
+        when(appointmentRepository.findBookedTimes(eq(1L), any(), any())).thenReturn(List.of(DAY.atTime(9, 0)));
+        when(appointmentRepository.findBookedTimes(eq(2L), any(), any())).thenReturn(List.of(DAY.atTime(9, 0), DAY.atTime(9, 30)));
+        when(appointmentRepository.findBookedTimes(eq(3L), any(), any())).thenReturn(List.of(DAY.atTime(9, 0), DAY.atTime(14, 0)));
+
+        assertEquals(new DoctorSlotIndex.Slot(1L, DAY.atTime(9, 30)),
+                index.reserveEarliest(List.of(1L, 2L, 3L), DAY.atTime(9, 0)).orElseThrow());
+        // 9:30 is left only with doctor 3
+        assertEquals(new DoctorSlotIndex.Slot(3L, DAY.atTime(9, 30)),
+                index.reserveEarliest(List.of(1L, 2L, 3L), DAY.atTime(9, 0)).orElseThrow());
+        // all three are free at 10:00; doctor 3 now has the most bookings that day
+        DoctorSlotIndex.Slot next = index.reserveEarliest(List.of(1L, 2L, 3L), DAY.atTime(9, 0)).orElseThrow();
+        assertEquals(DAY.atTime(10, 0), next.time());
+        assertNotEquals(3L, next.doctorId());
+        verify(appointmentRepository, times(1)).findBookedTimes(eq(1L), any(), any());
+    }
+
+    @Test
+    void testEvents_UpdateLoadedDoctors() {
+        when(appointmentRepository.findBookedTimes(eq(1L), any(), any())).thenReturn(List.of(DAY.atTime(9, 0)));
+        assertEquals(DAY.atTime(9, 30), index.reserveEarliest(List.of(1L), DAY.atTime(9, 0)).orElseThrow().time());
+
+        index.onAppointmentEvent(event(AppointmentEventType.CANCELLED, DAY.atTime(9, 0), null, null));
+        assertEquals(DAY.atTime(9, 0), index.reserveEarliest(List.of(1L), DAY.atTime(9, 0)).orElseThrow().time());
+
+        index.onAppointmentEvent(event(AppointmentEventType.RESCHEDULED, DAY.atTime(11, 0), 1L, DAY.atTime(9, 30)));
+        assertEquals(DAY.atTime(9, 30), index.reserveEarliest(List.of(1L), DAY.atTime(9, 0)).orElseThrow().time());
+        assertFalse(index.tryReserve(new DoctorSlotIndex.Slot(1L, DAY.atTime(11, 0))));
+    }
+
+    @Test
+    void testReserveEarliest_EmptyWhenNoDoctors() {
+        assertTrue(index.reserveEarliest(List.of(), DAY.atTime(9, 0)).isEmpty());
+    }
+
+    private static AppointmentEvent event(AppointmentEventType type, LocalDateTime time, Long previousDoctorId, LocalDateTime previousTime) {
+        return new AppointmentEvent(type, 100L, "APT-1", 10L, "Rex", 20L, 1L, time, previousDoctorId, previousTime, LocalDateTime.now());
+    }
+}
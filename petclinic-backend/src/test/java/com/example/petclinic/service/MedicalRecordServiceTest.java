@@ -0,0 +1,131 @@
+package com.example.petclinic.service;
+
+import com.example.petclinic.analytics.AnalyticsService;
+import com.example.petclinic.audit.AuditLog;
+import com.example.petclinic.dto.MedicalRecordDTO;
+import com.example.petclinic.model.*;
+import com.example.petclinic.repository.*;
+import com.example.petclinic.search.PatientIndex;
+import com.example.petclinic.sync.ChangeSequence;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+// Not transactional: the service's own transaction has to commit or roll back for real
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({MedicalRecordService.class, ChangeSequence.class, PatientIndex.class})
+class MedicalRecordServiceTest {
+
+    @Autowired
+    private MedicalRecordService medicalRecordService;
+    @Autowired
+    private MedicalRecordRepository medicalRecordRepository;
+    @Autowired
+    private AppointmentRepository appointmentRepository;
+    @Autowired
+    private PetRepository petRepository;
+    @Autowired
+    private DoctorRepository doctorRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @MockBean
+    private AnalyticsService analyticsService;
+    @MockBean
+    private AuditLog auditLog;
+    @MockBean
+    private PetService petService;
+
+    private Pet pet;
+    private Appointment appointment;
+
+    @BeforeEach
+    void setUp() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            User owner = userRepository.save(user("owner1", "OWNER", "111"));
+            Doctor doctor = new Doctor();
+            doctor.setUser(userRepository.save(user("drwho", "DOCTOR", "222")));
+            doctor.setSpecialization("General");
+            doctor.setRegisteredAt(LocalDateTime.now());
+            doctorRepository.save(doctor);
+            pet = new Pet();
+            pet.setName("Rex");
+            pet.setSpecies("Dog");
+            pet.setBreed("Beagle");
+            pet.setBirthDate(LocalDate.of(2020, 1, 1));
+            pet.setOwner(owner);
+            petRepository.save(pet);
+            appointment = new Appointment();
+            appointment.setAppointmentCode("A-1");
+            appointment.setAppointmentTime(LocalDateTime.now().minusHours(1));
+            appointment.setStatus("SCHEDULED");
+            appointment.setPet(pet);
+            appointment.setDoctor(doctor);
+            appointmentRepository.save(appointment);
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        medicalRecordRepository.deleteAllInBatch();
+        appointmentRepository.deleteAllInBatch();
+        petRepository.deleteAllInBatch();
+        doctorRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void testAddMedicalRecord_CommitsRecordWithRollup() {
+        MedicalRecordDTO saved = medicalRecordService.addMedicalRecord(dto());
+
+        assertNotNull(saved.id());
+        assertEquals(1, medicalRecordRepository.count());
+        verify(analyticsService).visitRecorded(any());
+        verify(petService).petsChanged();
+    }
+
+    @Test
+    void testAddMedicalRecord_FailedRollupRollsBackTheRecord() {
+        doThrow(new IllegalStateException("rollup failed")).when(analyticsService).visitRecorded(any());
+
+        assertThrows(IllegalStateException.class, () -> medicalRecordService.addMedicalRecord(dto()));
+
+        assertEquals(0, medicalRecordRepository.count());
+        verifyNoInteractions(auditLog);
+    }
+
+    private MedicalRecordDTO dto() {
+        return new MedicalRecordDTO(null, LocalDate.now(), "Checkup", "None", pet.getId(), appointment.getId());
+    }
+
+    private static User user(String username, String role, String phone) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("secret");
+        user.setRole(role);
+        user.setPhoneNumber(phone);
+        user.setIdentityCode("ID-" + username);
+        return user;
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.petclinic.service;
+
+import com.example.petclinic.coalesce.SingleFlight;
+import com.example.petclinic.model.Pet;
+import com.example.petclinic.repository.MedicalRecordRepository;
+import com.example.petclinic.repository.PetRepository;
+import com.example.petclinic.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.mockito.AdditionalAnswers.returnsFirstArg;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PetServiceTest {
+
+    @Mock
+    private PetRepository petRepository;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private MedicalRecordRepository medicalRecordRepository;
+    @Mock
+    private SingleFlight singleFlight;
+    @InjectMocks
+    private PetService petService;
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testAddPet_InvalidatesOwnerPetsOnCommit() {
+        when(petRepository.save(any())).then(returnsFirstArg());
+        TransactionSynchronizationManager.initSynchronization();
+
+        petService.addPet(new Pet(), 1L);
+
+        // a list started before the commit could still miss the pet
+        verifyNoInteractions(singleFlight);
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        verify(singleFlight).invalidate(PetService.OWNER_PETS_FLIGHT);
+    }
+
+    @Test
+    void testPetsChanged_OutsideTransactionInvalidatesAtOnce() {
+        petService.petsChanged();
+
+        verify(singleFlight).invalidate(PetService.OWNER_PETS_FLIGHT);
+    }
+}
@@ -0,0 +1,207 @@
+package com.example.petclinic.stream;
+
+import com.example.petclinic.event.AppointmentEvent;
+import com.example.petclinic.event.AppointmentEventType;
+import com.example.petclinic.model.OutboxEvent;
+import com.example.petclinic.repository.OutboxEventRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AppointmentStreamBrokerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final List<RecordingEmitter> emitters = new CopyOnWriteArrayList<>();
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    private AppointmentStreamBroker broker;
+
+    @BeforeEach
+    void setUp() {
+        broker = new AppointmentStreamBroker(outboxEventRepository, objectMapper, new SimpleMeterRegistry(), 4, 2) {
+            @Override
+            SseEmitter newEmitter(long timeoutMillis) {
+                RecordingEmitter emitter = new RecordingEmitter();
+                emitters.add(emitter);
+                return emitter;
+            }
+        };
+        ReflectionTestUtils.setField(broker, "maxReplay", 500);
+    }
+
+    @AfterEach
+    void tearDown() {
+        broker.shutdown();
+    }
+
+    @Test
+    void testSubscribe_OwnerOnlyGetsTheirOwnEvents() throws Exception {
+        broker.subscribe(AppointmentStreamBroker.Scope.OWNER, 1L, null);
+        RecordingEmitter emitter = emitters.get(0);
+
+        broker.onAppointmentEvent(10L, event(1L, 5L));
+        broker.onAppointmentEvent(11L, event(2L, 5L));
+        broker.onAppointmentEvent(12L, event(1L, 6L));
+
+        await(() -> emitter.ids().size() == 2);
+        assertEquals(List.of("10", "12"), emitter.ids());
+        assertTrue(emitter.text().startsWith(":connected"));
+    }
+
+    @Test
+    void testSubscribe_ReplaysFromLastEventIdWithoutDuplicatingLiveEvents() throws Exception {
+        when(outboxEventRepository.findFirstByOrderByIdAsc()).thenReturn(Optional.of(outbox(1L, event(1L, 5L))));
+        when(outboxEventRepository.findByIdGreaterThanOrderByIdAsc(eq(20L), any())).thenReturn(List.of(
+                outbox(21L, event(1L, 5L)), outbox(22L, event(2L, 5L)), outbox(23L, event(3L, 7L))));
+
+        broker.subscribe(AppointmentStreamBroker.Scope.DOCTOR, 5L, 20L);
+        RecordingEmitter emitter = emitters.get(0);
+        // still pending in the outbox while the replay read it
+        broker.onAppointmentEvent(22L, event(2L, 5L));
+        broker.onAppointmentEvent(24L, event(1L, 5L));
+
+        await(() -> emitter.ids().size() >= 3);
+        Thread.sleep(50);
+        assertEquals(List.of("21", "22", "24"), emitter.ids());
+    }
+
+    @Test
+    void testReplay_PurgedHistorySendsReset() throws Exception {
+        when(outboxEventRepository.findFirstByOrderByIdAsc()).thenReturn(Optional.of(outbox(50L, event(1L, 5L))));
+        when(outboxEventRepository.findByIdGreaterThanOrderByIdAsc(eq(20L), any())).thenReturn(List.of());
+
+        broker.subscribe(AppointmentStreamBroker.Scope.OWNER, 1L, 20L);
+
+        await(() -> emitters.get(0).text().contains("event:reset"));
+    }
+
+    @Test
+    void testDisconnect_CompletionAndFailedSendsRemoveTheSubscriber() throws Exception {
+        broker.subscribe(AppointmentStreamBroker.Scope.OWNER, 1L, null);
+        broker.subscribe(AppointmentStreamBroker.Scope.OWNER, 1L, null);
+        assertEquals(2, broker.subscriberCount());
+
+        emitters.get(0).completion.run();
+        assertEquals(1, broker.subscriberCount());
+
+        emitters.get(1).broken = true;
+        broker.onAppointmentEvent(10L, event(1L, 5L));
+        await(() -> broker.subscriberCount() == 0);
+    }
+
+    @Test
+    void testSlowSubscriber_IsDroppedWithoutHoldingUpOthers() throws Exception {
+        broker.subscribe(AppointmentStreamBroker.Scope.OWNER, 1L, null);
+        broker.subscribe(AppointmentStreamBroker.Scope.OWNER, 1L, null);
+        RecordingEmitter slow = emitters.get(0);
+        RecordingEmitter fast = emitters.get(1);
+        await(() -> slow.text().contains("connected") && fast.text().contains("connected"));
+        slow.blocked = new CountDownLatch(1);
+
+        // paced so only the blocked subscriber can fall a whole queue behind
+        for (long id = 1; id <= 10; id++) {
+            broker.onAppointmentEvent(id, event(1L, 5L));
+            int delivered = (int) id;
+            await(() -> fast.ids().size() == delivered);
+        }
+
+        await(() -> broker.subscriberCount() == 1);
+        assertNotNull(slow.failure);
+        slow.blocked.countDown();
+    }
+
+    private static AppointmentEvent event(Long ownerId, Long doctorId) {
+        return new AppointmentEvent(AppointmentEventType.CREATED, 1L, "APT-1", 1L, "Rex", ownerId, doctorId,
+                LocalDateTime.now().plusDays(1), null, null, LocalDateTime.now());
+    }
+
+    private OutboxEvent outbox(Long id, AppointmentEvent event) throws IOException {
+        OutboxEvent outboxEvent = new OutboxEvent();
+        outboxEvent.setId(id);
+        outboxEvent.setPayload(objectMapper.writeValueAsString(event));
+        return outboxEvent;
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not met in time");
+            Thread.sleep(5);
+        }
+    }
+
+    /**
+     * Records what would be written to the response instead of needing a servlet container.
+     */
+    private static class RecordingEmitter extends SseEmitter {
+        final List<String> sent = new CopyOnWriteArrayList<>();
+        volatile Runnable completion;
+        volatile boolean broken;
+        volatile CountDownLatch blocked;
+        volatile Throwable failure;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            CountDownLatch latch = blocked;
+            if (latch != null) {
+                try {
+                    latch.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (broken) {
+                throw new IOException("Broken pipe");
+            }
+            StringBuilder text = new StringBuilder();
+            for (DataWithMediaType part : builder.build()) {
+                text.append(part.getData() instanceof AppointmentEvent ? "<event>" : part.getData());
+            }
+            sent.add(text.toString());
+        }
+
+        @Override
+        public synchronized void onCompletion(Runnable callback) {
+            completion = callback;
+        }
+
+        @Override
+        public synchronized void completeWithError(Throwable ex) {
+            failure = ex;
+        }
+
+        List<String> ids() {
+            return sent.stream().filter(s -> s.startsWith("id:"))
+                    .map(s -> s.substring(3, s.indexOf('\n'))).toList();
+        }
+
+        String text() {
+            return String.join("", sent);
+        }
+    }
+}
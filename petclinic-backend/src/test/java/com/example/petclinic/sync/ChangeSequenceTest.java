@@ -0,0 +1,122 @@
+package com.example.petclinic.sync;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Not transactional: the visibility horizon depends on real transaction boundaries. Own database,
+// so instances left behind by other test contexts do not hold the horizon back.
+@DataJpaTest(properties = {
+        "petclinic.sync.sequence-block-size=2",
+        "spring.datasource.url=jdbc:h2:mem:changesequence;MODE=MySQL;DATABASE_TO_LOWER=TRUE;CASE_INSENSITIVE_IDENTIFIERS=TRUE"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(ChangeSequence.class)
+class ChangeSequenceTest {
+
+    @Autowired
+    private ChangeSequence changeSequence;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testNext_IncreasesAcrossBlocks() {
+        long previous = changeSequence.next();
+        for (int i = 0; i < 5; i++) {
+            long seq = changeSequence.next();
+            assertTrue(seq > previous);
+            previous = seq;
+        }
+        assertEquals(previous, changeSequence.current());
+    }
+
+    @Test
+    void testCurrent_StopsBelowValuesOfOpenTransactions() {
+        changeSequence.publish();
+        long before = changeSequence.current();
+        TransactionStatus slow = transactionManager.getTransaction(new DefaultTransactionDefinition());
+        long held = changeSequence.next();
+        assertEquals(held, changeSequence.current());
+
+        TransactionStatus fast = CompletableFuture.supplyAsync(() -> {
+            TransactionStatus status = transactionManager.getTransaction(new DefaultTransactionDefinition());
+            changeSequence.next();
+            transactionManager.commit(status);
+            return status;
+        }).join();
+        assertTrue(fast.isCompleted());
+
+        // the later commit must not move the horizon past the value still in flight
+        assertEquals(held - 1, CompletableFuture.supplyAsync(changeSequence::current).join());
+        assertTrue(held - 1 >= before);
+
+        transactionManager.commit(slow);
+        assertTrue(changeSequence.current() > held);
+    }
+
+    @Test
+    void testCurrent_CoversValuesInFlightOnOtherInstances() {
+        TransactionStatus slow = transactionManager.getTransaction(new DefaultTransactionDefinition());
+        long held = changeSequence.next();
+
+        // e.g. the new instance of a rolling deploy, starting past our reserved block
+        ChangeSequence other = otherInstance();
+        try {
+            long later = CompletableFuture.supplyAsync(() -> {
+                TransactionStatus status = transactionManager.getTransaction(new DefaultTransactionDefinition());
+                long seq = other.next();
+                transactionManager.commit(status);
+                return seq;
+            }).join();
+            assertTrue(later > held);
+            assertTrue(other.current() < held);
+
+            transactionManager.commit(slow);
+            assertTrue(other.current() < held);
+            changeSequence.publish();
+            assertTrue(other.current() >= held);
+        } finally {
+            other.publish();
+            other.shutdown();
+        }
+    }
+
+    @Test
+    void testCurrent_IgnoresStaleInstances() {
+        changeSequence.next();
+        long current = changeSequence.current();
+        jdbcTemplate.update("INSERT INTO sync_instances (instance_id, low_water, generation, heartbeat_at) VALUES (?, ?, ?, ?)",
+                "dead", 1L, 1L, LocalDateTime.now().minusMinutes(5));
+
+        assertEquals(current, changeSequence.current());
+        changeSequence.publish();
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM sync_instances WHERE instance_id = 'dead'", Integer.class));
+    }
+
+    private ChangeSequence otherInstance() {
+        ChangeSequence other = new ChangeSequence();
+        ReflectionTestUtils.setField(other, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(other, "transactionManager", transactionManager);
+        ReflectionTestUtils.setField(other, "blockSize", 2);
+        ReflectionTestUtils.setField(other, "instanceTimeoutSeconds", 60L);
+        return other;
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.petclinic.sync;
+
+import com.example.petclinic.dto.SyncResponseDTO;
+import com.example.petclinic.dto.SyncTombstoneDTO;
+import com.example.petclinic.model.*;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// own database, so instances left behind by other test contexts do not hold the sync horizon back
+@DataJpaTest(properties = "spring.datasource.url=jdbc:h2:mem:syncservice;MODE=MySQL;DATABASE_TO_LOWER=TRUE;CASE_INSENSITIVE_IDENTIFIERS=TRUE")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({SyncService.class, ChangeSequence.class})
+class SyncServiceTest {
+
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private SyncService syncService;
+
+    private User owner;
+    private Pet pet;
+    private Doctor doctor;
+    private Doctor otherDoctor;
+    private int booked;
+
+    @BeforeEach
+    void setUp() {
+        owner = user("owner1", "OWNER", "111");
+        pet = new Pet();
+        pet.setName("Rex");
+        pet.setSpecies("Dog");
+        pet.setBreed("Beagle");
+        pet.setBirthDate(LocalDate.of(2020, 1, 1));
+        pet.setOwner(owner);
+        entityManager.persist(pet);
+        doctor = doctor("drwho", "222");
+        otherDoctor = doctor("drno", "333");
+        entityManager.flush();
+    }
+
+    @Test
+    void testDelta_OnlyReturnsRowsChangedSinceToken() {
+        Appointment first = appointment("A-1", doctor);
+        entityManager.flush();
+
+        SyncResponseDTO full = syncService.syncForOwner(owner.getId(), null);
+        assertTrue(full.full());
+        assertEquals(1, full.pets().size());
+        assertEquals(1, full.appointments().size());
+
+        Appointment second = appointment("A-2", doctor);
+        entityManager.flush();
+
+        SyncResponseDTO delta = syncService.syncForOwner(owner.getId(), Long.parseLong(full.token()));
+        assertFalse(delta.full());
+        assertTrue(delta.pets().isEmpty());
+        assertEquals(List.of(second.getId()), delta.appointments().stream().map(a -> a.id()).toList());
+
+        SyncResponseDTO empty = syncService.syncForOwner(owner.getId(), Long.parseLong(delta.token()));
+        assertTrue(empty.appointments().isEmpty());
+        assertEquals(delta.token(), empty.token());
+        assertNotEquals(first.getId(), second.getId());
+    }
+
+    @Test
+    void testDeleteAndReassign_ProduceScopedTombstones() {
+        Appointment cancelled = appointment("A-1", doctor);
+        Appointment moved = appointment("A-2", doctor);
+        entityManager.flush();
+        long token = Long.parseLong(syncService.syncForOwner(owner.getId(), null).token());
+
+        entityManager.remove(cancelled);
+        moved.setDoctor(otherDoctor);
+        entityManager.flush();
+
+        SyncResponseDTO ownerDelta = syncService.syncForOwner(owner.getId(), token);
+        assertEquals(List.of(new SyncTombstoneDTO(ChangeSequenceListener.APPOINTMENT, cancelled.getId())), ownerDelta.deleted());
+        assertEquals(List.of(moved.getId()), ownerDelta.appointments().stream().map(a -> a.id()).toList());
+
+        SyncResponseDTO doctorDelta = syncService.syncForDoctor(doctor.getDoctorId(), token);
+        assertEquals(2, doctorDelta.deleted().size());
+        assertTrue(doctorDelta.appointments().isEmpty());
+
+        SyncResponseDTO otherDoctorDelta = syncService.syncForDoctor(otherDoctor.getDoctorId(), token);
+        assertEquals(List.of(moved.getId()), otherDoctorDelta.appointments().stream().map(a -> a.id()).toList());
+    }
+
+    private User user(String username, String role, String phone) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("secret");
+        user.setRole(role);
+        user.setPhoneNumber(phone);
+        user.setIdentityCode("ID-" + username);
+        entityManager.persist(user);
+        return user;
+    }
+
+    private Doctor doctor(String username, String phone) {
+        Doctor doctor = new Doctor();
+        doctor.setUser(user(username, "DOCTOR", phone));
+        doctor.setSpecialization("General");
+        doctor.setRegisteredAt(LocalDateTime.now());
+        entityManager.persist(doctor);
+        return doctor;
+    }
+
+    private Appointment appointment(String code, Doctor doctor) {
+        Appointment appointment = new Appointment();
+        appointment.setAppointmentCode(code);
+        appointment.setAppointmentTime(LocalDateTime.of(2030, 1, 1, 9, 0).plusHours(booked++));
+        appointment.setStatus("SCHEDULED");
+        appointment.setPet(pet);
+        appointment.setDoctor(doctor);
+        entityManager.persist(appointment);
+        return appointment;
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.petclinic.timing;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestTimerTest {
+
+    @AfterEach
+    void tearDown() {
+        RequestTimer.clear();
+    }
+
+    @Test
+    void testUntimedRequest_RecordsNothing() {
+        assertEquals(0, RequestTimer.begin());
+        RequestTimer.end(RequestTimer.Phase.JWT, 0);
+        RequestTimer.record(RequestTimer.Phase.DB, 1_000_000);
+        RequestTimer.handlerStarted();
+
+        assertNull(RequestTimer.current());
+    }
+
+    @Test
+    void testHeader_ListsMeasuredPhasesUpToTheBody() {
+        RequestTimer timer = new RequestTimer(0);
+        timer.add(RequestTimer.Phase.JWT, 200_000);
+        timer.add(RequestTimer.Phase.DB, 1_000_000);
+        timer.add(RequestTimer.Phase.DB, 2_000_000);
+        timer.markHandlerStarted(1_000_000);
+        timer.markHandlerFinished(6_000_000);
+        timer.markHandlerFinished(9_000_000);
+
+        assertEquals("jwt;dur=0.2;desc=\"JWT verification\", db;dur=3.0;desc=\"JDBC (2 statements)\", "
+                + "app;dur=5.0;desc=\"Controller\", total;dur=6.0", timer.header(6_000_000));
+    }
+
+    @Test
+    void testSummary_SeparatesLazyLoadsAndSerialization() {
+        RequestTimer timer = RequestTimer.start();
+        RequestTimer.record(RequestTimer.Phase.DB, 1_000_000);
+        RequestTimer.handlerStarted();
+        RequestTimer.handlerFinished();
+        RequestTimer.record(RequestTimer.Phase.DB, 500_000);
+        timer.finish(System.nanoTime());
+
+        String summary = timer.summary();
+        assertTrue(summary.startsWith("db=1.0/1 app="), summary);
+        assertTrue(summary.contains(" ser-db=0.5/1 ser="), summary);
+        assertTrue(summary.contains(" total="), summary);
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.petclinic.timing;
+
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServerTimingFilterTest {
+
+    private final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/pets");
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    @Test
+    void testSampledStaffRequest_GetsHeaderAndAccessLogSummary() throws Exception {
+        new ServerTimingFilter(true, 1.0).doFilter(request, response, handler(true));
+
+        String header = response.getHeader(RequestTimer.HEADER);
+        assertNotNull(header);
+        assertTrue(header.contains("db;dur="));
+        assertTrue(header.contains("app;dur="));
+        assertTrue(header.contains("total;dur="));
+        assertNotNull(request.getAttribute(ServerTimingFilter.ACCESS_LOG_ATTRIBUTE));
+        assertNull(RequestTimer.current());
+    }
+
+    @Test
+    void testSampledOtherCaller_OnlyReachesTheAccessLog() throws Exception {
+        new ServerTimingFilter(true, 1.0).doFilter(request, response, handler(false));
+
+        assertFalse(response.containsHeader(RequestTimer.HEADER));
+        assertNotNull(request.getAttribute(ServerTimingFilter.ACCESS_LOG_ATTRIBUTE));
+    }
+
+    @Test
+    void testUnsampledRequest_IsNotTimed() throws Exception {
+        AtomicReference<RequestTimer> seen = new AtomicReference<>();
+        FilterChain chain = (req, res) -> {
+            seen.set(RequestTimer.current());
+            handler(true).doFilter(req, res);
+        };
+
+        new ServerTimingFilter(true, 0.0).doFilter(request, response, chain);
+
+        assertNull(seen.get());
+        assertFalse(response.containsHeader(RequestTimer.HEADER));
+        assertNull(request.getAttribute(ServerTimingFilter.ACCESS_LOG_ATTRIBUTE));
+    }
+
+    @Test
+    void testDisabled_IsNotTimed() throws Exception {
+        new ServerTimingFilter(false, 1.0).doFilter(request, response, handler(true));
+
+        assertFalse(response.containsHeader(RequestTimer.HEADER));
+        assertNull(request.getAttribute(ServerTimingFilter.ACCESS_LOG_ATTRIBUTE));
+    }
+
+    // Stands in for the security chain and a handler that writes without a message converter
+    private static FilterChain handler(boolean staff) {
+        return (req, res) -> {
+            RequestTimer.handlerStarted();
+            if (staff) {
+                RequestTimer.allowHeader();
+            }
+            RequestTimer.record(RequestTimer.Phase.DB, 1_000_000);
+        };
+    }
+}